@@ -0,0 +1,110 @@
+package com.expensetracker.benchmarks;
+
+import com.expensetracker.controller.CategoryController;
+import com.expensetracker.controller.ExpenseController;
+import com.expensetracker.controller.UserController;
+import com.expensetracker.dao.EmbeddedStorageEngine;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.User;
+import com.expensetracker.tools.SyntheticDataGenerator;
+import com.expensetracker.util.DatabaseUtil;
+
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeded datasets shared by the benchmarks.
+ *
+ * Each dataset size gets its own embedded database file under
+ * target/benchmark-db, seeded once and reused by later runs and forks.
+ * Expenses come from the SyntheticDataGenerator with a fixed seed, so every
+ * run measures the same data.
+ */
+public final class BenchmarkData {
+
+    public static final String USERNAME = "benchmark";
+
+    // Expenses are spread over the five years up to this day
+    public static final LocalDate LAST_DAY = LocalDate.of(2025, 12, 31);
+    public static final LocalDate FIRST_DAY = LAST_DAY.minusYears(5).plusDays(1);
+
+    private static final String[] DEFAULT_CATEGORIES = {
+        "Food", "Transport", "Housing", "Entertainment", "Healthcare",
+        "Education", "Shopping", "Utilities", "Other"
+    };
+
+    private static final SyntheticDataGenerator GENERATOR =
+        new SyntheticDataGenerator(SyntheticDataGenerator.DEFAULT_SEED, FIRST_DAY, LAST_DAY);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Point the application at the database for this dataset size, seeding it
+     * on first use, and return the benchmark user's ID
+     */
+    public static int openDatabase(int size) throws SQLException {
+        DatabaseUtil.setStorageEngine(new EmbeddedStorageEngine(
+            Paths.get("target", "benchmark-db", "expenses-" + size)));
+        DatabaseUtil.initializeDatabase();
+
+        UserController userController = new UserController();
+        User user = userController.getUserByUsername(USERNAME);
+        if (user == null) {
+            userController.registerUser(USERNAME, USERNAME, USERNAME + "@example.com");
+            user = userController.getUserByUsername(USERNAME);
+        }
+        int userId = user.getUserId();
+
+        ExpenseController expenseController = new ExpenseController();
+        long existing = expenseController.countExpenses(userId, 0, null, null);
+        if (existing != size) {
+            if (existing > 0) {
+                throw new IllegalStateException("Database for " + size + " expenses holds " + existing +
+                    "; delete target/benchmark-db to reseed");
+            }
+            seed(expenseController, userId, size);
+        }
+        return userId;
+    }
+
+    /**
+     * Close the pool so the database file is released
+     */
+    public static void closeDatabase() {
+        DatabaseUtil.closeConnection();
+    }
+
+    /**
+     * Generate expenses for a user, the same ones on every call
+     */
+    public static List<Expense> generate(int userId, List<Category> categories, int size) {
+        return GENERATOR.generateExpenses(0, userId, categories, size);
+    }
+
+    /**
+     * The default categories with IDs 1 to 9, for benchmarks without a database
+     */
+    public static List<Category> defaultCategories() {
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < DEFAULT_CATEGORIES.length; i++) {
+            categories.add(new Category(i + 1, DEFAULT_CATEGORIES[i], null, 0, true));
+        }
+        return categories;
+    }
+
+    private static void seed(ExpenseController expenseController, int userId, int size) {
+        System.out.println("Seeding " + size + " expenses...");
+        List<Category> categories = new CategoryController().getCategoriesByUser(userId);
+        GENERATOR.generateExpenses(0, userId, categories, size, SyntheticDataGenerator.DEFAULT_CHUNK_SIZE, chunk -> {
+            int inserted = expenseController.addExpenses(chunk).getInsertedCount();
+            if (inserted != chunk.size()) {
+                throw new IllegalStateException("Seeding failed: inserted " + inserted + " of " + chunk.size());
+            }
+        });
+    }
+}
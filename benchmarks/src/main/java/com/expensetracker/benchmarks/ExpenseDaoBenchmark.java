@@ -0,0 +1,100 @@
+package com.expensetracker.benchmarks;
+
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.dao.ExpensePage;
+import com.expensetracker.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExpenseDAO queries against a seeded embedded database: the dashboard's
+ * first page and total, the report aggregates on both the rollup and the
+ * expenses table, and a full streaming export.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ExpenseDaoBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private final ExpenseDAO expenseDAO = new ExpenseDAO();
+    private int userId;
+
+    // The last full year of data, and the same year cut off mid-month
+    private Date yearStart;
+    private Date yearEnd;
+    private Date nextYearStart;
+    private Date midMonthEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        userId = BenchmarkData.openDatabase(size);
+        yearStart = Date.valueOf(BenchmarkData.LAST_DAY.withDayOfYear(1));
+        yearEnd = Date.valueOf(BenchmarkData.LAST_DAY);
+        nextYearStart = Date.valueOf(BenchmarkData.LAST_DAY.plusDays(1));
+        midMonthEnd = Date.valueOf(LocalDate.of(BenchmarkData.LAST_DAY.getYear(), 12, 15));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.closeDatabase();
+    }
+
+    @Benchmark
+    public ExpensePage firstPage() {
+        return expenseDAO.getExpensePage(userId, 0, null, true, 50);
+    }
+
+    @Benchmark
+    public Money totalAllTime() {
+        return expenseDAO.getTotalExpenses(userId, 0);
+    }
+
+    @Benchmark
+    public List<Object[]> monthlyTotalsWholeYear() {
+        return expenseDAO.getMonthlyTotalsInRange(userId, yearStart, nextYearStart);
+    }
+
+    @Benchmark
+    public List<Object[]> categorySummaryWholeMonths() {
+        return expenseDAO.getExpenseSummaryByCategory(userId, yearStart, yearEnd);
+    }
+
+    @Benchmark
+    public List<Object[]> categorySummaryPartialMonth() {
+        return expenseDAO.getExpenseSummaryByCategory(userId, yearStart, midMonthEnd);
+    }
+
+    @Benchmark
+    public List<Object[]> dailyCategoryTotals() {
+        return expenseDAO.getDailyCategoryTotals(userId);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long streamAll(Blackhole blackhole) throws Exception {
+        return expenseDAO.streamExpenses(userId, 0, null, null, blackhole::consume);
+    }
+}
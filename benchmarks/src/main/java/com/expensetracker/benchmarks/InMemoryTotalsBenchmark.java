@@ -0,0 +1,86 @@
+package com.expensetracker.benchmarks;
+
+import com.expensetracker.model.Expense;
+import com.expensetracker.report.ExpenseCube;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totals computed in memory: summing amounts as cents and, for comparison,
+ * as BigDecimal, building an ExpenseCube and slicing it for reports.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InMemoryTotalsBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private List<Expense> expenses;
+    private ExpenseCube cube;
+    private LocalDate yearStart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        expenses = BenchmarkData.generate(1, BenchmarkData.defaultCategories(), size);
+        cube = buildCube();
+        yearStart = BenchmarkData.LAST_DAY.withDayOfYear(1);
+    }
+
+    @Benchmark
+    public long sumCents() {
+        long total = 0;
+        for (Expense expense : expenses) {
+            total += expense.getAmountCents();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Expense expense : expenses) {
+            total = total.add(expense.getAmount());
+        }
+        return total;
+    }
+
+    @Benchmark
+    public ExpenseCube buildCube() {
+        ExpenseCube built = new ExpenseCube();
+        for (Expense expense : expenses) {
+            built.add(((java.sql.Date) expense.getExpenseDate()).toLocalDate(), expense.getCategoryId(),
+                expense.getAmountCents(), 1);
+        }
+        return built;
+    }
+
+    @Benchmark
+    public List<long[]> cubeCategoryTotalsYear() {
+        return cube.getCategoryTotals(yearStart, BenchmarkData.LAST_DAY);
+    }
+
+    @Benchmark
+    public List<long[]> cubeMonthlyTotalsAllYears() {
+        return cube.getMonthlyTotals(BenchmarkData.FIRST_DAY, BenchmarkData.LAST_DAY.plusDays(1), 0);
+    }
+}
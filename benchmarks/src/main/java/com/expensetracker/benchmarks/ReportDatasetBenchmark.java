@@ -0,0 +1,82 @@
+package com.expensetracker.benchmarks;
+
+import com.expensetracker.controller.ExpenseController;
+import com.expensetracker.report.ReportBuilder;
+import com.expensetracker.report.ReportContent;
+import com.expensetracker.report.ReportType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building report datasets with ReportBuilder from a seeded embedded
+ * database, with the user's cube already loaded and, separately, with the
+ * cube loaded as part of the report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ReportDatasetBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private ReportBuilder reportBuilder;
+    private int userId;
+    private Date yearStart;
+    private Date yearEnd;
+    private Date firstYearStart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        userId = BenchmarkData.openDatabase(size);
+        reportBuilder = new ReportBuilder(new ExpenseController());
+        yearStart = Date.valueOf(BenchmarkData.LAST_DAY.withDayOfYear(1));
+        yearEnd = Date.valueOf(BenchmarkData.LAST_DAY);
+        firstYearStart = Date.valueOf(BenchmarkData.FIRST_DAY);
+        ReportBuilder.getCubeCache().get(userId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.closeDatabase();
+    }
+
+    @Benchmark
+    public ReportContent categoryBreakdown() {
+        return reportBuilder.build(ReportType.CATEGORY_BREAKDOWN, userId, yearStart, yearEnd);
+    }
+
+    @Benchmark
+    public ReportContent monthlySummary() {
+        return reportBuilder.build(ReportType.MONTHLY_SUMMARY, userId, yearStart, yearEnd);
+    }
+
+    @Benchmark
+    public ReportContent yearlyComparison() {
+        return reportBuilder.build(ReportType.YEARLY_COMPARISON, userId, firstYearStart, yearEnd);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ReportContent categoryBreakdownColdCube() {
+        ReportBuilder.getCubeCache().invalidate(userId);
+        return reportBuilder.build(ReportType.CATEGORY_BREAKDOWN, userId, yearStart, yearEnd);
+    }
+}
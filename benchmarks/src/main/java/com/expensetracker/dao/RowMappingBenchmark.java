@@ -0,0 +1,73 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.benchmarks.BenchmarkData;
+import com.expensetracker.model.Expense;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping rows to Expense objects with ExpenseDAO.extractExpenseFromResultSet,
+ * on an in-memory result set so the numbers exclude the database. In the DAO's
+ * package because the mapper is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private final ExpenseDAO expenseDAO = new ExpenseDAO();
+    private SimpleResultSet resultSet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The columns selected by EXPENSE_COLUMNS
+        resultSet = new SimpleResultSet();
+        resultSet.setAutoClose(false);
+        resultSet.addColumn("expense_id", Types.INTEGER, 10, 0);
+        resultSet.addColumn("user_id", Types.INTEGER, 10, 0);
+        resultSet.addColumn("category_id", Types.INTEGER, 10, 0);
+        resultSet.addColumn("category_name", Types.VARCHAR, 50, 0);
+        resultSet.addColumn("amount_cents", Types.BIGINT, 19, 0);
+        resultSet.addColumn("description", Types.VARCHAR, 200, 0);
+        resultSet.addColumn("expense_date", Types.DATE, 10, 0);
+        resultSet.addColumn("created_at", Types.TIMESTAMP, 26, 0);
+
+        Timestamp createdAt = new Timestamp(System.currentTimeMillis());
+        int id = 1;
+        for (Expense expense : BenchmarkData.generate(1, BenchmarkData.defaultCategories(), size)) {
+            resultSet.addRow(id++, expense.getUserId(), expense.getCategoryId(), "Category " + expense.getCategoryId(),
+                expense.getAmountCents(), expense.getDescription(), expense.getExpenseDate(), createdAt);
+        }
+    }
+
+    @Benchmark
+    public void mapAll(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            blackhole.consume(expenseDAO.extractExpenseFromResultSet(resultSet));
+        }
+    }
+}
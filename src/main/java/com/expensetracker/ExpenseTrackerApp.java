@@ -1,11 +1,12 @@
 package com.expensetracker;
 
+import com.expensetracker.controller.CategoryController;
+import com.expensetracker.controller.ExpenseController;
+import com.expensetracker.jfr.FlightRecording;
+import com.expensetracker.jfr.UiActionRecorder;
 import com.expensetracker.util.DatabaseUtil;
-import com.expensetracker.view.SplashScreen;
 
 import javax.swing.*;
-import java.awt.Font;
-import java.sql.SQLException;
 
 /**
  * Main application class for the Expense Tracker System
@@ -13,35 +14,26 @@ import java.sql.SQLException;
 public class ExpenseTrackerApp {
     
     public static void main(String[] args) {
+        // Record a .jfr file of this session when -Dexpensetracker.jfr is set
+        FlightRecording.startIfRequested();
+        
+        // Return pooled connections to the server when the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println(CategoryController.getCache().getStatistics());
+            DatabaseUtil.closeConnection();
+        }, "database-shutdown"));
+        
+        // Repair the monthly rollup from the expenses table and exit, without the UI
+        if (args.length > 0 && args[0].equals("--rebuild-rollup")) {
+            System.exit(rebuildRollup() ? 0 : 1);
+        }
+        
         try {
-            // Set look and feel to system default
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-            
-            // Set some global UI properties for a modern look
-            UIManager.put("Button.arc", 15);
-            UIManager.put("Component.arc", 10);
-            UIManager.put("ProgressBar.arc", 10);
-            UIManager.put("TextComponent.arc", 10);
-            
-            // Apply custom font settings
-            setUIFont(new javax.swing.plaf.FontUIResource("Segoe UI", Font.PLAIN, 14));
+            // Slow event handling on the EDT shows up in flight recordings
+            UiActionRecorder.install();
             
-            // Start the application with the splash screen
-            SwingUtilities.invokeLater(() -> {
-                try {
-                    // Initialize database and ensure tables exist
-                    DatabaseUtil.initializeDatabase();
-                    
-                    // Start the app
-                    new SplashScreen();
-                } catch (SQLException e) {
-                    JOptionPane.showMessageDialog(null,
-                        "Database error: " + e.getMessage(),
-                        "Database Error",
-                        JOptionPane.ERROR_MESSAGE);
-                    e.printStackTrace();
-                }
-            });
+            // Initialize the database, UI and charts concurrently behind the splash screen
+            new StartupOrchestrator().start();
         } catch (Exception e) {
             String errorMessage = "Error starting application: " + e.getMessage();
             JOptionPane.showMessageDialog(null, 
@@ -53,17 +45,14 @@ public class ExpenseTrackerApp {
         }
     }
     
-    /**
-     * Set global UI font
-     */
-    private static void setUIFont(javax.swing.plaf.FontUIResource f) {
-        java.util.Enumeration<Object> keys = UIManager.getDefaults().keys();
-        while (keys.hasMoreElements()) {
-            Object key = keys.nextElement();
-            Object value = UIManager.get(key);
-            if (value instanceof javax.swing.plaf.FontUIResource) {
-                UIManager.put(key, f);
-            }
+    private static boolean rebuildRollup() {
+        try {
+            DatabaseUtil.initializeDatabase();
+        } catch (Exception e) {
+            System.err.println("Error initializing database: " + e.getMessage());
+            e.printStackTrace();
+            return false;
         }
+        return new ExpenseController().rebuildMonthlyRollup(0);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,212 @@
+package com.expensetracker;
+
+import com.expensetracker.util.DatabaseUtil;
+import com.expensetracker.view.LoginView;
+import com.expensetracker.view.SplashScreen;
+
+import javax.swing.*;
+import java.awt.Font;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the startup work concurrently and shows the login window when it is done.
+ *
+ * Phases:
+ * - Database: create the database and apply schema migrations (background)
+ * - Charts: load and initialize the JFreeChart classes (background)
+ * - Look and feel: install the look and feel and fonts (calling thread, before
+ *   any component is created)
+ * - Login view: build the login window (EDT, after the look and feel)
+ *
+ * The splash screen advances as each phase finishes and closes when all of
+ * them have. The duration of each phase is printed once startup completes.
+ */
+public class StartupOrchestrator {
+
+    private static final int PHASE_COUNT = 4;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Long> phaseMillis = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final AtomicInteger completedPhases = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+
+    // Accessed on the EDT only
+    private SplashScreen splashScreen;
+    private String lastStatus = "Loading application...";
+
+    /**
+     * Start all phases. Returns once the look and feel is installed; the
+     * remaining work continues in the background.
+     */
+    public void start() {
+        CompletableFuture<Void> database = phase("Database", "Connected to database", executor, () -> {
+            DatabaseUtil.initializeDatabase();
+            return null;
+        });
+
+        // Charts are only an optimization for the first report
+        CompletableFuture<Void> charts = this.<Void>phase("Charts", "Charts ready", executor, () -> {
+            warmUpCharts();
+            return null;
+        }).exceptionally(ex -> {
+            System.out.println("Chart warm-up failed: " + ex.getMessage());
+            return null;
+        });
+
+        // The look and feel must be in place before the first component is created
+        Executor callingThread = Runnable::run;
+        phase("Look and feel", "Interface ready", callingThread, () -> {
+            installLookAndFeel();
+            return null;
+        }).join();
+
+        SwingUtilities.invokeLater(this::showSplashScreen);
+
+        CompletableFuture<LoginView> loginView = phase("Login view", "Login ready",
+            SwingUtilities::invokeLater, LoginView::new);
+
+        CompletableFuture.allOf(database, charts, loginView).whenComplete((ignored, failure) ->
+            SwingUtilities.invokeLater(() -> finish(loginView, failure)));
+    }
+
+    /**
+     * Get how long each finished phase took, in milliseconds, in order of completion
+     */
+    public Map<String, Long> getPhaseTimings() {
+        synchronized (phaseMillis) {
+            return new LinkedHashMap<>(phaseMillis);
+        }
+    }
+
+    /**
+     * Run one phase on the given executor and record how long it took
+     */
+    private <T> CompletableFuture<T> phase(String name, String doneMessage, Executor executor, Callable<T> work) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                return work.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                phaseMillis.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                int done = completedPhases.incrementAndGet();
+                SwingUtilities.invokeLater(() -> updateSplashScreen(done * 100 / PHASE_COUNT, doneMessage));
+            }
+        }, executor);
+    }
+
+    private void showSplashScreen() {
+        splashScreen = new SplashScreen();
+        splashScreen.setProgress(completedPhases.get() * 100 / PHASE_COUNT, lastStatus);
+        splashScreen.setVisible(true);
+    }
+
+    private void updateSplashScreen(int percent, String message) {
+        lastStatus = message;
+        if (splashScreen != null) {
+            splashScreen.setProgress(percent, message);
+        }
+    }
+
+    /**
+     * Close the splash screen and show the login window, or report the failure
+     */
+    private void finish(CompletableFuture<LoginView> loginView, Throwable failure) {
+        executor.shutdown();
+        if (splashScreen != null) {
+            splashScreen.dispose();
+        }
+        printTimings();
+
+        if (failure != null) {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+            cause.printStackTrace();
+            JOptionPane.showMessageDialog(null,
+                "Error starting application: " + cause.getMessage(),
+                "Application Error",
+                JOptionPane.ERROR_MESSAGE);
+            System.exit(1);
+        }
+
+        loginView.join().setVisible(true);
+    }
+
+    private void printTimings() {
+        StringBuilder report = new StringBuilder("Startup completed in ")
+            .append(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos))
+            .append(" ms (");
+        String separator = "";
+        for (Map.Entry<String, Long> entry : getPhaseTimings().entrySet()) {
+            report.append(separator).append(entry.getKey()).append(": ").append(entry.getValue()).append(" ms");
+            separator = ", ";
+        }
+        System.out.println(report.append(')'));
+    }
+
+    /**
+     * Install the system look and feel and the application font
+     */
+    private static void installLookAndFeel() {
+        try {
+            // Set look and feel to system default
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (Exception e) {
+            System.out.println("Could not set system look and feel: " + e.getMessage());
+        }
+
+        // Set some global UI properties for a modern look
+        UIManager.put("Button.arc", 15);
+        UIManager.put("Component.arc", 10);
+        UIManager.put("ProgressBar.arc", 10);
+        UIManager.put("TextComponent.arc", 10);
+
+        // Apply custom font settings
+        setUIFont(new javax.swing.plaf.FontUIResource("Segoe UI", Font.PLAIN, 14));
+    }
+
+    /**
+     * Set global UI font
+     */
+    private static void setUIFont(javax.swing.plaf.FontUIResource f) {
+        java.util.Enumeration<Object> keys = UIManager.getDefaults().keys();
+        while (keys.hasMoreElements()) {
+            Object key = keys.nextElement();
+            Object value = UIManager.get(key);
+            if (value instanceof javax.swing.plaf.FontUIResource) {
+                UIManager.put(key, f);
+            }
+        }
+    }
+
+    /**
+     * Build and render a small chart so the JFreeChart and Java2D classes are
+     * loaded before the first report is opened
+     */
+    private static void warmUpCharts() {
+        org.jfree.data.general.DefaultPieDataset<String> pieDataset = new org.jfree.data.general.DefaultPieDataset<>();
+        pieDataset.setValue("Warm-up", 1.0);
+        org.jfree.chart.ChartFactory.createPieChart("Warm-up", pieDataset, true, true, false)
+            .createBufferedImage(200, 150);
+
+        org.jfree.data.category.DefaultCategoryDataset categoryDataset = new org.jfree.data.category.DefaultCategoryDataset();
+        categoryDataset.setValue(1.0, "Warm-up", "Jan");
+        org.jfree.chart.ChartFactory.createBarChart("Warm-up", "Month", "Amount", categoryDataset,
+            org.jfree.chart.plot.PlotOrientation.VERTICAL, true, true, false)
+            .createBufferedImage(200, 150);
+        org.jfree.chart.ChartFactory.createLineChart("Warm-up", "Month", "Amount", categoryDataset,
+            org.jfree.chart.plot.PlotOrientation.VERTICAL, true, true, false)
+            .createBufferedImage(200, 150);
+    }
+}
@@ -0,0 +1,208 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.model.Category;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of categories, shared by all CategoryController instances.
+ *
+ * The default categories are cached once for everybody; each user's own
+ * categories are cached separately in a least-recently-used map bounded by
+ * the number of users. Category writes invalidate the affected entries.
+ *
+ * Categories are mutable, so callers always receive copies.
+ */
+public final class CategoryCache {
+
+    private final int maxUsers;
+    private final Map<Integer, List<Category>> userCategories;
+    private List<Category> defaultCategories;
+
+    // Incremented on every invalidation so a load that raced with a write is not stored
+    private long generation = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    CategoryCache(int maxUsers) {
+        this.maxUsers = maxUsers;
+        this.userCategories = new LinkedHashMap<Integer, List<Category>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Category>> eldest) {
+                if (size() <= CategoryCache.this.maxUsers) {
+                    return false;
+                }
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get the default categories, loading them on a miss. Returns null if loading failed.
+     */
+    List<Category> getDefaultCategories(Supplier<List<Category>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            if (defaultCategories != null) {
+                hits.incrementAndGet();
+                return copy(defaultCategories);
+            }
+            loadGeneration = generation;
+        }
+        misses.incrementAndGet();
+
+        List<Category> loaded = loader.get();
+        if (loaded == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                defaultCategories = copy(loaded);
+            }
+        }
+        return copy(loaded);
+    }
+
+    /**
+     * Get the categories a user created, loading them on a miss. Returns null if loading failed.
+     */
+    List<Category> getUserCategories(int userId, IntFunction<List<Category>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            List<Category> cached = userCategories.get(userId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return copy(cached);
+            }
+            loadGeneration = generation;
+        }
+        misses.incrementAndGet();
+
+        List<Category> loaded = loader.apply(userId);
+        if (loaded == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                userCategories.put(userId, copy(loaded));
+            }
+        }
+        return copy(loaded);
+    }
+
+    /**
+     * Find a cached category by ID without loading anything; returns null if it is not cached
+     */
+    synchronized Category findCategory(int categoryId) {
+        if (defaultCategories != null) {
+            for (Category category : defaultCategories) {
+                if (category.getCategoryId() == categoryId) {
+                    hits.incrementAndGet();
+                    return copy(category);
+                }
+            }
+        }
+        for (List<Category> categories : userCategories.values()) {
+            for (Category category : categories) {
+                if (category.getCategoryId() == categoryId) {
+                    hits.incrementAndGet();
+                    return copy(category);
+                }
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Drop the cached default categories
+     */
+    synchronized void invalidateDefaults() {
+        generation++;
+        invalidations.incrementAndGet();
+        defaultCategories = null;
+    }
+
+    /**
+     * Drop the cached categories of one user
+     */
+    synchronized void invalidateUser(int userId) {
+        generation++;
+        invalidations.incrementAndGet();
+        userCategories.remove(userId);
+    }
+
+    /**
+     * Drop everything
+     */
+    synchronized void clear() {
+        generation++;
+        invalidations.incrementAndGet();
+        defaultCategories = null;
+        userCategories.clear();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    /**
+     * Fraction of lookups served from the cache
+     */
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Number of users whose categories are cached
+     */
+    public synchronized int getCachedUserCount() {
+        return userCategories.size();
+    }
+
+    /**
+     * Summary of cache activity for logging
+     */
+    public String getStatistics() {
+        return String.format("CategoryCache{users=%d/%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, invalidations=%d}",
+            getCachedUserCount(), maxUsers, getHitCount(), getMissCount(), getHitRate() * 100,
+            getEvictionCount(), getInvalidationCount());
+    }
+
+    private static List<Category> copy(List<Category> categories) {
+        List<Category> copies = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            copies.add(copy(category));
+        }
+        return copies;
+    }
+
+    private static Category copy(Category category) {
+        return new Category(category.getCategoryId(), category.getName(), category.getDescription(),
+            category.getUserId(), category.isDefault());
+    }
+}
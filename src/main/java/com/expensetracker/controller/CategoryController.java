@@ -1,8 +1,11 @@
 package com.expensetracker.controller;
 
 import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.metrics.MetricsRegistry;
+import com.expensetracker.metrics.Timer;
 import com.expensetracker.model.Category;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -10,6 +13,10 @@ import java.util.List;
  */
 public class CategoryController {
     
+    // Categories are read on every dashboard refresh but rarely change
+    private static final int CACHE_MAX_USERS = 256;
+    private static final CategoryCache CACHE = new CategoryCache(CACHE_MAX_USERS);
+    
     private CategoryDAO categoryDAO;
     
     /**
@@ -19,105 +26,167 @@ public class CategoryController {
         categoryDAO = new CategoryDAO();
     }
     
+    /**
+     * Shared category cache, for statistics
+     */
+    public static CategoryCache getCache() {
+        return CACHE;
+    }
+    
+    /**
+     * Drop the cached categories of a deleted user
+     */
+    static void userDeleted(int userId) {
+        CACHE.invalidateUser(userId);
+    }
+    
     /**
      * Add a new category
      */
     public boolean addCategory(String name, String description, int userId) {
-        // Validate input
-        if (name == null || name.trim().isEmpty() || userId <= 0) {
-            return false;
+        try (Timer.Context timing = MetricsRegistry.time("controller.CategoryController.addCategory")) {
+            // Validate input
+            if (name == null || name.trim().isEmpty() || userId <= 0) {
+                return false;
+            }
+            
+            // Create new category
+            Category category = new Category();
+            category.setName(name);
+            category.setDescription(description);
+            category.setUserId(userId);
+            category.setDefault(false);
+            
+            // Add category to database
+            boolean success = categoryDAO.addCategory(category);
+            if (success) {
+                CACHE.invalidateUser(userId);
+            }
+            return success;
         }
-        
-        // Create new category
-        Category category = new Category();
-        category.setName(name);
-        category.setDescription(description);
-        category.setUserId(userId);
-        category.setDefault(false);
-        
-        // Add category to database
-        return categoryDAO.addCategory(category);
     }
     
     /**
      * Update an existing category
      */
     public boolean updateCategory(int categoryId, String name, String description, int userId) {
-        // Validate input
-        if (categoryId <= 0 || name == null || name.trim().isEmpty() || userId <= 0) {
-            return false;
-        }
-        
-        // Get existing category
-        Category category = categoryDAO.getCategoryById(categoryId);
-        
-        // Make sure the category exists and belongs to the user
-        if (category == null || (category.getUserId() != userId && !category.isDefault())) {
-            return false;
+        try (Timer.Context timing = MetricsRegistry.time("controller.CategoryController.updateCategory")) {
+            // Validate input
+            if (categoryId <= 0 || name == null || name.trim().isEmpty() || userId <= 0) {
+                return false;
+            }
+            
+            // Get existing category
+            Category category = getCategoryById(categoryId);
+            
+            // Make sure the category exists and belongs to the user
+            if (category == null || (category.getUserId() != userId && !category.isDefault())) {
+                return false;
+            }
+            
+            // Update category fields
+            category.setName(name);
+            category.setDescription(description);
+            
+            // Update category in database
+            boolean success = categoryDAO.updateCategory(category);
+            if (success) {
+                // Reports show category names
+                if (category.isDefault()) {
+                    CACHE.invalidateDefaults();
+                    ExpenseController.sharedDataChanged();
+                } else {
+                    CACHE.invalidateUser(category.getUserId());
+                    ExpenseController.expensesChanged(userId);
+                }
+            }
+            return success;
         }
-        
-        // Update category fields
-        category.setName(name);
-        category.setDescription(description);
-        
-        // Update category in database
-        return categoryDAO.updateCategory(category);
     }
     
     /**
      * Delete a category
      */
     public boolean deleteCategory(int categoryId, int userId) {
-        // Validate input
-        if (categoryId <= 0 || userId <= 0) {
-            return false;
+        try (Timer.Context timing = MetricsRegistry.time("controller.CategoryController.deleteCategory")) {
+            // Validate input
+            if (categoryId <= 0 || userId <= 0) {
+                return false;
+            }
+            
+            // Get the category to check if it's a default one
+            Category category = getCategoryById(categoryId);
+            
+            // Cannot delete default categories
+            if (category == null || category.isDefault()) {
+                return false;
+            }
+            
+            // Make sure the category belongs to the user
+            if (category.getUserId() != userId) {
+                return false;
+            }
+            
+            // Delete category from database
+            boolean success = categoryDAO.deleteCategory(categoryId);
+            if (success) {
+                CACHE.invalidateUser(userId);
+                // The category's expenses were moved to another category
+                ExpenseController.expensesChangedInBulk(userId);
+            }
+            return success;
         }
-        
-        // Get the category to check if it's a default one
-        Category category = categoryDAO.getCategoryById(categoryId);
-        
-        // Cannot delete default categories
-        if (category == null || category.isDefault()) {
-            return false;
-        }
-        
-        // Make sure the category belongs to the user
-        if (category.getUserId() != userId) {
-            return false;
-        }
-        
-        // Delete category from database
-        return categoryDAO.deleteCategory(categoryId);
     }
     
     /**
      * Get a category by ID
      */
     public Category getCategoryById(int categoryId) {
-        // Validate input
-        if (categoryId <= 0) {
-            return null;
+        try (Timer.Context timing = MetricsRegistry.time("controller.CategoryController.getCategoryById")) {
+            // Validate input
+            if (categoryId <= 0) {
+                return null;
+            }
+            
+            // Categories already cached for any user are served without a query
+            Category cached = CACHE.findCategory(categoryId);
+            if (cached != null) {
+                return cached;
+            }
+            return categoryDAO.getCategoryById(categoryId);
         }
-        
-        return categoryDAO.getCategoryById(categoryId);
     }
     
     /**
      * Get all categories
      */
     public List<Category> getAllCategories() {
-        return categoryDAO.getAllCategories();
+        try (Timer.Context timing = MetricsRegistry.time("controller.CategoryController.getAllCategories")) {
+            return categoryDAO.getAllCategories();
+        }
     }
     
     /**
      * Get all categories for a specific user
      */
     public List<Category> getCategoriesByUser(int userId) {
-        // Validate input
-        if (userId <= 0) {
-            return null;
+        try (Timer.Context timing = MetricsRegistry.time("controller.CategoryController.getCategoriesByUser")) {
+            // Validate input
+            if (userId <= 0) {
+                return null;
+            }
+            
+            // Defaults are shared by everyone, so they are cached once
+            List<Category> defaults = CACHE.getDefaultCategories(categoryDAO::getDefaultCategories);
+            List<Category> owned = CACHE.getUserCategories(userId, categoryDAO::getCategoriesOwnedByUser);
+            if (defaults == null || owned == null) {
+                return categoryDAO.getCategoriesByUser(userId);
+            }
+            
+            List<Category> categories = new ArrayList<>(defaults.size() + owned.size());
+            categories.addAll(defaults);
+            categories.addAll(owned);
+            return categories;
         }
-        
-        return categoryDAO.getCategoriesByUser(userId);
     }
 } 
\ No newline at end of file
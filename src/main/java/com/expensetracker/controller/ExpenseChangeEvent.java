@@ -0,0 +1,64 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.model.Expense;
+
+/**
+ * Describes a change to a user's expenses, published by ExpenseController
+ * after the change is stored
+ */
+public class ExpenseChangeEvent {
+    
+    /**
+     * Kind of change
+     */
+    public enum Type {
+        ADDED,
+        UPDATED,
+        DELETED,
+        // Many expenses changed at once, e.g. an import; listeners should reload
+        BULK_CHANGED
+    }
+    
+    private final Type type;
+    private final int userId;
+    private final Expense expense;
+    private final Expense previous;
+    
+    public ExpenseChangeEvent(Type type, int userId, Expense expense, Expense previous) {
+        this.type = type;
+        this.userId = userId;
+        this.expense = expense;
+        this.previous = previous;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public int getUserId() {
+        return userId;
+    }
+    
+    /**
+     * The added or updated expense, or the deleted one; null for bulk changes
+     */
+    public Expense getExpense() {
+        return expense;
+    }
+    
+    /**
+     * The expense as it was before an update, if known; null for other changes
+     */
+    public Expense getPrevious() {
+        return previous;
+    }
+    
+    @Override
+    public String toString() {
+        return "ExpenseChangeEvent{" +
+                "type=" + type +
+                ", userId=" + userId +
+                ", expenseId=" + (expense != null ? expense.getExpenseId() : 0) +
+                '}';
+    }
+}
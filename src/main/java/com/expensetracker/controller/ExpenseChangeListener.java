@@ -0,0 +1,10 @@
+package com.expensetracker.controller;
+
+/**
+ * Receives expense changes. Called on the thread that made the change, which
+ * is usually not the Event Dispatch Thread.
+ */
+@FunctionalInterface
+public interface ExpenseChangeListener {
+    void expenseChanged(ExpenseChangeEvent event);
+}
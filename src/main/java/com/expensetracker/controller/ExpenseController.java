@@ -1,17 +1,51 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.dao.BatchInsertResult;
+import com.expensetracker.dao.ExpenseCursor;
 import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.dao.ExpensePage;
+import com.expensetracker.dao.ExpenseStreamHandler;
+import com.expensetracker.metrics.MetricsRegistry;
+import com.expensetracker.metrics.Timer;
 import com.expensetracker.model.Expense;
+import com.expensetracker.model.Money;
+import com.expensetracker.util.BackgroundTaskRunner;
+import com.expensetracker.util.CsvWriter;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Controller class for handling expense-related operations
  */
 public class ExpenseController {
     
+    // Incremented whenever a user's expenses change; used to key cached report images
+    private static final Map<Integer, AtomicLong> DATA_VERSIONS = new ConcurrentHashMap<>();
+    
+    // Incremented when a change, such as renaming a default category, affects every user
+    private static final AtomicLong SHARED_DATA_VERSION = new AtomicLong();
+    
+    // Notified after every stored change, whichever controller instance made it
+    private static final List<ExpenseChangeListener> LISTENERS = new CopyOnWriteArrayList<>();
+    
+    // Writes per user that have started but not yet notified listeners
+    private static final Map<Integer, AtomicInteger> PENDING_WRITES = new ConcurrentHashMap<>();
+    
     private ExpenseDAO expenseDAO;
     
     /**
@@ -26,22 +60,78 @@ public class ExpenseController {
      */
     public boolean addExpense(int userId, int categoryId, BigDecimal amount, 
                              String description, Date expenseDate) {
-        // Validate input
-        if (userId <= 0 || categoryId <= 0 || amount == null || 
-            description == null || expenseDate == null) {
-            return false;
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.addExpense")) {
+            // Validate input
+            if (userId <= 0 || categoryId <= 0 || amount == null || 
+                description == null || expenseDate == null) {
+                return false;
+            }
+            
+            // Create new expense
+            Expense expense = new Expense();
+            expense.setUserId(userId);
+            expense.setCategoryId(categoryId);
+            expense.setAmount(amount);
+            expense.setDescription(description);
+            expense.setExpenseDate(expenseDate);
+            
+            // Add expense to database
+            beginWrite(userId);
+            try {
+                boolean success = expenseDAO.addExpense(expense);
+                if (success) {
+                    expensesChanged(userId);
+                    fireExpenseChanged(new ExpenseChangeEvent(ExpenseChangeEvent.Type.ADDED, userId, expense, null));
+                }
+                return success;
+            } finally {
+                endWrite(userId);
+            }
+        }
+    }
+    
+    /**
+     * Add many expenses at once, e.g. when loading historical data
+     */
+    public BatchInsertResult addExpenses(Collection<Expense> expenses) {
+        return addExpenses(expenses, ExpenseDAO.DEFAULT_BATCH_SIZE);
+    }
+    
+    /**
+     * Add many expenses at once, sending them to the database in chunks of chunkSize rows
+     */
+    public BatchInsertResult addExpenses(Collection<Expense> expenses, int chunkSize) {
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.addExpenses")) {
+            // Validate input
+            if (expenses == null) {
+                return new BatchInsertResult(0);
+            }
+            
+            Set<Integer> userIds = new HashSet<>();
+            for (Expense expense : expenses) {
+                if (expense != null) {
+                    userIds.add(expense.getUserId());
+                }
+            }
+            
+            // Chunks commit one at a time, so the users' writes are pending until the last one
+            for (int userId : userIds) {
+                beginWrite(userId);
+            }
+            BatchInsertResult result = null;
+            try {
+                // Rows with missing fields are reported per row by the DAO
+                result = expenseDAO.addExpenses(expenses, chunkSize);
+                return result;
+            } finally {
+                for (int userId : userIds) {
+                    if (result == null || result.getInsertedCount() > 0) {
+                        expensesChangedInBulk(userId);
+                    }
+                    endWrite(userId);
+                }
+            }
         }
-        
-        // Create new expense
-        Expense expense = new Expense();
-        expense.setUserId(userId);
-        expense.setCategoryId(categoryId);
-        expense.setAmount(amount);
-        expense.setDescription(description);
-        expense.setExpenseDate(expenseDate);
-        
-        // Add expense to database
-        return expenseDAO.addExpense(expense);
     }
     
     /**
@@ -49,119 +139,409 @@ public class ExpenseController {
      */
     public boolean updateExpense(int expenseId, int userId, int categoryId, 
                                 BigDecimal amount, String description, Date expenseDate) {
-        // Validate input
-        if (expenseId <= 0 || userId <= 0 || categoryId <= 0 || 
-            amount == null || description == null || expenseDate == null) {
-            return false;
-        }
-        
-        // Create expense object with updated values
-        Expense expense = new Expense();
-        expense.setExpenseId(expenseId);
-        expense.setUserId(userId);
-        expense.setCategoryId(categoryId);
-        expense.setAmount(amount);
-        expense.setDescription(description);
-        expense.setExpenseDate(expenseDate);
-        
-        // Update expense in database
-        return expenseDAO.updateExpense(expense);
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.updateExpense")) {
+            // Validate input
+            if (expenseId <= 0 || userId <= 0 || categoryId <= 0 || 
+                amount == null || description == null || expenseDate == null) {
+                return false;
+            }
+            
+            // Create expense object with updated values
+            Expense expense = new Expense();
+            expense.setExpenseId(expenseId);
+            expense.setUserId(userId);
+            expense.setCategoryId(categoryId);
+            expense.setAmount(amount);
+            expense.setDescription(description);
+            expense.setExpenseDate(expenseDate);
+            
+            beginWrite(userId);
+            try {
+                // Update expense in database; listeners get the old values it replaced
+                Expense previous = expenseDAO.updateExpense(expense);
+                if (previous == null) {
+                    return false;
+                }
+                expensesChanged(userId);
+                fireExpenseChanged(new ExpenseChangeEvent(ExpenseChangeEvent.Type.UPDATED, userId, expense, previous));
+                return true;
+            } finally {
+                endWrite(userId);
+            }
+        }
     }
     
     /**
      * Delete an expense
      */
     public boolean deleteExpense(int expenseId, int userId) {
-        // Validate input
-        if (expenseId <= 0 || userId <= 0) {
-            return false;
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.deleteExpense")) {
+            // Validate input
+            if (expenseId <= 0 || userId <= 0) {
+                return false;
+            }
+            
+            beginWrite(userId);
+            try {
+                // Delete expense from database; listeners get the deleted values
+                Expense deleted = expenseDAO.deleteExpense(expenseId, userId);
+                if (deleted == null) {
+                    return false;
+                }
+                expensesChanged(userId);
+                fireExpenseChanged(new ExpenseChangeEvent(ExpenseChangeEvent.Type.DELETED, userId, deleted, null));
+                return true;
+            } finally {
+                endWrite(userId);
+            }
         }
-        
-        // Delete expense from database
-        return expenseDAO.deleteExpense(expenseId, userId);
     }
     
     /**
      * Get an expense by ID
      */
     public Expense getExpenseById(int expenseId, int userId) {
-        // Validate input
-        if (expenseId <= 0 || userId <= 0) {
-            return null;
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.getExpenseById")) {
+            // Validate input
+            if (expenseId <= 0 || userId <= 0) {
+                return null;
+            }
+            
+            return expenseDAO.getExpenseById(expenseId, userId);
         }
-        
-        return expenseDAO.getExpenseById(expenseId, userId);
     }
     
     /**
      * Get all expenses for a user
      */
     public List<Expense> getExpensesByUser(int userId) {
-        // Validate input
-        if (userId <= 0) {
-            return null;
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.getExpensesByUser")) {
+            // Validate input
+            if (userId <= 0) {
+                return null;
+            }
+            
+            return expenseDAO.getExpensesByUser(userId);
+        }
+    }
+    
+    /**
+     * Get one page of a user's expenses, newest first
+     *
+     * @param categoryId only include this category, or 0 for all categories
+     * @param cursor     page boundary; null fetches the newest page
+     * @param forward    true for older expenses after the cursor, false for newer ones before it
+     */
+    public ExpensePage getExpensePage(int userId, int categoryId, ExpenseCursor cursor,
+                                      boolean forward, int pageSize) {
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.getExpensePage")) {
+            // Validate input
+            if (userId <= 0 || categoryId < 0 || pageSize <= 0) {
+                return null;
+            }
+            
+            return expenseDAO.getExpensePage(userId, categoryId, cursor, forward, pageSize);
+        }
+    }
+    
+    /**
+     * Get the total of all of a user's expenses, optionally limited to one category
+     */
+    public Money getTotalExpenses(int userId, int categoryId) {
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.getTotalExpenses")) {
+            // Validate input
+            if (userId <= 0 || categoryId < 0) {
+                return Money.ZERO;
+            }
+            
+            return expenseDAO.getTotalExpenses(userId, categoryId);
         }
-        
-        return expenseDAO.getExpensesByUser(userId);
     }
     
     /**
      * Get expenses for a user within a date range
      */
     public List<Expense> getExpensesByUserAndDateRange(int userId, Date startDate, Date endDate) {
-        // Validate input
-        if (userId <= 0 || startDate == null || endDate == null) {
-            return null;
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.getExpensesByUserAndDateRange")) {
+            // Validate input
+            if (userId <= 0 || startDate == null || endDate == null) {
+                return null;
+            }
+            
+            return expenseDAO.getExpensesByUserAndDateRange(userId, startDate, endDate);
         }
-        
-        return expenseDAO.getExpensesByUserAndDateRange(userId, startDate, endDate);
     }
     
     /**
      * Get expenses for a user by category
      */
     public List<Expense> getExpensesByUserAndCategory(int userId, int categoryId) {
-        // Validate input
-        if (userId <= 0 || categoryId <= 0) {
-            return null;
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.getExpensesByUserAndCategory")) {
+            // Validate input
+            if (userId <= 0 || categoryId <= 0) {
+                return null;
+            }
+            
+            return expenseDAO.getExpensesByUserAndCategory(userId, categoryId);
         }
-        
-        return expenseDAO.getExpensesByUserAndCategory(userId, categoryId);
     }
     
     /**
-     * Get expense summary by category for a user within a date range
+     * Get expense summary by category for a user within a date range.
+     * Each row is {category name, total as Money}.
      */
     public List<Object[]> getExpenseSummaryByCategory(int userId, Date startDate, Date endDate) {
-        // Validate input
-        if (userId <= 0 || startDate == null || endDate == null) {
-            return null;
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.getExpenseSummaryByCategory")) {
+            // Validate input
+            if (userId <= 0 || startDate == null || endDate == null) {
+                return null;
+            }
+            
+            return expenseDAO.getExpenseSummaryByCategory(userId, startDate, endDate);
         }
-        
-        return expenseDAO.getExpenseSummaryByCategory(userId, startDate, endDate);
     }
     
     /**
-     * Get monthly expense totals for a user
+     * Get monthly expense totals for a user. Each row is {month, total as Money}.
      */
     public List<Object[]> getMonthlyExpenseTotals(int userId, int year) {
-        // Validate input
-        if (userId <= 0 || year <= 0) {
-            return null;
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.getMonthlyExpenseTotals")) {
+            // Validate input
+            if (userId <= 0 || year <= 0) {
+                return null;
+            }
+            
+            return expenseDAO.getMonthlyExpenseTotals(userId, year);
+        }
+    }
+    
+    /**
+     * Get monthly expense totals for a user across a span of years.
+     * Each row is {year, month, total as Money}.
+     */
+    public List<Object[]> getMonthlyExpenseTotals(int userId, int startYear, int endYear) {
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.getMonthlyExpenseTotalsInRange")) {
+            // Validate input
+            if (userId <= 0 || startYear <= 0 || endYear < startYear) {
+                return null;
+            }
+            
+            return expenseDAO.getMonthlyTotalsInRange(userId,
+                java.sql.Date.valueOf(LocalDate.of(startYear, 1, 1)),
+                java.sql.Date.valueOf(LocalDate.of(endYear + 1, 1, 1)));
+        }
+    }
+    
+    /**
+     * Get a user's expense totals per day and category. Each row is
+     * {date, category ID, total as Money, number of expenses}; null if the query failed.
+     */
+    public List<Object[]> getDailyCategoryTotals(int userId) {
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.getDailyCategoryTotals")) {
+            // Validate input
+            if (userId <= 0) {
+                return null;
+            }
+            
+            return expenseDAO.getDailyCategoryTotals(userId);
+        }
+    }
+    
+    /**
+     * Recompute the monthly rollup from the stored expenses
+     *
+     * @param userId the user to rebuild, or 0 for all users
+     */
+    public boolean rebuildMonthlyRollup(int userId) {
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.rebuildMonthlyRollup")) {
+            // Validate input
+            if (userId < 0) {
+                return false;
+            }
+            
+            return expenseDAO.rebuildMonthlyRollup(userId);
         }
-        
-        return expenseDAO.getMonthlyExpenseTotals(userId, year);
     }
     
     /**
      * Get total expenses for a user within a date range
      */
-    public BigDecimal getTotalExpenses(int userId, Date startDate, Date endDate) {
-        // Validate input
-        if (userId <= 0 || startDate == null || endDate == null) {
-            return BigDecimal.ZERO;
+    public Money getTotalExpenses(int userId, Date startDate, Date endDate) {
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.getTotalExpensesInRange")) {
+            // Validate input
+            if (userId <= 0 || startDate == null || endDate == null) {
+                return Money.ZERO;
+            }
+            
+            return expenseDAO.getTotalExpenses(userId, startDate, endDate);
+        }
+    }
+    
+    /**
+     * Export a user's expenses to a CSV file, oldest first. Rows are streamed
+     * from the database to the file, so any number of expenses can be exported.
+     *
+     * @param categoryId 0 for all categories
+     * @param startDate  first day included, or null for no lower bound
+     * @param endDate    last day included, or null for no upper bound
+     * @param progress   receives the percentage of rows written
+     * @return the number of expenses exported
+     */
+    public long exportExpensesToCsv(int userId, int categoryId, Date startDate, Date endDate,
+                                    Path file, BackgroundTaskRunner.Progress progress)
+            throws SQLException, IOException {
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.exportExpensesToCsv")) {
+            // Validate input
+            if (userId <= 0 || file == null) {
+                throw new IllegalArgumentException("A user and an output file are required");
+            }
+            
+            long total = expenseDAO.countExpenses(userId, categoryId, startDate, endDate);
+            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+            long[] written = {0};
+            int[] lastPercent = {-1};
+            
+            try (CsvWriter writer = new CsvWriter(file)) {
+                writer.writeRow("Date", "Category", "Amount", "Description");
+                
+                expenseDAO.streamExpenses(userId, categoryId, startDate, endDate, expense -> {
+                    writer.writeRow(
+                        dateFormat.format(expense.getExpenseDate()),
+                        expense.getCategoryName(),
+                        expense.getMoney().toPlainString(),
+                        expense.getDescription());
+                    
+                    written[0]++;
+                    
+                    // Report only when the percentage changes
+                    int percent = total > 0 ? (int) (written[0] * 100 / total) : 100;
+                    if (percent != lastPercent[0]) {
+                        lastPercent[0] = percent;
+                        progress.update(Math.min(percent, 100), "Exported " + written[0] + " of " + total + " expenses");
+                    }
+                });
+                
+                writer.commit();
+            }
+            
+            return written[0];
+        }
+    }
+    
+    /**
+     * Count a user's expenses matching the optional category and date filters
+     */
+    public long countExpenses(int userId, int categoryId, Date startDate, Date endDate) {
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.countExpenses")) {
+            // Validate input
+            if (userId <= 0) {
+                return 0;
+            }
+            
+            return expenseDAO.countExpenses(userId, categoryId, startDate, endDate);
+        }
+    }
+    
+    /**
+     * Stream a user's expenses matching the optional category and date filters
+     * to the handler, oldest first, without loading them all into memory
+     *
+     * @return the number of expenses handled
+     */
+    public long streamExpenses(int userId, int categoryId, Date startDate, Date endDate,
+                               ExpenseStreamHandler handler) throws SQLException, IOException {
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseController.streamExpenses")) {
+            // Validate input
+            if (userId <= 0 || handler == null) {
+                return 0;
+            }
+            
+            return expenseDAO.streamExpenses(userId, categoryId, startDate, endDate, handler);
+        }
+    }
+    
+    /**
+     * Get a number that changes whenever the user's expense data changes.
+     * Anything derived from the data, such as a rendered chart, can be cached
+     * for as long as the version stays the same.
+     */
+    public static long getDataVersion(int userId) {
+        AtomicLong version = DATA_VERSIONS.get(userId);
+        return (version != null ? version.get() : 0) + SHARED_DATA_VERSION.get();
+    }
+    
+    /**
+     * Register a listener for expense changes made through any controller
+     */
+    public static void addExpenseChangeListener(ExpenseChangeListener listener) {
+        if (listener != null) {
+            LISTENERS.add(listener);
         }
-        
-        return expenseDAO.getTotalExpenses(userId, startDate, endDate);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Remove a listener registered with addExpenseChangeListener
+     */
+    public static void removeExpenseChangeListener(ExpenseChangeListener listener) {
+        LISTENERS.remove(listener);
+    }
+    
+    /**
+     * Notify listeners of a stored change. A failing listener does not stop the others.
+     */
+    private static void fireExpenseChanged(ExpenseChangeEvent event) {
+        for (ExpenseChangeListener listener : LISTENERS) {
+            try {
+                listener.expenseChanged(event);
+            } catch (RuntimeException e) {
+                System.out.println("Error in expense change listener: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    /**
+     * True while a change to the user's expenses may be stored but its event
+     * not yet delivered. Together with getDataVersion this tells a listener
+     * that loads state from the database whether a change could have been
+     * missed or counted twice.
+     */
+    public static boolean hasPendingWrites(int userId) {
+        AtomicInteger pending = PENDING_WRITES.get(userId);
+        return pending != null && pending.get() > 0;
+    }
+    
+    /**
+     * Mark the start of a write to the user's expenses. Every call must be
+     * followed by endWrite, after the change event has been delivered.
+     */
+    static void beginWrite(int userId) {
+        PENDING_WRITES.computeIfAbsent(userId, id -> new AtomicInteger()).incrementAndGet();
+    }
+    
+    static void endWrite(int userId) {
+        PENDING_WRITES.get(userId).decrementAndGet();
+    }
+    
+    /**
+     * Record that many of a user's expenses changed at once and tell listeners to reload
+     */
+    static void expensesChangedInBulk(int userId) {
+        expensesChanged(userId);
+        fireExpenseChanged(new ExpenseChangeEvent(ExpenseChangeEvent.Type.BULK_CHANGED, userId, null, null));
+    }
+    
+    /**
+     * Record that a user's expense data changed
+     */
+    static void expensesChanged(int userId) {
+        DATA_VERSIONS.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+    }
+    
+    /**
+     * Record that data shared by all users, such as a default category, changed
+     */
+    static void sharedDataChanged() {
+        SHARED_DATA_VERSION.incrementAndGet();
+    }
+}
@@ -0,0 +1,787 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dao.BatchInsertResult;
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.metrics.MetricsRegistry;
+import com.expensetracker.metrics.Timer;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.Money;
+import com.expensetracker.util.BackgroundTaskRunner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports expenses from a CSV file, such as a bank statement or a file
+ * written by the CSV export.
+ *
+ * The file is memory-mapped and split into chunks at line boundaries. Chunks
+ * are parsed in parallel on a fork-join pool, and the parsed rows are handed
+ * in batches through a bounded queue to a single writer that stores them with
+ * ExpenseDAO.addExpenses. When the writer falls behind, the parsers wait, so
+ * memory use is bounded by the queue rather than by the file size.
+ *
+ * Progress is recorded in a checkpoint file next to the input. If an import
+ * is interrupted, importing the same unchanged file again skips the batches
+ * that were already stored. A crash between storing a batch and recording it
+ * can repeat that one batch.
+ *
+ * The first line must be a header naming the columns. A date and an amount
+ * column are required; category and description columns are optional.
+ * Records must not contain line breaks inside quoted fields.
+ *
+ * The caller says how the file signs money spent. Rows with the other sign,
+ * such as refunds and credits, are skipped and reported like unparseable rows.
+ */
+public class ExpenseImporter {
+
+    /**
+     * How the amount column shows money spent
+     */
+    public enum SpendingSign {
+        /** Spending is positive, as in files written by the CSV export */
+        POSITIVE,
+        /** Spending is negative and credits positive, as in most bank statements */
+        NEGATIVE
+    }
+
+    /**
+     * Outcome of an import
+     */
+    public static class ImportResult {
+        private final AtomicLong linesRead = new AtomicLong();
+        private final AtomicLong skippedCount = new AtomicLong();
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        private long insertedCount;
+        private long failedCount;
+        private int resumedChunks;
+        private long elapsedMillis;
+
+        void addError(String message) {
+            skippedCount.incrementAndGet();
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(message);
+            }
+        }
+
+        /**
+         * Number of data lines read, not counting the header or lines already
+         * imported by an earlier run
+         */
+        public long getLinesRead() {
+            return linesRead.get();
+        }
+
+        public long getInsertedCount() {
+            return insertedCount;
+        }
+
+        /**
+         * Lines that could not be parsed, e.g. bad dates or amounts, and
+         * credits, which are not expenses
+         */
+        public long getSkippedCount() {
+            return skippedCount.get();
+        }
+
+        /**
+         * Parsed rows that the database rejected
+         */
+        public long getFailedCount() {
+            return failedCount;
+        }
+
+        /**
+         * Number of chunks finished by an earlier, interrupted run
+         */
+        public int getResumedChunks() {
+            return resumedChunks;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * The first problems found, at most 100
+         */
+        public List<String> getErrors() {
+            synchronized (errors) {
+                return new ArrayList<>(errors);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "ImportResult{lines=" + linesRead +
+                   ", inserted=" + insertedCount +
+                   ", skipped=" + skippedCount +
+                   ", failed=" + failedCount +
+                   ", resumedChunks=" + resumedChunks +
+                   ", elapsed=" + elapsedMillis + "ms}";
+        }
+    }
+
+    private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int QUEUE_CAPACITY = 32;
+    private static final int MAX_ERRORS = 100;
+    private static final int MAX_DESCRIPTION_LENGTH = 200;
+    private static final String CHECKPOINT_SUFFIX = ".import-checkpoint";
+    private static final String FALLBACK_CATEGORY = "other";
+
+    // Same formats the dashboard offers as date preferences
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+        DateTimeFormatter.ofPattern("uuuu-MM-dd").withResolverStyle(ResolverStyle.STRICT),
+        DateTimeFormatter.ofPattern("MM/dd/uuuu").withResolverStyle(ResolverStyle.STRICT),
+        DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT),
+        DateTimeFormatter.ofPattern("dd-MMM-uuuu", Locale.ENGLISH).withResolverStyle(ResolverStyle.STRICT)
+    );
+
+    // Marks the end of the parsed rows
+    private static final Batch END = new Batch(-1, -1, List.of(), true);
+
+    private final ExpenseDAO expenseDAO;
+    private final CategoryDAO categoryDAO;
+    private final int batchSize;
+    private final SpendingSign spendingSign;
+
+    /**
+     * Constructor
+     *
+     * @param spendingSign how the files to import show money spent
+     */
+    public ExpenseImporter(SpendingSign spendingSign) {
+        this(spendingSign, ExpenseDAO.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param spendingSign how the files to import show money spent
+     * @param batchSize    rows per insert transaction
+     */
+    public ExpenseImporter(SpendingSign spendingSign, int batchSize) {
+        if (spendingSign == null) {
+            throw new IllegalArgumentException("A spending sign is required");
+        }
+        this.expenseDAO = new ExpenseDAO();
+        this.categoryDAO = new CategoryDAO();
+        this.spendingSign = spendingSign;
+        this.batchSize = batchSize > 0 ? batchSize : ExpenseDAO.DEFAULT_BATCH_SIZE;
+    }
+
+    /**
+     * Import every row of a CSV file as an expense of the given user. Category
+     * names are matched case-insensitively against the user's categories;
+     * unknown or missing ones are filed under "Other".
+     *
+     * @param progress receives the percentage of the file imported
+     * @throws IOException if the file cannot be read or has no usable header
+     */
+    public ImportResult importCsv(int userId, Path file, BackgroundTaskRunner.Progress progress) throws IOException {
+        try (Timer.Context timing = MetricsRegistry.time("controller.ExpenseImporter.importCsv")) {
+            // Validate input
+            if (userId <= 0 || file == null) {
+                throw new IllegalArgumentException("A user and an input file are required");
+            }
+
+            long start = System.nanoTime();
+            ImportResult result = new ImportResult();
+            Map<String, Integer> categories = loadCategories(userId);
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                long headerEnd = findLineEnd(channel, 0, size);
+                Columns columns = Columns.parse(readLine(channel, 0, headerEnd));
+
+                List<long[]> chunks = split(channel, headerEnd, size);
+                try (Checkpoint checkpoint = Checkpoint.open(file, chunks.size(), batchSize, spendingSign)) {
+                    result.resumedChunks = checkpoint.doneCount();
+                    run(userId, channel, chunks, columns, categories, checkpoint, result, progress);
+                    checkpoint.delete();
+                }
+            }
+
+            result.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            System.out.println("CSV import of " + file.getFileName() + ": " + result);
+            return result;
+        }
+    }
+
+    /**
+     * Parse the pending chunks in parallel and store the rows from the calling thread
+     */
+    private void run(int userId, FileChannel channel, List<long[]> chunks, Columns columns,
+                     Map<String, Integer> categories, Checkpoint checkpoint,
+                     ImportResult result, BackgroundTaskRunner.Progress progress) throws IOException {
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        AtomicBoolean aborted = new AtomicBoolean();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+        long totalBytes = 0;
+        long doneBytes = 0;
+        List<CompletableFuture<Void>> parsers = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            long[] chunk = chunks.get(i);
+            totalBytes += chunk[1] - chunk[0];
+            if (checkpoint.isDone(i)) {
+                doneBytes += chunk[1] - chunk[0];
+                continue;
+            }
+            int index = i;
+            int skipBatches = checkpoint.committedBatches(i);
+            parsers.add(CompletableFuture.runAsync(() -> parseChunk(
+                userId, channel, index, chunk, skipBatches, columns, categories, queue, aborted, result), pool));
+        }
+
+        // Signal the writer once every parser has finished or failed
+        CompletableFuture<Void> parsed = CompletableFuture.allOf(parsers.toArray(new CompletableFuture[0]))
+            .whenComplete((ignored, failure) -> offer(queue, END, aborted));
+
+        // Batches commit one at a time; readers must not take a half-imported user as current
+        ExpenseController.beginWrite(userId);
+        boolean finished = false;
+        try {
+            while (true) {
+                Batch batch = queue.take();
+                if (batch == END) {
+                    break;
+                }
+                if (!batch.rows.isEmpty()) {
+                    BatchInsertResult inserted = expenseDAO.addExpenses(batch.rows, batch.rows.size());
+                    result.insertedCount += inserted.getInsertedCount();
+                    if (inserted.getInsertedCount() > 0) {
+                        ExpenseController.expensesChanged(userId);
+                    }
+                    result.failedCount += inserted.getFailedCount();
+                    for (BatchInsertResult.RowFailure failure : inserted.getFailures()) {
+                        if (result.errors.size() < MAX_ERRORS) {
+                            result.errors.add("Row rejected: " + failure.getMessage());
+                        }
+                    }
+                    checkpoint.batchCommitted(batch.chunk, batch.index + 1);
+                }
+                if (batch.last) {
+                    checkpoint.chunkDone(batch.chunk);
+                    long[] chunk = chunks.get(batch.chunk);
+                    doneBytes += chunk[1] - chunk[0];
+                }
+                progress.update(totalBytes > 0 ? (int) (doneBytes * 100 / totalBytes) : 100,
+                    "Imported " + result.insertedCount + " expenses");
+            }
+
+            // Surface a parser failure; the checkpoint keeps what was stored
+            parsed.join();
+            finished = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException("Import failed: " + cause.getMessage(), cause);
+        } finally {
+            if (!finished) {
+                aborted.set(true);
+            }
+            pool.shutdownNow();
+            
+            // One reload for listeners, whether or not the import completed
+            if (result.insertedCount > 0) {
+                ExpenseController.expensesChangedInBulk(userId);
+            }
+            ExpenseController.endWrite(userId);
+        }
+    }
+
+    /**
+     * Parse one chunk of the file and queue its rows in batches
+     */
+    private void parseChunk(int userId, FileChannel channel, int chunkIndex, long[] chunk, int skipBatches,
+                            Columns columns, Map<String, Integer> categories, BlockingQueue<Batch> queue,
+                            AtomicBoolean aborted, ImportResult result) {
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Integer fallbackCategory = categories.get(FALLBACK_CATEGORY);
+        long skipRows = (long) skipBatches * batchSize;
+        long validRows = 0;
+        int batchIndex = skipBatches;
+        List<Expense> rows = new ArrayList<>(batchSize);
+        List<String> fields = new ArrayList<>();
+        byte[] line = new byte[256];
+        int length = 0;
+        int lineNumber = 0;
+
+        while (buffer.hasRemaining() || length > 0) {
+            byte b = buffer.hasRemaining() ? buffer.get() : (byte) '\n';
+            if (b != '\n') {
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = b;
+                continue;
+            }
+
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            String text = new String(line, 0, length, StandardCharsets.UTF_8);
+            length = 0;
+            lineNumber++;
+            if (text.isBlank()) {
+                continue;
+            }
+
+            // Rows stored by an earlier run were already counted there
+            if (validRows < skipRows) {
+                try {
+                    if (parseRow(userId, text, fields, columns, categories, fallbackCategory) != null) {
+                        validRows++;
+                    }
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    // Reported by the earlier run
+                }
+                continue;
+            }
+
+            result.linesRead.incrementAndGet();
+            try {
+                Expense expense = parseRow(userId, text, fields, columns, categories, fallbackCategory);
+                if (expense == null) {
+                    throw new IllegalArgumentException("missing date or amount");
+                }
+                validRows++;
+                rows.add(expense);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                result.addError("Chunk " + chunkIndex + " line " + lineNumber + ": " + e.getMessage());
+            }
+
+            if (rows.size() == batchSize) {
+                offer(queue, new Batch(chunkIndex, batchIndex++, rows, false), aborted);
+                rows = new ArrayList<>(batchSize);
+            }
+        }
+
+        // The last batch marks the chunk as complete, even when it is empty
+        offer(queue, new Batch(chunkIndex, batchIndex, rows, true), aborted);
+    }
+
+    /**
+     * Turn one CSV line into an expense, or return null if a required value is empty
+     */
+    private Expense parseRow(int userId, String line, List<String> fields, Columns columns,
+                             Map<String, Integer> categories, Integer fallbackCategory) {
+        splitFields(line, fields);
+
+        String dateText = columns.get(fields, columns.date);
+        String amountText = columns.get(fields, columns.amount);
+        if (dateText.isEmpty() || amountText.isEmpty()) {
+            return null;
+        }
+
+        Integer categoryId = categories.get(columns.get(fields, columns.category).toLowerCase(Locale.ROOT));
+        if (categoryId == null) {
+            categoryId = fallbackCategory;
+        }
+        if (categoryId == null) {
+            throw new IllegalArgumentException("unknown category and no \"Other\" category");
+        }
+
+        String description = columns.get(fields, columns.description);
+        if (description.length() > MAX_DESCRIPTION_LENGTH) {
+            description = description.substring(0, MAX_DESCRIPTION_LENGTH);
+        }
+
+        Expense expense = new Expense();
+        expense.setUserId(userId);
+        expense.setCategoryId(categoryId);
+        expense.setMoney(parseSpending(amountText));
+        expense.setDescription(description);
+        expense.setExpenseDate(java.sql.Date.valueOf(parseDate(dateText)));
+        return expense;
+    }
+
+    /**
+     * Parse the amount spent in a row, as a positive amount
+     *
+     * @throws IllegalArgumentException if the amount is invalid, zero or a credit
+     */
+    private Money parseSpending(String text) {
+        Money amount = parseAmount(text);
+        if (amount.signum() == 0) {
+            throw new IllegalArgumentException("zero amount");
+        }
+        Money spent = spendingSign == SpendingSign.NEGATIVE ? Money.ZERO.minus(amount) : amount;
+        if (spent.signum() < 0) {
+            throw new IllegalArgumentException("credit of " + text + " is not an expense");
+        }
+        return spent;
+    }
+
+    /**
+     * Parse a signed amount such as "12.50", "$1,234.00", "-45.10", "45.10-"
+     * or "(45.10)". Currency symbols and spaces are ignored; commas must
+     * group thousands.
+     *
+     * @throws IllegalArgumentException if the text is not such an amount
+     */
+    static Money parseAmount(String text) {
+        String value = text.strip();
+        boolean negative = false;
+        if (value.length() > 1 && value.charAt(0) == '(' && value.charAt(value.length() - 1) == ')') {
+            negative = true;
+            value = value.substring(1, value.length() - 1);
+        }
+
+        StringBuilder digits = new StringBuilder(value.length());
+        boolean signed = negative;
+        boolean seenPoint = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+                digits.append(c);
+            } else if (c == ',' && !seenPoint && digits.length() > 0 && isGroup(value, i + 1)) {
+                // Thousands separator
+            } else if ((c == '-' || c == '+') && !signed
+                       && (digits.length() == 0 || i == value.length() - 1)) {
+                signed = true;
+                negative = c == '-';
+            } else if (!Character.isWhitespace(c) && Character.getType(c) != Character.CURRENCY_SYMBOL) {
+                throw new IllegalArgumentException("invalid amount \"" + text + "\"");
+            }
+        }
+
+        try {
+            Money amount = Money.parse(digits.toString());
+            return negative ? Money.ZERO.minus(amount) : amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid amount \"" + text + "\"");
+        }
+    }
+
+    /**
+     * Whether exactly three digits start at the index, followed by a comma,
+     * a point or the end of the number
+     */
+    private static boolean isGroup(String value, int index) {
+        for (int i = index; i < index + 3; i++) {
+            if (i >= value.length() || value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        int next = index + 3;
+        return next == value.length() || value.charAt(next) < '0' || value.charAt(next) > '9';
+    }
+
+    private static LocalDate parseDate(String text) {
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(text, format);
+            } catch (DateTimeParseException e) {
+                // Try the next format
+            }
+        }
+        throw new IllegalArgumentException("invalid date \"" + text + "\"");
+    }
+
+    /**
+     * Split an RFC 4180 line into fields, reusing the given list
+     */
+    private static void splitFields(String line, List<String> fields) {
+        fields.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+    }
+
+    /**
+     * Queue a batch, waiting while the queue is full unless the import was aborted
+     */
+    private static void offer(BlockingQueue<Batch> queue, Batch batch, AtomicBoolean aborted) {
+        try {
+            while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                if (aborted.get()) {
+                    throw new CancellationException("Import aborted");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Import interrupted");
+        }
+    }
+
+    /**
+     * Map the user's category names, in lower case, to their IDs
+     */
+    private Map<String, Integer> loadCategories(int userId) {
+        Map<String, Integer> categories = new HashMap<>();
+        for (Category category : categoryDAO.getCategoriesByUser(userId)) {
+            // The user's own category wins over a default with the same name
+            String key = category.getName().trim().toLowerCase(Locale.ROOT);
+            if (!category.isDefault() || !categories.containsKey(key)) {
+                categories.put(key, category.getCategoryId());
+            }
+        }
+        return categories;
+    }
+
+    /**
+     * Split the data part of the file into chunks of about CHUNK_SIZE bytes
+     * that end at line boundaries. Each chunk is {start, end}.
+     */
+    private static List<long[]> split(FileChannel channel, long start, long size) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        long position = start;
+        while (position < size) {
+            long end = Math.min(position + CHUNK_SIZE, size);
+            if (end < size) {
+                end = findLineEnd(channel, end, size);
+            }
+            chunks.add(new long[]{position, end});
+            position = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Return the position just after the next line break at or after position
+     */
+    private static long findLineEnd(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static String readLine(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) > 0) {
+            // Keep reading until the line is complete
+        }
+        String line = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        // Strip a byte order mark and the line break
+        return line.replace("\uFEFF", "").strip();
+    }
+
+    /**
+     * A batch of parsed rows from one chunk
+     */
+    private static final class Batch {
+        final int chunk;
+        final int index;
+        final List<Expense> rows;
+        final boolean last;
+
+        Batch(int chunk, int index, List<Expense> rows, boolean last) {
+            this.chunk = chunk;
+            this.index = index;
+            this.rows = rows;
+            this.last = last;
+        }
+    }
+
+    /**
+     * Positions of the known columns in the header; -1 when absent
+     */
+    private static final class Columns {
+        int date = -1;
+        int amount = -1;
+        int category = -1;
+        int description = -1;
+
+        static Columns parse(String header) throws IOException {
+            List<String> names = new ArrayList<>();
+            splitFields(header, names);
+
+            Columns columns = new Columns();
+            for (int i = 0; i < names.size(); i++) {
+                switch (names.get(i).toLowerCase(Locale.ROOT)) {
+                    case "date", "expense date", "transaction date", "posting date" ->
+                        columns.date = columns.date < 0 ? i : columns.date;
+                    case "amount", "debit", "withdrawal" ->
+                        columns.amount = columns.amount < 0 ? i : columns.amount;
+                    case "category" ->
+                        columns.category = i;
+                    case "description", "memo", "details", "narration", "payee" ->
+                        columns.description = columns.description < 0 ? i : columns.description;
+                    default -> {
+                        // Column not used
+                    }
+                }
+            }
+
+            if (columns.date < 0 || columns.amount < 0) {
+                throw new IOException("The first line must be a header with Date and Amount columns");
+            }
+            return columns;
+        }
+
+        String get(List<String> fields, int column) {
+            return column >= 0 && column < fields.size() ? fields.get(column) : "";
+        }
+    }
+
+    /**
+     * Sidecar file recording which batches of which chunks have been stored.
+     * Each line is "chunk batches" or "chunk done"; the first line identifies
+     * the input file so a changed file starts over.
+     */
+    private static final class Checkpoint implements AutoCloseable {
+        private final Path path;
+        private final FileChannel channel;
+        private final Map<Integer, Integer> committed = new HashMap<>();
+        private final Set<Integer> done = new HashSet<>();
+
+        private Checkpoint(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        static Checkpoint open(Path file, int chunkCount, int batchSize, SpendingSign spendingSign)
+                throws IOException {
+            Path path = file.resolveSibling(file.getFileName() + CHECKPOINT_SUFFIX);
+            // The sign decides which rows are stored, so it changes the batches too
+            String header = Files.size(file) + " " + Files.getLastModifiedTime(file).toMillis() +
+                            " " + chunkCount + " " + CHUNK_SIZE + " " + batchSize + " " + spendingSign;
+
+            List<String> lines = Files.exists(path)
+                ? Files.readAllLines(path, StandardCharsets.UTF_8) : List.of();
+            boolean resume = !lines.isEmpty() && lines.get(0).equals(header);
+
+            FileChannel channel = resume
+                ? FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+                : FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                   StandardOpenOption.WRITE);
+            Checkpoint checkpoint = new Checkpoint(path, channel);
+
+            if (resume) {
+                for (String line : lines.subList(1, lines.size())) {
+                    String[] parts = line.trim().split(" ");
+                    if (parts.length != 2) {
+                        continue;
+                    }
+                    int chunk = Integer.parseInt(parts[0]);
+                    if ("done".equals(parts[1])) {
+                        checkpoint.done.add(chunk);
+                    } else {
+                        checkpoint.committed.merge(chunk, Integer.parseInt(parts[1]), Math::max);
+                    }
+                }
+            } else {
+                checkpoint.append(header);
+            }
+            return checkpoint;
+        }
+
+        boolean isDone(int chunk) {
+            return done.contains(chunk);
+        }
+
+        int doneCount() {
+            return done.size();
+        }
+
+        int committedBatches(int chunk) {
+            return committed.getOrDefault(chunk, 0);
+        }
+
+        void batchCommitted(int chunk, int batches) throws IOException {
+            append(chunk + " " + batches);
+        }
+
+        void chunkDone(int chunk) throws IOException {
+            append(chunk + " done");
+        }
+
+        void delete() throws IOException {
+            channel.close();
+            Files.deleteIfExists(path);
+        }
+
+        private void append(String line) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.model.Expense;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk insert: how many rows were stored and which ones failed
+ */
+public class BatchInsertResult {
+
+    /**
+     * A row that could not be inserted
+     */
+    public static class RowFailure {
+        private final int index;
+        private final Expense expense;
+        private final String message;
+
+        public RowFailure(int index, Expense expense, String message) {
+            this.index = index;
+            this.expense = expense;
+            this.message = message;
+        }
+
+        /**
+         * Position of the row in the submitted collection
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public Expense getExpense() {
+            return expense;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "RowFailure{index=" + index + ", message='" + message + "'}";
+        }
+    }
+
+    private final int submittedCount;
+    private int insertedCount;
+    private final List<RowFailure> failures = new ArrayList<>();
+
+    public BatchInsertResult(int submittedCount) {
+        this.submittedCount = submittedCount;
+    }
+
+    void addInserted(int count) {
+        insertedCount += count;
+    }
+
+    void addFailure(int index, Expense expense, String message) {
+        failures.add(new RowFailure(index, expense, message));
+    }
+
+    /**
+     * Marks the whole batch as failed after the transaction was rolled back
+     */
+    void failAll(List<Expense> rows, String message) {
+        insertedCount = 0;
+        failures.clear();
+        for (int i = 0; i < rows.size(); i++) {
+            failures.add(new RowFailure(i, rows.get(i), message));
+        }
+    }
+
+    public int getSubmittedCount() {
+        return submittedCount;
+    }
+
+    public int getInsertedCount() {
+        return insertedCount;
+    }
+
+    public int getFailedCount() {
+        return failures.size();
+    }
+
+    public List<RowFailure> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchInsertResult{submitted=" + submittedCount +
+               ", inserted=" + insertedCount +
+               ", failed=" + failures.size() + '}';
+    }
+}
@@ -16,133 +16,160 @@ public class CategoryDAO {
      * Add a new category to the database
      */
     public boolean addCategory(Category category) {
-        String sql = "INSERT INTO categories (name, description, user_id, is_default) VALUES (?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setString(1, category.getName());
-            pstmt.setString(2, category.getDescription());
-            pstmt.setInt(3, category.getUserId());
-            pstmt.setBoolean(4, category.isDefault());
-            
-            int affectedRows = pstmt.executeUpdate();
+        try (DaoCall call = DaoCall.start("CategoryDAO.addCategory")) {
+            String sql = "INSERT INTO categories (name, description, user_id, is_default) VALUES (?, ?, ?, ?)";
             
-            if (affectedRows > 0) {
-                try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        category.setCategoryId(rs.getInt(1));
-                        return true;
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                
+                pstmt.setString(1, category.getName());
+                pstmt.setString(2, category.getDescription());
+                pstmt.setInt(3, category.getUserId());
+                pstmt.setBoolean(4, category.isDefault());
+                
+                int affectedRows = call.rows(pstmt.executeUpdate());
+                
+                if (affectedRows > 0) {
+                    try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            category.setCategoryId(rs.getInt(1));
+                            return true;
+                        }
                     }
                 }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return false;
         }
-        
-        return false;
     }
     
     /**
      * Update an existing category in the database
      */
     public boolean updateCategory(Category category) {
-        String sql = "UPDATE categories SET name = ?, description = ?, user_id = ?, is_default = ? WHERE category_id = ?";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (DaoCall call = DaoCall.start("CategoryDAO.updateCategory")) {
+            String sql = "UPDATE categories SET name = ?, description = ?, user_id = ?, is_default = ? WHERE category_id = ?";
             
-            pstmt.setString(1, category.getName());
-            pstmt.setString(2, category.getDescription());
-            pstmt.setInt(3, category.getUserId());
-            pstmt.setBoolean(4, category.isDefault());
-            pstmt.setInt(5, category.getCategoryId());
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, category.getName());
+                pstmt.setString(2, category.getDescription());
+                pstmt.setInt(3, category.getUserId());
+                pstmt.setBoolean(4, category.isDefault());
+                pstmt.setInt(5, category.getCategoryId());
+                
+                int affectedRows = call.rows(pstmt.executeUpdate());
+                return affectedRows > 0;
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return false;
         }
-        
-        return false;
     }
     
     /**
      * Delete a category from the database by ID
      */
     public boolean deleteCategory(int categoryId) {
-        Connection conn = null;
-        try {
-            conn = DatabaseUtil.getConnection();
-            conn.setAutoCommit(false);  // Start transaction
-            
-            // First, find the default "Other" category or any default category
-            int defaultCategoryId = -1;
-            String findDefaultSql = "SELECT category_id FROM categories WHERE name = 'Other' AND is_default = TRUE LIMIT 1";
-            try (PreparedStatement defaultStmt = conn.prepareStatement(findDefaultSql)) {
-                ResultSet rs = defaultStmt.executeQuery();
-                if (rs.next()) {
-                    defaultCategoryId = rs.getInt("category_id");
-                } else {
-                    // If "Other" not found, find any default category
-                    String anyDefaultSql = "SELECT category_id FROM categories WHERE is_default = TRUE LIMIT 1";
-                    try (PreparedStatement anyDefaultStmt = conn.prepareStatement(anyDefaultSql)) {
-                        ResultSet defaultRs = anyDefaultStmt.executeQuery();
-                        if (defaultRs.next()) {
-                            defaultCategoryId = defaultRs.getInt("category_id");
-                        } else {
-                            // No default category found, cannot proceed
-                            conn.rollback();
-                            return false;
+        try (DaoCall call = DaoCall.start("CategoryDAO.deleteCategory")) {
+            Connection conn = null;
+            try {
+                conn = DatabaseUtil.getConnection();
+                conn.setAutoCommit(false);  // Start transaction
+                
+                // First, find the default "Other" category or any default category
+                int defaultCategoryId = -1;
+                String findDefaultSql = "SELECT category_id FROM categories WHERE name = 'Other' AND is_default = TRUE LIMIT 1";
+                try (PreparedStatement defaultStmt = conn.prepareStatement(findDefaultSql)) {
+                    ResultSet rs = defaultStmt.executeQuery();
+                    if (rs.next()) {
+                        defaultCategoryId = rs.getInt("category_id");
+                    } else {
+                        // If "Other" not found, find any default category
+                        String anyDefaultSql = "SELECT category_id FROM categories WHERE is_default = TRUE LIMIT 1";
+                        try (PreparedStatement anyDefaultStmt = conn.prepareStatement(anyDefaultSql)) {
+                            ResultSet defaultRs = anyDefaultStmt.executeQuery();
+                            if (defaultRs.next()) {
+                                defaultCategoryId = defaultRs.getInt("category_id");
+                            } else {
+                                // No default category found, cannot proceed
+                                conn.rollback();
+                                return false;
+                            }
                         }
                     }
                 }
-            }
-            
-            // Next, reassign all expenses from this category to the default category
-            String updateExpensesSql = "UPDATE expenses SET category_id = ? WHERE category_id = ?";
-            try (PreparedStatement updateStmt = conn.prepareStatement(updateExpensesSql)) {
-                updateStmt.setInt(1, defaultCategoryId);
-                updateStmt.setInt(2, categoryId);
-                updateStmt.executeUpdate();
-            }
-            
-            // Finally, delete the category
-            String deleteCategorySql = "DELETE FROM categories WHERE category_id = ?";
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteCategorySql)) {
-                deleteStmt.setInt(1, categoryId);
-                int affectedRows = deleteStmt.executeUpdate();
                 
-                // Commit the transaction if successful
-                if (affectedRows > 0) {
-                    conn.commit();
-                    return true;
-                } else {
-                    conn.rollback();
-                    return false;
+                // Next, reassign all expenses from this category to the default category
+                String updateExpensesSql = "UPDATE expenses SET category_id = ? WHERE category_id = ?";
+                try (PreparedStatement updateStmt = conn.prepareStatement(updateExpensesSql)) {
+                    updateStmt.setInt(1, defaultCategoryId);
+                    updateStmt.setInt(2, categoryId);
+                    call.rows(updateStmt.executeUpdate());
                 }
-            }
-        } catch (SQLException e) {
-            // If any exception occurs, rollback the transaction
-            try {
-                if (conn != null) {
-                    conn.rollback();
+                
+                // Move the monthly rollup the same way: merge into the default
+                // category's rows, then drop the rows of this category. The rows
+                // are read through a derived table and the target columns are
+                // qualified, since the statement reads the table it writes to;
+                // H2 needs the type of the category parameter spelled out.
+                String mergeRollupSql = "INSERT INTO expense_monthly_rollup (user_id, year, month, category_id, total, expense_count) " +
+                    "SELECT * FROM (SELECT user_id, year, month, CAST(? AS SIGNED) AS category_id, total, expense_count " +
+                    "FROM expense_monthly_rollup WHERE category_id = ?) AS src " +
+                    "ON DUPLICATE KEY UPDATE total = expense_monthly_rollup.total + VALUES(total), " +
+                    "expense_count = expense_monthly_rollup.expense_count + VALUES(expense_count)";
+                try (PreparedStatement mergeStmt = conn.prepareStatement(mergeRollupSql)) {
+                    mergeStmt.setInt(1, defaultCategoryId);
+                    mergeStmt.setInt(2, categoryId);
+                    call.rows(mergeStmt.executeUpdate());
                 }
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-            return false;
-        } finally {
-            try {
-                if (conn != null) {
-                    conn.setAutoCommit(true);  // Reset auto-commit to default
-                    conn.close();
+                try (PreparedStatement deleteRollupStmt = conn.prepareStatement(
+                        "DELETE FROM expense_monthly_rollup WHERE category_id = ?")) {
+                    deleteRollupStmt.setInt(1, categoryId);
+                    call.rows(deleteRollupStmt.executeUpdate());
+                }
+                
+                // Finally, delete the category
+                String deleteCategorySql = "DELETE FROM categories WHERE category_id = ?";
+                try (PreparedStatement deleteStmt = conn.prepareStatement(deleteCategorySql)) {
+                    deleteStmt.setInt(1, categoryId);
+                    int affectedRows = call.rows(deleteStmt.executeUpdate());
+                    
+                    // Commit the transaction if successful
+                    if (affectedRows > 0) {
+                        conn.commit();
+                        return true;
+                    } else {
+                        conn.rollback();
+                        return false;
+                    }
                 }
             } catch (SQLException e) {
+                // If any exception occurs, rollback the transaction
+                try {
+                    if (conn != null) {
+                        conn.rollback();
+                    }
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
                 e.printStackTrace();
+                return false;
+            } finally {
+                try {
+                    if (conn != null) {
+                        conn.setAutoCommit(true);  // Reset auto-commit to default
+                        conn.close();
+                    }
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
             }
         }
     }
@@ -151,59 +178,112 @@ public class CategoryDAO {
      * Get a category by ID
      */
     public Category getCategoryById(int categoryId) {
-        String sql = "SELECT * FROM categories WHERE category_id = ?";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (DaoCall call = DaoCall.start("CategoryDAO.getCategoryById")) {
+            String sql = "SELECT * FROM categories WHERE category_id = ?";
             
-            pstmt.setInt(1, categoryId);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return extractCategoryFromResultSet(rs);
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, categoryId);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return call.row(extractCategoryFromResultSet(rs));
+                    }
                 }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return null;
         }
-        
-        return null;
     }
     
     /**
      * Get all categories
      */
     public List<Category> getAllCategories() {
-        List<Category> categories = new ArrayList<>();
-        String sql = "SELECT * FROM categories";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (DaoCall call = DaoCall.start("CategoryDAO.getAllCategories")) {
+            List<Category> categories = new ArrayList<>();
+            String sql = "SELECT * FROM categories";
             
-            while (rs.next()) {
-                categories.add(extractCategoryFromResultSet(rs));
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                
+                while (rs.next()) {
+                    categories.add(extractCategoryFromResultSet(rs));
+                }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return call.rows(categories);
         }
-        
-        return categories;
     }
     
     /**
      * Get all categories for a specific user
      */
     public List<Category> getCategoriesByUser(int userId) {
+        try (DaoCall call = DaoCall.start("CategoryDAO.getCategoriesByUser")) {
+            List<Category> categories = new ArrayList<>();
+            String sql = "SELECT * FROM categories WHERE user_id = ? OR is_default = TRUE";
+            
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, userId);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        categories.add(extractCategoryFromResultSet(rs));
+                    }
+                }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            
+            return call.rows(categories);
+        }
+    }
+    
+    /**
+     * Get the default categories shared by all users, or null if the query failed
+     */
+    public List<Category> getDefaultCategories() {
+        try (DaoCall call = DaoCall.start("CategoryDAO.getDefaultCategories")) {
+            return call.rows(queryCategories("SELECT * FROM categories WHERE is_default = TRUE ORDER BY category_id", 0));
+        }
+    }
+    
+    /**
+     * Get the categories created by a specific user, without the defaults,
+     * or null if the query failed
+     */
+    public List<Category> getCategoriesOwnedByUser(int userId) {
+        try (DaoCall call = DaoCall.start("CategoryDAO.getCategoriesOwnedByUser")) {
+            return call.rows(queryCategories(
+                "SELECT * FROM categories WHERE user_id = ? AND is_default = FALSE ORDER BY category_id", userId));
+        }
+    }
+    
+    /**
+     * Run a category query with an optional user ID parameter; returns null on failure
+     * so callers that cache the result can tell an error from an empty list
+     */
+    private List<Category> queryCategories(String sql, int userId) {
         List<Category> categories = new ArrayList<>();
-        String sql = "SELECT * FROM categories WHERE user_id = ? OR is_default = TRUE";
         
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setInt(1, userId);
+            if (userId > 0) {
+                pstmt.setInt(1, userId);
+            }
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
@@ -213,6 +293,7 @@ public class CategoryDAO {
             
         } catch (SQLException e) {
             e.printStackTrace();
+            return null;
         }
         
         return categories;
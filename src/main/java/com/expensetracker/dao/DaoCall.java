@@ -0,0 +1,93 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.jfr.DaoCallEvent;
+import com.expensetracker.metrics.MetricsRegistry;
+import com.expensetracker.metrics.Timer;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One call of a public DAO method. Closing it records the latency in the
+ * method's timer and, while a flight recording is running, emits a
+ * {@link DaoCallEvent} with the rows the call returned or changed.
+ * <pre>
+ * try (DaoCall call = DaoCall.start("ExpenseDAO.getExpensesByUser")) {
+ *     ...
+ *     return call.rows(expenses);
+ * }
+ * </pre>
+ */
+final class DaoCall implements AutoCloseable {
+
+    // Timers by operation, so a call does not build the metric name each time
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+
+    private final String operation;
+    private final Timer timer;
+    private final DaoCallEvent event = new DaoCallEvent();
+    private final long start;
+    private long rows;
+
+    private DaoCall(String operation) {
+        this.operation = operation;
+        this.timer = TIMERS.computeIfAbsent(operation, key -> MetricsRegistry.timer("dao." + key));
+        event.begin();
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Start timing a call of the operation, named Class.method
+     */
+    static DaoCall start(String operation) {
+        return new DaoCall(operation);
+    }
+
+    /**
+     * Count rows changed by an update, returning the count
+     */
+    int rows(int count) {
+        rows += count;
+        return count;
+    }
+
+    /**
+     * Count rows handled, returning the count
+     */
+    long rows(long count) {
+        rows += count;
+        return count;
+    }
+
+    /**
+     * Count the rows of a result, returning the result
+     */
+    <T extends Collection<?>> T rows(T result) {
+        if (result != null) {
+            rows += result.size();
+        }
+        return result;
+    }
+
+    /**
+     * Count a single row looked up, returning it
+     */
+    <T> T row(T result) {
+        if (result != null) {
+            rows++;
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        timer.record(System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setOperation(operation);
+            event.setRows(rows);
+            event.commit();
+        }
+    }
+}
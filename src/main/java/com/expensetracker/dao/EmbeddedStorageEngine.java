@@ -0,0 +1,172 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.util.ConnectionPool;
+import com.expensetracker.util.SchemaMigrator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Storage in an H2 database file opened inside the application process.
+ *
+ * There is no server to install or connect to, so a single-user install
+ * starts without a network hop, and tests and benchmarks can run anywhere.
+ * H2 runs in MySQL compatibility mode so the DAOs' SQL is unchanged, but
+ * the schema is its own: it is created in one step at the current layout,
+ * with indexes ordered the way H2 reads them.
+ */
+public class EmbeddedStorageEngine implements StorageEngine {
+
+    public static final String NAME = "embedded";
+
+    /**
+     * System property with the database file path, without the .mv.db suffix
+     */
+    public static final String PATH_PROPERTY = "expensetracker.embedded.path";
+
+    private static final String DEFAULT_PATH =
+        Paths.get(System.getProperty("user.home"), ".expensetracker", "expense_tracker").toString();
+
+    private static final String DB_USER = "sa";
+    private static final String DB_PASSWORD = "";
+
+    // MySQL syntax (ON DUPLICATE KEY, LIMIT) and lower-case names as the DAOs
+    // expect; year and month are column names, not keywords; a 64 MB page
+    // cache; row locks wait up to 10 s. The pool closes the database on exit.
+    private static final String URL_OPTIONS =
+        ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,MONTH" +
+        ";CACHE_SIZE=65536;LOCK_TIMEOUT=10000;DB_CLOSE_ON_EXIT=FALSE";
+
+    // Connection pool settings; connections are cheap in-process, and the
+    // database file stays open as long as one of them does
+    private static final int POOL_MAX_SIZE = 4;
+    private static final long POOL_BORROW_TIMEOUT_MILLIS = 30_000;
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = 60 * 60_000;
+    private static final long POOL_MAX_LIFETIME_MILLIS = 24 * 60 * 60_000;
+    private static final long POOL_LEAK_THRESHOLD_MILLIS = 60_000;
+    private static final int STATEMENT_CACHE_SIZE = 64;
+
+    // Rows fetched per round trip when streaming; H2 spills large results to disk itself
+    private static final int STREAMING_FETCH_SIZE = 1000;
+
+    private static final List<SchemaMigrator.Migration> MIGRATIONS = List.of(
+        new SchemaMigrator.Migration(1, "Create tables",
+            "CREATE TABLE IF NOT EXISTS users (" +
+            "user_id INT AUTO_INCREMENT PRIMARY KEY," +
+            "username VARCHAR(50) UNIQUE NOT NULL," +
+            "password VARCHAR(100) NOT NULL," +
+            "email VARCHAR(100) UNIQUE NOT NULL," +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+            // H2 has no function-based indexes, so the lower-cased name UserDAO
+            // looks users up by is kept in an indexed generated column
+            "username_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(username))" +
+            ")",
+            "CREATE INDEX IF NOT EXISTS idx_users_username_lower ON users (username_lower)",
+            "CREATE TABLE IF NOT EXISTS categories (" +
+            "category_id INT AUTO_INCREMENT PRIMARY KEY," +
+            "name VARCHAR(50) NOT NULL," +
+            "description VARCHAR(200)," +
+            "user_id INT," +
+            "is_default BOOLEAN DEFAULT FALSE," +
+            "FOREIGN KEY (user_id) REFERENCES users(user_id)" +
+            ")",
+            "CREATE TABLE IF NOT EXISTS expenses (" +
+            "expense_id INT AUTO_INCREMENT PRIMARY KEY," +
+            "user_id INT NOT NULL," +
+            "category_id INT NOT NULL," +
+            "amount DECIMAL(10,2) NOT NULL," +
+            "description VARCHAR(200)," +
+            "expense_date DATE NOT NULL," +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+            "FOREIGN KEY (user_id) REFERENCES users(user_id)," +
+            "FOREIGN KEY (category_id) REFERENCES categories(category_id)" +
+            ")",
+            // expense_id is listed explicitly so the index serves the keyset
+            // (date, id) ordering; amount and category_id let the aggregates
+            // read the index alone
+            "CREATE INDEX IF NOT EXISTS idx_expenses_user_date ON expenses " +
+            "(user_id, expense_date, expense_id, category_id, amount)",
+            "CREATE INDEX IF NOT EXISTS idx_expenses_user_category_date ON expenses " +
+            "(user_id, category_id, expense_date, expense_id)",
+            "CREATE TABLE IF NOT EXISTS expense_monthly_rollup (" +
+            "user_id INT NOT NULL," +
+            "year SMALLINT NOT NULL," +
+            "month TINYINT NOT NULL," +
+            "category_id INT NOT NULL," +
+            "total DECIMAL(14,2) NOT NULL," +
+            "expense_count INT NOT NULL," +
+            "PRIMARY KEY (user_id, year, month, category_id)," +
+            "FOREIGN KEY (user_id) REFERENCES users(user_id)," +
+            "FOREIGN KEY (category_id) REFERENCES categories(category_id)" +
+            ")"),
+
+        new SchemaMigrator.Migration(2, "Insert default categories",
+            "INSERT INTO categories (name, description, is_default) " +
+            "SELECT d.name, CONCAT(d.name, ' expenses'), TRUE FROM (" +
+            "SELECT 'Food' AS name UNION ALL SELECT 'Transport' UNION ALL SELECT 'Housing' " +
+            "UNION ALL SELECT 'Entertainment' UNION ALL SELECT 'Healthcare' UNION ALL SELECT 'Education' " +
+            "UNION ALL SELECT 'Shopping' UNION ALL SELECT 'Utilities' UNION ALL SELECT 'Other'" +
+            ") d WHERE NOT EXISTS (SELECT 1 FROM categories WHERE is_default = TRUE)")
+    );
+
+    private final Path path;
+
+    /**
+     * Use the file named by the expensetracker.embedded.path property, or
+     * ~/.expensetracker/expense_tracker
+     */
+    public EmbeddedStorageEngine() {
+        this(Paths.get(System.getProperty(PATH_PROPERTY, DEFAULT_PATH)));
+    }
+
+    /**
+     * @param path database file path without the .mv.db suffix
+     */
+    public EmbeddedStorageEngine(Path path) {
+        this.path = path.toAbsolutePath();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void createDatabase() throws SQLException {
+        // H2 creates the file itself on first connect, but not its directory
+        try {
+            Path directory = path.getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            System.out.println("Embedded database: " + path);
+        } catch (IOException e) {
+            System.out.println("Error creating database directory: " + e.getMessage());
+            throw new SQLException("Cannot create directory for " + path, e);
+        }
+    }
+
+    @Override
+    public void migrate(Connection connection) throws SQLException {
+        // H2 locks the file to this process, so no other instance can migrate concurrently
+        SchemaMigrator.migrate(connection, MIGRATIONS, false);
+    }
+
+    @Override
+    public ConnectionPool createPool() {
+        return new ConnectionPool(
+            "jdbc:h2:file:" + path + URL_OPTIONS, null, DB_USER, DB_PASSWORD,
+            POOL_MAX_SIZE, POOL_BORROW_TIMEOUT_MILLIS, POOL_IDLE_TIMEOUT_MILLIS,
+            POOL_MAX_LIFETIME_MILLIS, POOL_LEAK_THRESHOLD_MILLIS, STATEMENT_CACHE_SIZE);
+    }
+
+    @Override
+    public int getStreamingFetchSize() {
+        return STREAMING_FETCH_SIZE;
+    }
+}
@@ -0,0 +1,34 @@
+package com.expensetracker.dao;
+
+import java.util.Date;
+
+/**
+ * Position in the expense listing, which is ordered by expense date and then
+ * expense ID, newest first. A page is fetched relative to a cursor instead of
+ * an offset, so the database seeks straight to it through the index.
+ */
+public class ExpenseCursor {
+    private final Date expenseDate;
+    private final int expenseId;
+    
+    public ExpenseCursor(Date expenseDate, int expenseId) {
+        this.expenseDate = expenseDate;
+        this.expenseId = expenseId;
+    }
+    
+    public Date getExpenseDate() {
+        return expenseDate;
+    }
+    
+    public int getExpenseId() {
+        return expenseId;
+    }
+    
+    @Override
+    public String toString() {
+        return "ExpenseCursor{" +
+                "expenseDate=" + expenseDate +
+                ", expenseId=" + expenseId +
+                '}';
+    }
+}
@@ -1,126 +1,355 @@
 package com.expensetracker.dao;
 
 import com.expensetracker.model.Expense;
+import com.expensetracker.model.Money;
 import com.expensetracker.util.DatabaseUtil;
 
-import java.math.BigDecimal;
+import java.io.IOException;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Expense related database operations
  */
 public class ExpenseDAO {
     
+    private static final String INSERT_EXPENSE_SQL =
+        "INSERT INTO expenses (user_id, category_id, amount, description, expense_date) VALUES (?, ?, ?, ?, ?)";
+    
+    // Columns read by extractExpenseFromResultSet. The amount is also selected
+    // in cents so it can be read with getLong instead of as a BigDecimal.
+    private static final String EXPENSE_COLUMNS =
+        "e.*, c.name as category_name, ROUND(e.amount * 100) as amount_cents";
+    
+    // Adds a delta to one (user, month, category) cell of the rollup, creating it if needed
+    private static final String UPSERT_ROLLUP_SQL =
+        "INSERT INTO expense_monthly_rollup (user_id, year, month, category_id, total, expense_count) " +
+        "VALUES (?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE total = total + VALUES(total), expense_count = expense_count + VALUES(expense_count)";
+    
+    /**
+     * Rows per JDBC batch when the caller does not choose a chunk size
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    
     /**
      * Add a new expense to the database
      */
     public boolean addExpense(Expense expense) {
-        String sql = "INSERT INTO expenses (user_id, category_id, amount, description, expense_date) VALUES (?, ?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setInt(1, expense.getUserId());
-            pstmt.setInt(2, expense.getCategoryId());
-            pstmt.setBigDecimal(3, expense.getAmount());
-            pstmt.setString(4, expense.getDescription());
-            pstmt.setDate(5, new java.sql.Date(expense.getExpenseDate().getTime()));
-            
-            System.out.println("Executing SQL: " + sql + " with parameters: " +
-                              "userId=" + expense.getUserId() +
-                              ", categoryId=" + expense.getCategoryId() +
-                              ", amount=" + expense.getAmount() +
-                              ", description=" + expense.getDescription() +
-                              ", expenseDate=" + expense.getExpenseDate());
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        expense.setExpenseId(rs.getInt(1));
-                        System.out.println("Successfully added expense with ID: " + expense.getExpenseId());
-                        return true;
+        try (DaoCall call = DaoCall.start("ExpenseDAO.addExpense")) {
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(INSERT_EXPENSE_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                
+                // The expense and its monthly rollup are written in one transaction
+                conn.setAutoCommit(false);
+                try {
+                    bindInsert(pstmt, expense);
+                    
+                    int affectedRows = call.rows(pstmt.executeUpdate());
+                    
+                    if (affectedRows > 0) {
+                        try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                            if (rs.next()) {
+                                int expenseId = rs.getInt(1);
+                                updateRollup(conn, expense.getUserId(), expense.getExpenseDate(),
+                                    expense.getCategoryId(), expense.getAmountCents(), 1);
+                                conn.commit();
+                                expense.setExpenseId(expenseId);
+                                return true;
+                            }
+                        }
                     }
+                    conn.rollback();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
                 }
+                
+            } catch (SQLException e) {
+                System.out.println("Error adding expense: " + e.getMessage());
+                
+                // If there's a schema error, try to recreate the table structure
+                if (e.getMessage().contains("Unknown column") || e.getMessage().contains("doesn't exist")) {
+                    System.out.println("Schema error detected. You may need to restart the application to rebuild the database.");
+                }
+                
+                e.printStackTrace();
             }
             
-        } catch (SQLException e) {
-            System.out.println("Error adding expense: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Add many expenses in one transaction using JDBC batches of the default size
+     */
+    public BatchInsertResult addExpenses(Collection<Expense> expenses) {
+        return addExpenses(expenses, DEFAULT_BATCH_SIZE);
+    }
+    
+    /**
+     * Add many expenses in one transaction, sending them in JDBC batches of
+     * chunkSize rows. Generated IDs are written back to every inserted expense.
+     * Rows that fail validation or are rejected by the database are reported
+     * in the result; the remaining rows are still committed.
+     */
+    public BatchInsertResult addExpenses(Collection<Expense> expenses, int chunkSize) {
+        try (DaoCall call = DaoCall.start("ExpenseDAO.addExpenses")) {
+            List<Expense> rows = new ArrayList<>(expenses);
+            BatchInsertResult result = new BatchInsertResult(rows.size());
+            if (rows.isEmpty()) {
+                return result;
+            }
+            int batchSize = chunkSize > 0 ? chunkSize : DEFAULT_BATCH_SIZE;
             
-            // If there's a schema error, try to recreate the table structure
-            if (e.getMessage().contains("Unknown column") || e.getMessage().contains("doesn't exist")) {
-                System.out.println("Schema error detected. You may need to restart the application to rebuild the database.");
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(INSERT_EXPENSE_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                
+                conn.setAutoCommit(false);
+                try {
+                    List<Integer> chunk = new ArrayList<>(batchSize);
+                    for (int i = 0; i < rows.size(); i++) {
+                        Expense expense = rows.get(i);
+                        String problem = validateForInsert(expense);
+                        if (problem != null) {
+                            result.addFailure(i, expense, problem);
+                            continue;
+                        }
+                        
+                        bindInsert(pstmt, expense);
+                        pstmt.addBatch();
+                        chunk.add(i);
+                        
+                        if (chunk.size() == batchSize) {
+                            executeChunk(conn, pstmt, rows, chunk, result);
+                            chunk.clear();
+                        }
+                    }
+                    if (!chunk.isEmpty()) {
+                        executeChunk(conn, pstmt, rows, chunk, result);
+                    }
+                    
+                    updateRollup(conn, rows);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    for (Expense expense : rows) {
+                        expense.setExpenseId(0);
+                    }
+                    result.failAll(rows, e.getMessage());
+                    System.out.println("Error adding expenses in bulk: " + e.getMessage());
+                    e.printStackTrace();
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                
+            } catch (SQLException e) {
+                result.failAll(rows, e.getMessage());
+                e.printStackTrace();
             }
             
-            e.printStackTrace();
+            call.rows(result.getInsertedCount());
+            return result;
         }
-        
-        return false;
     }
     
     /**
-     * Update an existing expense in the database
+     * Execute one batched chunk and assign the generated keys. If the database
+     * rejects the batch, the chunk is rolled back and retried row by row so only
+     * the offending rows are reported.
      */
-    public boolean updateExpense(Expense expense) {
-        String sql = "UPDATE expenses SET category_id = ?, amount = ?, description = ?, expense_date = ? WHERE expense_id = ? AND user_id = ?";
+    private void executeChunk(Connection conn, PreparedStatement pstmt, List<Expense> rows,
+                              List<Integer> chunk, BatchInsertResult result) throws SQLException {
+        Savepoint savepoint = conn.setSavepoint();
+        try {
+            pstmt.executeBatch();
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                for (int index : chunk) {
+                    if (!keys.next()) {
+                        throw new SQLException("Missing generated key for batched expense row " + index);
+                    }
+                    rows.get(index).setExpenseId(keys.getInt(1));
+                }
+            }
+            conn.releaseSavepoint(savepoint);
+            result.addInserted(chunk.size());
+            return;
+        } catch (BatchUpdateException e) {
+            conn.rollback(savepoint);
+            pstmt.clearBatch();
+        }
         
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, expense.getCategoryId());
-            pstmt.setBigDecimal(2, expense.getAmount());
-            pstmt.setString(3, expense.getDescription());
-            pstmt.setDate(4, new java.sql.Date(expense.getExpenseDate().getTime()));
-            pstmt.setInt(5, expense.getExpenseId());
-            pstmt.setInt(6, expense.getUserId());
+        // Find the failing rows one at a time
+        for (int index : chunk) {
+            Expense expense = rows.get(index);
+            Savepoint rowSavepoint = conn.setSavepoint();
+            try {
+                bindInsert(pstmt, expense);
+                pstmt.executeUpdate();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        expense.setExpenseId(keys.getInt(1));
+                    }
+                }
+                conn.releaseSavepoint(rowSavepoint);
+                result.addInserted(1);
+            } catch (SQLException e) {
+                conn.rollback(rowSavepoint);
+                expense.setExpenseId(0);
+                result.addFailure(index, expense, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Returns a description of what is wrong with the expense, or null if it can be inserted
+     */
+    private String validateForInsert(Expense expense) {
+        if (expense == null) {
+            return "Expense is null";
+        }
+        if (expense.getUserId() <= 0) {
+            return "Invalid user ID";
+        }
+        if (expense.getCategoryId() <= 0) {
+            return "Invalid category ID";
+        }
+        if (expense.getAmount() == null) {
+            return "Amount is required";
+        }
+        if (expense.getExpenseDate() == null) {
+            return "Expense date is required";
+        }
+        return null;
+    }
+    
+    /**
+     * Bind the insert parameters for an expense
+     */
+    private void bindInsert(PreparedStatement pstmt, Expense expense) throws SQLException {
+        pstmt.setInt(1, expense.getUserId());
+        pstmt.setInt(2, expense.getCategoryId());
+        pstmt.setBigDecimal(3, expense.getAmount());
+        pstmt.setString(4, expense.getDescription());
+        pstmt.setDate(5, new java.sql.Date(expense.getExpenseDate().getTime()));
+    }
+    
+    /**
+     * Update an existing expense in the database. Returns the expense as it
+     * was before the update, read under the update's row lock, or null if
+     * nothing was updated.
+     */
+    public Expense updateExpense(Expense expense) {
+        try (DaoCall call = DaoCall.start("ExpenseDAO.updateExpense")) {
+            String sql = "UPDATE expenses SET category_id = ?, amount = ?, description = ?, expense_date = ? WHERE expense_id = ? AND user_id = ?";
             
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                conn.setAutoCommit(false);
+                try {
+                    // The stored row is locked so its old values can be taken out of the rollup
+                    Expense previous = lockExpense(conn, expense.getExpenseId(), expense.getUserId());
+                    if (previous == null) {
+                        conn.rollback();
+                        return null;
+                    }
+                    
+                    pstmt.setInt(1, expense.getCategoryId());
+                    pstmt.setBigDecimal(2, expense.getAmount());
+                    pstmt.setString(3, expense.getDescription());
+                    pstmt.setDate(4, new java.sql.Date(expense.getExpenseDate().getTime()));
+                    pstmt.setInt(5, expense.getExpenseId());
+                    pstmt.setInt(6, expense.getUserId());
+                    
+                    int affectedRows = call.rows(pstmt.executeUpdate());
+                    if (affectedRows > 0) {
+                        updateRollup(conn, expense.getUserId(), previous.getExpenseDate(), previous.getCategoryId(),
+                            -previous.getAmountCents(), -1);
+                        updateRollup(conn, expense.getUserId(), expense.getExpenseDate(),
+                            expense.getCategoryId(), expense.getAmountCents(), 1);
+                    }
+                    conn.commit();
+                    return affectedRows > 0 ? previous : null;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return null;
         }
-        
-        return false;
     }
     
     /**
-     * Delete an expense from the database by ID
+     * Delete an expense from the database by ID. Returns the deleted expense,
+     * or null if nothing was deleted.
      */
-    public boolean deleteExpense(int expenseId, int userId) {
-        String sql = "DELETE FROM expenses WHERE expense_id = ? AND user_id = ?";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    public Expense deleteExpense(int expenseId, int userId) {
+        try (DaoCall call = DaoCall.start("ExpenseDAO.deleteExpense")) {
+            String sql = "DELETE FROM expenses WHERE expense_id = ? AND user_id = ?";
             
-            pstmt.setInt(1, expenseId);
-            pstmt.setInt(2, userId);
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                conn.setAutoCommit(false);
+                try {
+                    Expense previous = lockExpense(conn, expenseId, userId);
+                    if (previous == null) {
+                        conn.rollback();
+                        return null;
+                    }
+                    
+                    pstmt.setInt(1, expenseId);
+                    pstmt.setInt(2, userId);
+                    
+                    int affectedRows = call.rows(pstmt.executeUpdate());
+                    if (affectedRows > 0) {
+                        updateRollup(conn, userId, previous.getExpenseDate(), previous.getCategoryId(),
+                            -previous.getAmountCents(), -1);
+                    }
+                    conn.commit();
+                    return affectedRows > 0 ? previous : null;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return null;
         }
-        
-        return false;
     }
     
     /**
-     * Get an expense by ID
+     * Lock a stored expense for the rest of the transaction and read it, or
+     * return null if the user has no such expense. The category name comes
+     * from a subquery so the shared category row is not locked as well.
      */
-    public Expense getExpenseById(int expenseId, int userId) {
-        String sql = "SELECT e.*, c.name as category_name FROM expenses e " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "WHERE e.expense_id = ? AND e.user_id = ?";
+    private Expense lockExpense(Connection conn, int expenseId, int userId) throws SQLException {
+        String sql = "SELECT e.*, (SELECT c.name FROM categories c WHERE c.category_id = e.category_id) as category_name, " +
+                     "ROUND(e.amount * 100) as amount_cents " +
+                     "FROM expenses e WHERE e.expense_id = ? AND e.user_id = ? FOR UPDATE";
         
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, expenseId);
             pstmt.setInt(2, userId);
             
@@ -129,244 +358,726 @@ public class ExpenseDAO {
                     return extractExpenseFromResultSet(rs);
                 }
             }
-            
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
         
         return null;
     }
     
+    /**
+     * Add an amount and count to one month and category of the rollup, as
+     * part of the caller's transaction. Negative values take an expense out.
+     */
+    private void updateRollup(Connection conn, int userId, Date expenseDate, int categoryId,
+                              long cents, int count) throws SQLException {
+        LocalDate date = new java.sql.Date(expenseDate.getTime()).toLocalDate();
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_ROLLUP_SQL)) {
+            bindRollup(pstmt, userId, date.getYear(), date.getMonthValue(), categoryId, cents, count);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Add the inserted rows of a batch to the rollup, as part of the caller's
+     * transaction. Rows are summed per month and category first, so a large
+     * import sends one upsert per cell rather than one per expense.
+     */
+    private void updateRollup(Connection conn, List<Expense> rows) throws SQLException {
+        // {user ID, year, month, category ID} -> {cents, count}
+        Map<List<Integer>, long[]> cells = new LinkedHashMap<>();
+        for (Expense expense : rows) {
+            if (validateForInsert(expense) != null || expense.getExpenseId() <= 0) {
+                continue; // Not inserted
+            }
+            LocalDate date = new java.sql.Date(expense.getExpenseDate().getTime()).toLocalDate();
+            long[] cell = cells.computeIfAbsent(
+                List.of(expense.getUserId(), date.getYear(), date.getMonthValue(), expense.getCategoryId()),
+                key -> new long[2]);
+            cell[0] += expense.getAmountCents();
+            cell[1]++;
+        }
+        if (cells.isEmpty()) {
+            return;
+        }
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_ROLLUP_SQL)) {
+            for (Map.Entry<List<Integer>, long[]> entry : cells.entrySet()) {
+                List<Integer> key = entry.getKey();
+                bindRollup(pstmt, key.get(0), key.get(1), key.get(2), key.get(3),
+                    entry.getValue()[0], (int) entry.getValue()[1]);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+    
+    private void bindRollup(PreparedStatement pstmt, int userId, int year, int month, int categoryId,
+                            long cents, int count) throws SQLException {
+        pstmt.setInt(1, userId);
+        pstmt.setInt(2, year);
+        pstmt.setInt(3, month);
+        pstmt.setInt(4, categoryId);
+        pstmt.setBigDecimal(5, Money.ofCents(cents).toBigDecimal());
+        pstmt.setInt(6, count);
+    }
+    
+    /**
+     * Recompute the monthly rollup from the expenses table, for repair after
+     * the rollup has drifted, e.g. because rows were changed outside the
+     * application.
+     *
+     * @param userId the user to rebuild, or 0 for all users
+     * @return true if the rollup was rebuilt
+     */
+    public boolean rebuildMonthlyRollup(int userId) {
+        try (DaoCall call = DaoCall.start("ExpenseDAO.rebuildMonthlyRollup")) {
+            String deleteSql = userId > 0
+                ? "DELETE FROM expense_monthly_rollup WHERE user_id = ?"
+                : "DELETE FROM expense_monthly_rollup";
+            String insertSql = "INSERT INTO expense_monthly_rollup (user_id, year, month, category_id, total, expense_count) " +
+                               "SELECT user_id, YEAR(expense_date), MONTH(expense_date), category_id, SUM(amount), COUNT(*) " +
+                               "FROM expenses " + (userId > 0 ? "WHERE user_id = ? " : "") +
+                               "GROUP BY user_id, YEAR(expense_date), MONTH(expense_date), category_id";
+            
+            try (Connection conn = DatabaseUtil.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement deleteStmt = conn.prepareStatement(deleteSql);
+                     PreparedStatement insertStmt = conn.prepareStatement(insertSql)) {
+                    
+                    if (userId > 0) {
+                        deleteStmt.setInt(1, userId);
+                        insertStmt.setInt(1, userId);
+                    }
+                    call.rows(deleteStmt.executeUpdate());
+                    int cells = call.rows(insertStmt.executeUpdate());
+                    
+                    conn.commit();
+                    System.out.println("Rebuilt monthly rollup" + (userId > 0 ? " for user " + userId : "") +
+                        ": " + cells + " rows");
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                
+            } catch (SQLException e) {
+                System.out.println("Error rebuilding monthly rollup: " + e.getMessage());
+                e.printStackTrace();
+            }
+            
+            return false;
+        }
+    }
+    
+    /**
+     * Get an expense by ID
+     */
+    public Expense getExpenseById(int expenseId, int userId) {
+        try (DaoCall call = DaoCall.start("ExpenseDAO.getExpenseById")) {
+            String sql = "SELECT " + EXPENSE_COLUMNS + " FROM expenses e " +
+                         "JOIN categories c ON e.category_id = c.category_id " +
+                         "WHERE e.expense_id = ? AND e.user_id = ?";
+            
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, expenseId);
+                pstmt.setInt(2, userId);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return call.row(extractExpenseFromResultSet(rs));
+                    }
+                }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            
+            return null;
+        }
+    }
+    
     /**
      * Get all expenses for a specific user
      */
     public List<Expense> getExpensesByUser(int userId) {
-        List<Expense> expenses = new ArrayList<>();
-        
-        // Try the more complete query first
-        String sql = "SELECT e.*, c.name as category_name FROM expenses e " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "WHERE e.user_id = ? ORDER BY e.expense_date DESC";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (DaoCall call = DaoCall.start("ExpenseDAO.getExpensesByUser")) {
+            List<Expense> expenses = new ArrayList<>();
             
-            pstmt.setInt(1, userId);
+            // Try the more complete query first
+            String sql = "SELECT " + EXPENSE_COLUMNS + " FROM expenses e " +
+                         "JOIN categories c ON e.category_id = c.category_id " +
+                         "WHERE e.user_id = ? ORDER BY e.expense_date DESC";
             
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    expenses.add(extractExpenseFromResultSet(rs));
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, userId);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        expenses.add(extractExpenseFromResultSet(rs));
+                    }
+                    return call.rows(expenses);
+                }
+                
+            } catch (SQLException e) {
+                // If the first query fails, try a simpler fallback query
+                System.out.println("Error with join query: " + e.getMessage() + ". Trying fallback query.");
+                
+                String fallbackSql = "SELECT *, ROUND(amount * 100) as amount_cents FROM expenses " +
+                                     "WHERE user_id = ? ORDER BY expense_date DESC";
+                
+                try (Connection conn = DatabaseUtil.getConnection();
+                     PreparedStatement pstmt = conn.prepareStatement(fallbackSql)) {
+                    
+                    pstmt.setInt(1, userId);
+                    
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            Expense expense = new Expense();
+                            expense.setExpenseId(rs.getInt("expense_id"));
+                            expense.setUserId(rs.getInt("user_id"));
+                            expense.setCategoryId(rs.getInt("category_id"));
+                            expense.setMoney(Money.ofCents(rs.getLong("amount_cents")));
+                            expense.setDescription(rs.getString("description"));
+                            expense.setExpenseDate(rs.getDate("expense_date"));
+                            expense.setCreatedAt(rs.getTimestamp("created_at"));
+                            expense.setCategoryName("Unknown"); // Since we couldn't join with categories
+                            expenses.add(expense);
+                        }
+                    }
+                    
+                } catch (SQLException ex) {
+                    System.out.println("Error with fallback query: " + ex.getMessage());
+                    ex.printStackTrace();
                 }
-                return expenses;
             }
             
-        } catch (SQLException e) {
-            // If the first query fails, try a simpler fallback query
-            System.out.println("Error with join query: " + e.getMessage() + ". Trying fallback query.");
+            return call.rows(expenses);
+        }
+    }
+    
+    /**
+     * Get one page of a user's expenses, newest first, using keyset pagination
+     * on (expense_date, expense_id).
+     *
+     * @param userId     the user
+     * @param categoryId only include this category, or 0 for all categories
+     * @param cursor     page boundary; null fetches the newest page
+     * @param forward    true for the page after the cursor (older expenses),
+     *                   false for the page before it (newer expenses)
+     * @param pageSize   maximum number of expenses on the page
+     */
+    public ExpensePage getExpensePage(int userId, int categoryId, ExpenseCursor cursor,
+                                      boolean forward, int pageSize) {
+        try (DaoCall call = DaoCall.start("ExpenseDAO.getExpensePage")) {
+            List<Expense> expenses = new ArrayList<>(pageSize);
+            boolean backward = cursor != null && !forward;
             
-            String fallbackSql = "SELECT * FROM expenses WHERE user_id = ? ORDER BY expense_date DESC";
+            StringBuilder sql = new StringBuilder(
+                "SELECT " + EXPENSE_COLUMNS + " FROM expenses e " +
+                "JOIN categories c ON e.category_id = c.category_id " +
+                "WHERE e.user_id = ?");
+            if (categoryId > 0) {
+                sql.append(" AND e.category_id = ?");
+            }
+            if (cursor != null) {
+                // Spelled out rather than as a row comparison, which MySQL
+                // cannot turn into a range scan on the (date, id) index
+                sql.append(backward
+                    ? " AND (e.expense_date > ? OR (e.expense_date = ? AND e.expense_id > ?))"
+                    : " AND (e.expense_date < ? OR (e.expense_date = ? AND e.expense_id < ?))");
+            }
+            sql.append(backward
+                ? " ORDER BY e.expense_date ASC, e.expense_id ASC LIMIT ?"
+                : " ORDER BY e.expense_date DESC, e.expense_id DESC LIMIT ?");
             
-            try {
-                Connection conn = DatabaseUtil.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(fallbackSql);
+            boolean hasMore = false;
+            
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                
+                int index = 1;
+                pstmt.setInt(index++, userId);
+                if (categoryId > 0) {
+                    pstmt.setInt(index++, categoryId);
+                }
+                if (cursor != null) {
+                    java.sql.Date cursorDate = new java.sql.Date(cursor.getExpenseDate().getTime());
+                    pstmt.setDate(index++, cursorDate);
+                    pstmt.setDate(index++, cursorDate);
+                    pstmt.setInt(index++, cursor.getExpenseId());
+                }
+                // One extra row tells us whether another page exists
+                pstmt.setInt(index, pageSize + 1);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (expenses.size() == pageSize) {
+                            hasMore = true;
+                            break;
+                        }
+                        expenses.add(extractExpenseFromResultSet(rs));
+                    }
+                }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            
+            if (backward) {
+                Collections.reverse(expenses);
+                return new ExpensePage(call.rows(expenses), true, hasMore);
+            }
+            return new ExpensePage(call.rows(expenses), hasMore, cursor != null);
+        }
+    }
+    
+    /**
+     * Get the total of all of a user's expenses, optionally limited to one
+     * category. Read from the monthly rollup, one row per month and category.
+     */
+    public Money getTotalExpenses(int userId, int categoryId) {
+        try (DaoCall call = DaoCall.start("ExpenseDAO.getTotalExpenses")) {
+            String sql = categoryId > 0
+                ? "SELECT ROUND(SUM(total) * 100) as total_cents FROM expense_monthly_rollup WHERE user_id = ? AND category_id = ?"
+                : "SELECT ROUND(SUM(total) * 100) as total_cents FROM expense_monthly_rollup WHERE user_id = ?";
+            
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
                 
                 pstmt.setInt(1, userId);
+                if (categoryId > 0) {
+                    pstmt.setInt(2, categoryId);
+                }
                 
-                ResultSet rs = pstmt.executeQuery();
-                while (rs.next()) {
-                    Expense expense = new Expense();
-                    expense.setExpenseId(rs.getInt("expense_id"));
-                    expense.setUserId(rs.getInt("user_id"));
-                    expense.setCategoryId(rs.getInt("category_id"));
-                    expense.setAmount(rs.getBigDecimal("amount"));
-                    expense.setDescription(rs.getString("description"));
-                    expense.setExpenseDate(rs.getDate("expense_date"));
-                    expense.setCreatedAt(rs.getTimestamp("created_at"));
-                    expense.setCategoryName("Unknown"); // Since we couldn't join with categories
-                    expenses.add(expense);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        // SUM is NULL when nothing matches, which getLong reads as 0
+                        return Money.ofCents(rs.getLong("total_cents"));
+                    }
                 }
                 
-                // Close resources manually
-                rs.close();
-                pstmt.close();
-                conn.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            
+            return Money.ZERO;
+        }
+    }
+    
+    /**
+     * Count a user's expenses matching the optional category and date filters
+     *
+     * @param categoryId 0 for all categories
+     * @param startDate  first day included, or null
+     * @param endDate    last day included, or null
+     */
+    public long countExpenses(int userId, int categoryId, Date startDate, Date endDate) {
+        try (DaoCall call = DaoCall.start("ExpenseDAO.countExpenses")) {
+            StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM expenses e WHERE e.user_id = ?");
+            appendFilters(sql, categoryId, startDate, endDate);
+            
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
                 
-            } catch (SQLException ex) {
-                System.out.println("Error with fallback query: " + ex.getMessage());
-                ex.printStackTrace();
+                bindFilters(pstmt, userId, categoryId, startDate, endDate);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getLong(1);
+                    }
+                }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
+            
+            return 0;
+        }
+    }
+    
+    /**
+     * Stream a user's expenses matching the optional category and date filters
+     * to the handler, oldest first. Rows are read from a forward-only cursor
+     * one at a time, so memory use does not grow with the number of rows.
+     *
+     * @param categoryId 0 for all categories
+     * @param startDate  first day included, or null
+     * @param endDate    last day included, or null
+     * @return the number of expenses handled
+     */
+    public long streamExpenses(int userId, int categoryId, Date startDate, Date endDate,
+                               ExpenseStreamHandler handler) throws SQLException, IOException {
+        try (DaoCall call = DaoCall.start("ExpenseDAO.streamExpenses")) {
+            StringBuilder sql = new StringBuilder(
+                "SELECT " + EXPENSE_COLUMNS + " FROM expenses e " +
+                "JOIN categories c ON e.category_id = c.category_id " +
+                "WHERE e.user_id = ?");
+            appendFilters(sql, categoryId, startDate, endDate);
+            sql.append(" ORDER BY e.expense_date ASC, e.expense_id ASC");
+            
+            long count = 0;
+            
+            // The three-argument form is not cached, so the streaming statement
+            // never returns to the shared statement cache
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql.toString(),
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                
+                // Stream rows instead of buffering the result; the value depends on the driver
+                pstmt.setFetchSize(DatabaseUtil.getStorageEngine().getStreamingFetchSize());
+                bindFilters(pstmt, userId, categoryId, startDate, endDate);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        handler.handle(extractExpenseFromResultSet(rs));
+                        count++;
+                    }
+                }
+            }
+            
+            return call.rows(count);
+        }
+    }
+    
+    /**
+     * Append the optional category and date conditions for countExpenses and streamExpenses
+     */
+    private void appendFilters(StringBuilder sql, int categoryId, Date startDate, Date endDate) {
+        if (categoryId > 0) {
+            sql.append(" AND e.category_id = ?");
+        }
+        if (startDate != null) {
+            sql.append(" AND e.expense_date >= ?");
+        }
+        if (endDate != null) {
+            sql.append(" AND e.expense_date <= ?");
+        }
+    }
+    
+    private void bindFilters(PreparedStatement pstmt, int userId, int categoryId,
+                             Date startDate, Date endDate) throws SQLException {
+        int index = 1;
+        pstmt.setInt(index++, userId);
+        if (categoryId > 0) {
+            pstmt.setInt(index++, categoryId);
+        }
+        if (startDate != null) {
+            pstmt.setDate(index++, new java.sql.Date(startDate.getTime()));
+        }
+        if (endDate != null) {
+            pstmt.setDate(index, new java.sql.Date(endDate.getTime()));
         }
-        
-        return expenses;
     }
     
     /**
      * Get expenses for a specific user within a date range
      */
     public List<Expense> getExpensesByUserAndDateRange(int userId, Date startDate, Date endDate) {
-        List<Expense> expenses = new ArrayList<>();
-        String sql = "SELECT e.*, c.name as category_name FROM expenses e " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "WHERE e.user_id = ? AND e.expense_date BETWEEN ? AND ? " +
-                     "ORDER BY e.expense_date DESC";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, userId);
-            pstmt.setDate(2, new java.sql.Date(startDate.getTime()));
-            pstmt.setDate(3, new java.sql.Date(endDate.getTime()));
+        try (DaoCall call = DaoCall.start("ExpenseDAO.getExpensesByUserAndDateRange")) {
+            List<Expense> expenses = new ArrayList<>();
+            String sql = "SELECT " + EXPENSE_COLUMNS + " FROM expenses e " +
+                         "JOIN categories c ON e.category_id = c.category_id " +
+                         "WHERE e.user_id = ? AND e.expense_date BETWEEN ? AND ? " +
+                         "ORDER BY e.expense_date DESC";
             
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    expenses.add(extractExpenseFromResultSet(rs));
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, userId);
+                pstmt.setDate(2, new java.sql.Date(startDate.getTime()));
+                pstmt.setDate(3, new java.sql.Date(endDate.getTime()));
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        expenses.add(extractExpenseFromResultSet(rs));
+                    }
                 }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return call.rows(expenses);
         }
-        
-        return expenses;
     }
     
     /**
      * Get expenses for a specific user by category
      */
     public List<Expense> getExpensesByUserAndCategory(int userId, int categoryId) {
-        List<Expense> expenses = new ArrayList<>();
-        String sql = "SELECT e.*, c.name as category_name FROM expenses e " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "WHERE e.user_id = ? AND e.category_id = ? " +
-                     "ORDER BY e.expense_date DESC";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, categoryId);
+        try (DaoCall call = DaoCall.start("ExpenseDAO.getExpensesByUserAndCategory")) {
+            List<Expense> expenses = new ArrayList<>();
+            String sql = "SELECT " + EXPENSE_COLUMNS + " FROM expenses e " +
+                         "JOIN categories c ON e.category_id = c.category_id " +
+                         "WHERE e.user_id = ? AND e.category_id = ? " +
+                         "ORDER BY e.expense_date DESC";
             
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    expenses.add(extractExpenseFromResultSet(rs));
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, userId);
+                pstmt.setInt(2, categoryId);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        expenses.add(extractExpenseFromResultSet(rs));
+                    }
                 }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return call.rows(expenses);
         }
-        
-        return expenses;
     }
     
     /**
-     * Get expenses summary by category for a specific user within a date range
+     * Get expenses summary by category for a specific user within a date range.
+     * Each row is {category name, total as Money}. Ranges made of whole
+     * months are read from the monthly rollup.
      */
     public List<Object[]> getExpenseSummaryByCategory(int userId, Date startDate, Date endDate) {
-        List<Object[]> summary = new ArrayList<>();
-        String sql = "SELECT c.name, SUM(e.amount) as total_amount " +
-                     "FROM expenses e " +
-                     "JOIN categories c ON e.category_id = c.category_id " +
-                     "WHERE e.user_id = ? AND e.expense_date BETWEEN ? AND ? " +
-                     "GROUP BY c.category_id, c.name " +
-                     "ORDER BY total_amount DESC";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (DaoCall call = DaoCall.start("ExpenseDAO.getExpenseSummaryByCategory")) {
+            List<Object[]> summary = new ArrayList<>();
+            LocalDate start = new java.sql.Date(startDate.getTime()).toLocalDate();
+            LocalDate end = new java.sql.Date(endDate.getTime()).toLocalDate();
+            boolean wholeMonths = start.getDayOfMonth() == 1 && end.getDayOfMonth() == end.lengthOfMonth();
             
-            pstmt.setInt(1, userId);
-            pstmt.setDate(2, new java.sql.Date(startDate.getTime()));
-            pstmt.setDate(3, new java.sql.Date(endDate.getTime()));
+            String sql = wholeMonths
+                ? "SELECT c.name, ROUND(SUM(r.total) * 100) as total_cents " +
+                  "FROM expense_monthly_rollup r " +
+                  "JOIN categories c ON r.category_id = c.category_id " +
+                  "WHERE r.user_id = ? AND (r.year, r.month) >= (?, ?) AND (r.year, r.month) <= (?, ?) " +
+                  "GROUP BY c.category_id, c.name " +
+                  "HAVING SUM(r.expense_count) > 0 " +
+                  "ORDER BY total_cents DESC"
+                : "SELECT c.name, ROUND(SUM(e.amount) * 100) as total_cents " +
+                  "FROM expenses e " +
+                  "JOIN categories c ON e.category_id = c.category_id " +
+                  "WHERE e.user_id = ? AND e.expense_date BETWEEN ? AND ? " +
+                  "GROUP BY c.category_id, c.name " +
+                  "ORDER BY total_cents DESC";
             
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Object[] row = {
-                        rs.getString("name"),
-                        rs.getBigDecimal("total_amount")
-                    };
-                    summary.add(row);
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, userId);
+                if (wholeMonths) {
+                    bindMonthRange(pstmt, 2, start, end);
+                } else {
+                    pstmt.setDate(2, new java.sql.Date(startDate.getTime()));
+                    pstmt.setDate(3, new java.sql.Date(endDate.getTime()));
                 }
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Object[] row = {
+                            rs.getString("name"),
+                            Money.ofCents(rs.getLong("total_cents"))
+                        };
+                        summary.add(row);
+                    }
+                }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return call.rows(summary);
         }
-        
-        return summary;
     }
     
     /**
      * Get monthly expense totals for a specific user
      */
     public List<Object[]> getMonthlyExpenseTotals(int userId, int year) {
-        List<Object[]> summary = new ArrayList<>();
-        String sql = "SELECT MONTH(e.expense_date) as month, SUM(e.amount) as total_amount " +
-                     "FROM expenses e " +
-                     "WHERE e.user_id = ? AND YEAR(e.expense_date) = ? " +
-                     "GROUP BY MONTH(e.expense_date) " +
-                     "ORDER BY month";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (DaoCall call = DaoCall.start("ExpenseDAO.getMonthlyExpenseTotals")) {
+            List<Object[]> summary = new ArrayList<>();
             
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, year);
+            // Query the year as a date range so the expense_date index can be used
+            for (Object[] row : getMonthlyTotalsInRange(userId,
+                    java.sql.Date.valueOf(LocalDate.of(year, 1, 1)),
+                    java.sql.Date.valueOf(LocalDate.of(year + 1, 1, 1)))) {
+                summary.add(new Object[]{row[1], row[2]});
+            }
             
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Object[] row = {
-                        rs.getInt("month"),
-                        rs.getBigDecimal("total_amount")
-                    };
-                    summary.add(row);
+            return call.rows(summary);
+        }
+    }
+    
+    /**
+     * Get expense totals per month for a specific user in one query.
+     * Each row is {year, month, total as Money}, ordered by year and month.
+     * Ranges that start and end on the first of a month are read from the
+     * monthly rollup.
+     *
+     * @param startDate first day included
+     * @param endDate   first day excluded
+     */
+    public List<Object[]> getMonthlyTotalsInRange(int userId, Date startDate, Date endDate) {
+        try (DaoCall call = DaoCall.start("ExpenseDAO.getMonthlyTotalsInRange")) {
+            List<Object[]> summary = new ArrayList<>();
+            LocalDate start = new java.sql.Date(startDate.getTime()).toLocalDate();
+            LocalDate end = new java.sql.Date(endDate.getTime()).toLocalDate();
+            boolean wholeMonths = start.getDayOfMonth() == 1 && end.getDayOfMonth() == 1;
+            
+            // Otherwise compare expense_date directly rather than through
+            // YEAR()/MONTH() so the range is resolved from the index
+            String sql = wholeMonths
+                ? "SELECT r.year, r.month, ROUND(SUM(r.total) * 100) as total_cents " +
+                  "FROM expense_monthly_rollup r " +
+                  "WHERE r.user_id = ? AND (r.year, r.month) >= (?, ?) AND (r.year, r.month) <= (?, ?) " +
+                  "GROUP BY r.year, r.month " +
+                  "HAVING SUM(r.expense_count) > 0 " +
+                  "ORDER BY r.year, r.month"
+                : "SELECT YEAR(e.expense_date) as year, MONTH(e.expense_date) as month, " +
+                  "ROUND(SUM(e.amount) * 100) as total_cents " +
+                  "FROM expenses e " +
+                  "WHERE e.user_id = ? AND e.expense_date >= ? AND e.expense_date < ? " +
+                  "GROUP BY YEAR(e.expense_date), MONTH(e.expense_date) " +
+                  "ORDER BY year, month";
+            
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, userId);
+                if (wholeMonths) {
+                    bindMonthRange(pstmt, 2, start, end.minusDays(1));
+                } else {
+                    pstmt.setDate(2, new java.sql.Date(startDate.getTime()));
+                    pstmt.setDate(3, new java.sql.Date(endDate.getTime()));
                 }
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Object[] row = {
+                            rs.getInt("year"),
+                            rs.getInt("month"),
+                            Money.ofCents(rs.getLong("total_cents"))
+                        };
+                        summary.add(row);
+                    }
+                }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return call.rows(summary);
         }
-        
-        return summary;
     }
     
     /**
-     * Get total expenses for a specific user within a date range
+     * Get a user's expense totals per day and category, for building an
+     * in-memory aggregate. Each row is {date, category ID, total as Money,
+     * number of expenses}. Returns null if the query failed, so callers that
+     * keep the result can tell an error from a user without expenses.
      */
-    public BigDecimal getTotalExpenses(int userId, Date startDate, Date endDate) {
-        String sql = "SELECT SUM(amount) as total FROM expenses " +
-                     "WHERE user_id = ? AND expense_date BETWEEN ? AND ?";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    public List<Object[]> getDailyCategoryTotals(int userId) {
+        try (DaoCall call = DaoCall.start("ExpenseDAO.getDailyCategoryTotals")) {
+            List<Object[]> totals = new ArrayList<>();
+            // Answered from the (user_id, expense_date, expense_id, amount, category_id) index alone
+            String sql = "SELECT expense_date, category_id, ROUND(SUM(amount) * 100) as total_cents, " +
+                         "COUNT(*) as expense_count " +
+                         "FROM expenses WHERE user_id = ? " +
+                         "GROUP BY expense_date, category_id";
             
-            pstmt.setInt(1, userId);
-            pstmt.setDate(2, new java.sql.Date(startDate.getTime()));
-            pstmt.setDate(3, new java.sql.Date(endDate.getTime()));
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, userId);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        totals.add(new Object[]{
+                            rs.getDate("expense_date"),
+                            rs.getInt("category_id"),
+                            Money.ofCents(rs.getLong("total_cents")),
+                            rs.getInt("expense_count")
+                        });
+                    }
+                }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return null;
+            }
             
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    BigDecimal total = rs.getBigDecimal("total");
-                    return total != null ? total : BigDecimal.ZERO;
+            return call.rows(totals);
+        }
+    }
+    
+    /**
+     * Get total expenses for a specific user within a date range. Ranges made
+     * of whole months are read from the monthly rollup.
+     */
+    public Money getTotalExpenses(int userId, Date startDate, Date endDate) {
+        try (DaoCall call = DaoCall.start("ExpenseDAO.getTotalExpensesInRange")) {
+            LocalDate start = new java.sql.Date(startDate.getTime()).toLocalDate();
+            LocalDate end = new java.sql.Date(endDate.getTime()).toLocalDate();
+            boolean wholeMonths = start.getDayOfMonth() == 1 && end.getDayOfMonth() == end.lengthOfMonth();
+            
+            String sql = wholeMonths
+                ? "SELECT ROUND(SUM(total) * 100) as total_cents FROM expense_monthly_rollup " +
+                  "WHERE user_id = ? AND (year, month) >= (?, ?) AND (year, month) <= (?, ?)"
+                : "SELECT ROUND(SUM(amount) * 100) as total_cents FROM expenses " +
+                  "WHERE user_id = ? AND expense_date BETWEEN ? AND ?";
+            
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, userId);
+                if (wholeMonths) {
+                    bindMonthRange(pstmt, 2, start, end);
+                } else {
+                    pstmt.setDate(2, new java.sql.Date(startDate.getTime()));
+                    pstmt.setDate(3, new java.sql.Date(endDate.getTime()));
                 }
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        // SUM is NULL when nothing matches, which getLong reads as 0
+                        return Money.ofCents(rs.getLong("total_cents"));
+                    }
+                }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return Money.ZERO;
         }
-        
-        return BigDecimal.ZERO;
     }
     
     /**
-     * Helper method to extract an Expense object from a ResultSet
+     * Bind the first and last month of a rollup range, both included,
+     * as (year, month) pairs starting at the given parameter index
+     */
+    private void bindMonthRange(PreparedStatement pstmt, int index, LocalDate firstMonth,
+                                LocalDate lastMonth) throws SQLException {
+        pstmt.setInt(index, firstMonth.getYear());
+        pstmt.setInt(index + 1, firstMonth.getMonthValue());
+        pstmt.setInt(index + 2, lastMonth.getYear());
+        pstmt.setInt(index + 3, lastMonth.getMonthValue());
+    }
+    
+    /**
+     * Helper method to extract an Expense object from a ResultSet.
+     * Package-private for the row mapping benchmark.
      */
-    private Expense extractExpenseFromResultSet(ResultSet rs) throws SQLException {
+    Expense extractExpenseFromResultSet(ResultSet rs) throws SQLException {
         Expense expense = new Expense();
         expense.setExpenseId(rs.getInt("expense_id"));
         expense.setUserId(rs.getInt("user_id"));
         expense.setCategoryId(rs.getInt("category_id"));
         expense.setCategoryName(rs.getString("category_name"));
-        expense.setAmount(rs.getBigDecimal("amount"));
+        expense.setMoney(Money.ofCents(rs.getLong("amount_cents")));
         expense.setDescription(rs.getString("description"));
         expense.setExpenseDate(rs.getDate("expense_date"));
         expense.setCreatedAt(rs.getTimestamp("created_at"));
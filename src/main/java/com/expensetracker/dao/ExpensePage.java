@@ -0,0 +1,66 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.model.Expense;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a user's expenses, newest first, with the cursors needed to
+ * fetch the neighbouring pages
+ */
+public class ExpensePage {
+    private final List<Expense> expenses;
+    private final boolean hasNext;
+    private final boolean hasPrevious;
+    
+    public ExpensePage(List<Expense> expenses, boolean hasNext, boolean hasPrevious) {
+        this.expenses = Collections.unmodifiableList(expenses);
+        this.hasNext = hasNext;
+        this.hasPrevious = hasPrevious;
+    }
+    
+    public List<Expense> getExpenses() {
+        return expenses;
+    }
+    
+    public boolean isEmpty() {
+        return expenses.isEmpty();
+    }
+    
+    /**
+     * True if there are older expenses after this page
+     */
+    public boolean hasNext() {
+        return hasNext;
+    }
+    
+    /**
+     * True if there are newer expenses before this page
+     */
+    public boolean hasPrevious() {
+        return hasPrevious;
+    }
+    
+    /**
+     * Cursor for fetching the next (older) page
+     */
+    public ExpenseCursor getNextCursor() {
+        if (expenses.isEmpty()) {
+            return null;
+        }
+        Expense last = expenses.get(expenses.size() - 1);
+        return new ExpenseCursor(last.getExpenseDate(), last.getExpenseId());
+    }
+    
+    /**
+     * Cursor for fetching the previous (newer) page
+     */
+    public ExpenseCursor getPreviousCursor() {
+        if (expenses.isEmpty()) {
+            return null;
+        }
+        Expense first = expenses.get(0);
+        return new ExpenseCursor(first.getExpenseDate(), first.getExpenseId());
+    }
+}
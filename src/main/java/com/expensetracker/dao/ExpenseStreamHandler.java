@@ -0,0 +1,17 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.model.Expense;
+
+import java.io.IOException;
+
+/**
+ * Receives expenses one at a time while a query result is streamed
+ */
+@FunctionalInterface
+public interface ExpenseStreamHandler {
+
+    /**
+     * Handle the next expense. The expense is not kept by the caller.
+     */
+    void handle(Expense expense) throws IOException;
+}
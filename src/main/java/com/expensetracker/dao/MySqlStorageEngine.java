@@ -0,0 +1,82 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.util.ConnectionPool;
+import com.expensetracker.util.SchemaMigrator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Storage on a MySQL server, shared by every instance of the application
+ * that connects to it
+ */
+public class MySqlStorageEngine implements StorageEngine {
+
+    public static final String NAME = "mysql";
+
+    private static final String DB_URL = "jdbc:mysql://localhost:3306/";
+    private static final String DB_NAME = "expense_tracker";
+    private static final String DB_USER = "root";
+    private static final String DB_PASSWORD = "dbms123"; // Change this to your MySQL password
+
+    // Connection string with extra parameters for compatibility
+    private static final String FULL_DB_URL =
+        "jdbc:mysql://localhost:3306/" + DB_NAME +
+        "?useSSL=false&allowPublicKeyRetrieval=true&useUnicode=true&characterEncoding=UTF-8" +
+        "&createDatabaseIfNotExist=true" +
+        // Prepare statements on the server; the pool caches them per connection
+        "&useServerPrepStmts=true" +
+        // Send JDBC batches as multi-row inserts
+        "&rewriteBatchedStatements=true";
+
+    // Connection pool settings
+    private static final int POOL_MAX_SIZE = 10;
+    private static final long POOL_BORROW_TIMEOUT_MILLIS = 30_000;
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = 10 * 60_000;
+    private static final long POOL_MAX_LIFETIME_MILLIS = 30 * 60_000;
+    private static final long POOL_LEAK_THRESHOLD_MILLIS = 60_000;
+    private static final int STATEMENT_CACHE_SIZE = 64;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void createDatabase() throws SQLException {
+        try (Connection tempConnection = DriverManager.getConnection(
+                DB_URL + "?useSSL=false&allowPublicKeyRetrieval=true",
+                DB_USER, DB_PASSWORD);
+             Statement statement = tempConnection.createStatement()) {
+
+            statement.executeUpdate("CREATE DATABASE IF NOT EXISTS " + DB_NAME);
+            System.out.println("Database created or exists: " + DB_NAME);
+        } catch (SQLException e) {
+            System.out.println("Error creating database: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    @Override
+    public void migrate(Connection connection) throws SQLException {
+        // Several instances may share the server, so migrations take a named lock
+        SchemaMigrator.migrate(connection);
+    }
+
+    @Override
+    public ConnectionPool createPool() {
+        // Full URL first, simple URL as fallback
+        return new ConnectionPool(
+            FULL_DB_URL, DB_URL + DB_NAME, DB_USER, DB_PASSWORD,
+            POOL_MAX_SIZE, POOL_BORROW_TIMEOUT_MILLIS, POOL_IDLE_TIMEOUT_MILLIS,
+            POOL_MAX_LIFETIME_MILLIS, POOL_LEAK_THRESHOLD_MILLIS, STATEMENT_CACHE_SIZE);
+    }
+
+    @Override
+    public int getStreamingFetchSize() {
+        // Tells MySQL Connector/J to stream rows instead of buffering the result
+        return Integer.MIN_VALUE;
+    }
+}
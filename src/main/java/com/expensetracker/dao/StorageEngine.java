@@ -0,0 +1,43 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.util.ConnectionPool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * The database behind the DAOs.
+ *
+ * The DAOs borrow connections through DatabaseUtil and only use SQL that
+ * every engine accepts. An engine supplies those connections, creates and
+ * upgrades its own schema, and answers the few questions where the JDBC
+ * drivers behave differently.
+ */
+public interface StorageEngine {
+
+    /**
+     * Name used to select the engine, e.g. "mysql"
+     */
+    String getName();
+
+    /**
+     * Create the database if it does not exist yet
+     */
+    void createDatabase() throws SQLException;
+
+    /**
+     * Bring the schema up to date
+     */
+    void migrate(Connection connection) throws SQLException;
+
+    /**
+     * Create the connection pool the DAOs borrow from
+     */
+    ConnectionPool createPool();
+
+    /**
+     * Fetch size that makes the driver stream a large result one row at a
+     * time instead of reading all of it into memory
+     */
+    int getStreamingFetchSize();
+}
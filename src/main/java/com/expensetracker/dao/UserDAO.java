@@ -16,111 +16,123 @@ public class UserDAO {
      * Add a new user to the database
      */
     public boolean addUser(User user) {
-        String sql = "INSERT INTO users (username, password, email) VALUES (?, ?, ?)";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setString(1, user.getUsername());
-            pstmt.setString(2, user.getPassword());
-            pstmt.setString(3, user.getEmail());
+        try (DaoCall call = DaoCall.start("UserDAO.addUser")) {
+            String sql = "INSERT INTO users (username, password, email) VALUES (?, ?, ?)";
             
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        user.setUserId(rs.getInt(1));
-                        return true;
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                
+                pstmt.setString(1, user.getUsername());
+                pstmt.setString(2, user.getPassword());
+                pstmt.setString(3, user.getEmail());
+                
+                int affectedRows = call.rows(pstmt.executeUpdate());
+                
+                if (affectedRows > 0) {
+                    try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            user.setUserId(rs.getInt(1));
+                            return true;
+                        }
                     }
                 }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return false;
         }
-        
-        return false;
     }
     
     /**
      * Update an existing user in the database
      */
     public boolean updateUser(User user) {
-        String sql = "UPDATE users SET username = ?, password = ?, email = ? WHERE user_id = ?";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (DaoCall call = DaoCall.start("UserDAO.updateUser")) {
+            String sql = "UPDATE users SET username = ?, password = ?, email = ? WHERE user_id = ?";
             
-            pstmt.setString(1, user.getUsername());
-            pstmt.setString(2, user.getPassword());
-            pstmt.setString(3, user.getEmail());
-            pstmt.setInt(4, user.getUserId());
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, user.getUsername());
+                pstmt.setString(2, user.getPassword());
+                pstmt.setString(3, user.getEmail());
+                pstmt.setInt(4, user.getUserId());
+                
+                int affectedRows = call.rows(pstmt.executeUpdate());
+                return affectedRows > 0;
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return false;
         }
-        
-        return false;
     }
     
     /**
      * Delete a user from the database by ID
      */
     public boolean deleteUser(int userId) {
-        Connection conn = null;
-        try {
-            conn = DatabaseUtil.getConnection();
-            // Start a transaction
-            conn.setAutoCommit(false);
-            
-            // First, delete all expenses for this user
-            String deleteExpensesSQL = "DELETE FROM expenses WHERE user_id = ?";
-            try (PreparedStatement expenseStmt = conn.prepareStatement(deleteExpensesSQL)) {
-                expenseStmt.setInt(1, userId);
-                expenseStmt.executeUpdate();
-            }
-            
-            // Then, delete all user categories
-            String deleteCategoriesSQL = "DELETE FROM categories WHERE user_id = ? AND is_default = FALSE";
-            try (PreparedStatement categoryStmt = conn.prepareStatement(deleteCategoriesSQL)) {
-                categoryStmt.setInt(1, userId);
-                categoryStmt.executeUpdate();
-            }
-            
-            // Finally, delete the user
-            String deleteUserSQL = "DELETE FROM users WHERE user_id = ?";
-            try (PreparedStatement userStmt = conn.prepareStatement(deleteUserSQL)) {
-                userStmt.setInt(1, userId);
-                int affectedRows = userStmt.executeUpdate();
-                
-                // Commit the transaction if successful
-                conn.commit();
-                return affectedRows > 0;
-            }
-        } catch (SQLException e) {
-            // Rollback the transaction in case of error
+        try (DaoCall call = DaoCall.start("UserDAO.deleteUser")) {
+            Connection conn = null;
             try {
-                if (conn != null) {
-                    conn.rollback();
+                conn = DatabaseUtil.getConnection();
+                // Start a transaction
+                conn.setAutoCommit(false);
+                
+                // First, delete the user's monthly rollup and all expenses for this user
+                String deleteRollupSQL = "DELETE FROM expense_monthly_rollup WHERE user_id = ?";
+                try (PreparedStatement rollupStmt = conn.prepareStatement(deleteRollupSQL)) {
+                    rollupStmt.setInt(1, userId);
+                    call.rows(rollupStmt.executeUpdate());
                 }
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
-            return false;
-        } finally {
-            // Reset auto-commit to true
-            try {
-                if (conn != null) {
-                    conn.setAutoCommit(true);
-                    conn.close();
+                
+                String deleteExpensesSQL = "DELETE FROM expenses WHERE user_id = ?";
+                try (PreparedStatement expenseStmt = conn.prepareStatement(deleteExpensesSQL)) {
+                    expenseStmt.setInt(1, userId);
+                    call.rows(expenseStmt.executeUpdate());
+                }
+                
+                // Then, delete all user categories
+                String deleteCategoriesSQL = "DELETE FROM categories WHERE user_id = ? AND is_default = FALSE";
+                try (PreparedStatement categoryStmt = conn.prepareStatement(deleteCategoriesSQL)) {
+                    categoryStmt.setInt(1, userId);
+                    call.rows(categoryStmt.executeUpdate());
+                }
+                
+                // Finally, delete the user
+                String deleteUserSQL = "DELETE FROM users WHERE user_id = ?";
+                try (PreparedStatement userStmt = conn.prepareStatement(deleteUserSQL)) {
+                    userStmt.setInt(1, userId);
+                    int affectedRows = call.rows(userStmt.executeUpdate());
+                    
+                    // Commit the transaction if successful
+                    conn.commit();
+                    return affectedRows > 0;
                 }
             } catch (SQLException e) {
+                // Rollback the transaction in case of error
+                try {
+                    if (conn != null) {
+                        conn.rollback();
+                    }
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
                 e.printStackTrace();
+                return false;
+            } finally {
+                // Reset auto-commit to true
+                try {
+                    if (conn != null) {
+                        conn.setAutoCommit(true);
+                        conn.close();
+                    }
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
             }
         }
     }
@@ -129,131 +141,141 @@ public class UserDAO {
      * Get a user by ID
      */
     public User getUserById(int userId) {
-        String sql = "SELECT * FROM users WHERE user_id = ?";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (DaoCall call = DaoCall.start("UserDAO.getUserById")) {
+            String sql = "SELECT * FROM users WHERE user_id = ?";
             
-            pstmt.setInt(1, userId);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return extractUserFromResultSet(rs);
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, userId);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return call.row(extractUserFromResultSet(rs));
+                    }
                 }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return null;
         }
-        
-        return null;
     }
     
     /**
      * Get a user by username
      */
     public User getUserByUsername(String username) {
-        String sql = "SELECT * FROM users WHERE LOWER(username) = LOWER(?)";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (DaoCall call = DaoCall.start("UserDAO.getUserByUsername")) {
+            String sql = "SELECT * FROM users WHERE username_lower = LOWER(?)";
             
-            pstmt.setString(1, username);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return extractUserFromResultSet(rs);
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, username);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return call.row(extractUserFromResultSet(rs));
+                    }
                 }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return null;
         }
-        
-        return null;
     }
     
     /**
      * Get all users
      */
     public List<User> getAllUsers() {
-        List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (DaoCall call = DaoCall.start("UserDAO.getAllUsers")) {
+            List<User> users = new ArrayList<>();
+            String sql = "SELECT * FROM users";
             
-            while (rs.next()) {
-                users.add(extractUserFromResultSet(rs));
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                
+                while (rs.next()) {
+                    users.add(extractUserFromResultSet(rs));
+                }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return call.rows(users);
         }
-        
-        return users;
     }
     
     /**
      * Authenticate a user with username and password
      */
     public User authenticateUser(String username, String password) {
-        String sql = "SELECT * FROM users WHERE LOWER(username) = LOWER(?)";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (DaoCall call = DaoCall.start("UserDAO.authenticateUser")) {
+            String sql = "SELECT * FROM users WHERE username_lower = LOWER(?)";
             
-            pstmt.setString(1, username);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    User user = extractUserFromResultSet(rs);
-                    
-                    // Compare passwords
-                    if (user.getPassword().trim().equals(password.trim())) {
-                        return user;
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, username);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        User user = extractUserFromResultSet(rs);
+                        
+                        // Compare passwords
+                        if (user.getPassword().trim().equals(password.trim())) {
+                            return call.row(user);
+                        }
                     }
                 }
+                
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
             
-        } catch (SQLException e) {
-            e.printStackTrace();
+            return null;
         }
-        
-        return null;
     }
     
     /**
      * Direct authentication using database query
      */
     public User directAuthenticate(String username, String password) {
-        if (username == null || password == null) {
-            return null;
-        }
-        
-        String sql = "SELECT * FROM users WHERE LOWER(username) = LOWER(?)";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (DaoCall call = DaoCall.start("UserDAO.directAuthenticate")) {
+            if (username == null || password == null) {
+                return null;
+            }
             
-            pstmt.setString(1, username);
+            String sql = "SELECT * FROM users WHERE username_lower = LOWER(?)";
             
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    // User found, check password manually
-                    String storedPassword = rs.getString("password");
-                    
-                    if (storedPassword != null && storedPassword.trim().equals(password.trim())) {
-                        return extractUserFromResultSet(rs);
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, username);
+                
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        // User found, check password manually
+                        String storedPassword = rs.getString("password");
+                        
+                        if (storedPassword != null && storedPassword.trim().equals(password.trim())) {
+                            return call.row(extractUserFromResultSet(rs));
+                        }
                     }
                 }
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
+            
+            return null;
         }
-        
-        return null;
     }
     
     /**
@@ -281,21 +303,23 @@ public class UserDAO {
      * Count users in the database
      */
     public int countUsers() {
-        String sql = "SELECT COUNT(*) FROM users";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (DaoCall call = DaoCall.start("UserDAO.countUsers")) {
+            String sql = "SELECT COUNT(*) FROM users";
             
-            if (rs.next()) {
-                return rs.getInt(1);
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+                
+            } catch (SQLException e) {
+                System.out.println("Error counting users: " + e.getMessage());
+                e.printStackTrace();
             }
             
-        } catch (SQLException e) {
-            System.out.println("Error counting users: " + e.getMessage());
-            e.printStackTrace();
+            return 0;
         }
-        
-        return 0;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.expensetracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call of a public DAO method
+ */
+@Name("com.expensetracker.DaoCall")
+@Label("DAO Call")
+@Category({"Expense Tracker", "Database"})
+@Description("A call of a public ExpenseDAO, UserDAO or CategoryDAO method, including connection borrow and row mapping")
+@StackTrace(false)
+public class DaoCallEvent extends Event {
+
+    @Label("Operation")
+    @Description("DAO class and method, e.g. ExpenseDAO.getExpensePage")
+    private String operation;
+
+    @Label("Rows")
+    @Description("Rows returned, or rows changed by updates")
+    private long rows;
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+}
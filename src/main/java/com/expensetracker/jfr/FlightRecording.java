@@ -0,0 +1,90 @@
+package com.expensetracker.jfr;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Starts a flight recording with the application's preset when the
+ * expensetracker.jfr system property is set, so a user can send one .jfr
+ * file showing where the time went:
+ * <pre>
+ * java -Dexpensetracker.jfr -jar expense-tracker.jar
+ * java -Dexpensetracker.jfr=/tmp/slow-dashboard.jfr -jar expense-tracker.jar
+ * </pre>
+ * Without a file name the recording goes to ~/.expensetracker. It is written
+ * when the application exits.
+ */
+public final class FlightRecording {
+
+    /**
+     * System property enabling the recording; its value is the output file, if any
+     */
+    public static final String PROPERTY = "expensetracker.jfr";
+
+    /**
+     * Recording settings on the classpath. Also usable with
+     * -XX:StartFlightRecording:settings=expensetracker.jfc once extracted.
+     */
+    public static final String PRESET = "/expensetracker.jfc";
+
+    // Oldest data is dropped beyond this, so a long session cannot fill the disk
+    private static final long MAX_SIZE_BYTES = 256L * 1024 * 1024;
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Start the recording if the property asks for one. Failures are reported
+     * and otherwise ignored; the application runs the same without it.
+     */
+    public static void startIfRequested() {
+        String value = System.getProperty(PROPERTY);
+        if (value == null || "false".equalsIgnoreCase(value)) {
+            return;
+        }
+
+        try {
+            Path file = value.isEmpty() || "true".equalsIgnoreCase(value) ? getDefaultFile() : Paths.get(value);
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+
+            Recording recording = new Recording(loadPreset());
+            recording.setName("Expense Tracker");
+            recording.setToDisk(true);
+            recording.setMaxSize(MAX_SIZE_BYTES);
+            recording.setDumpOnExit(true);
+            recording.setDestination(file);
+            recording.start();
+            System.out.println("Flight recording started, written to " + file.toAbsolutePath() + " on exit");
+        } catch (IOException | ParseException | RuntimeException e) {
+            System.out.println("Could not start flight recording: " + e.getMessage());
+        }
+    }
+
+    private static Configuration loadPreset() throws IOException, ParseException {
+        InputStream stream = FlightRecording.class.getResourceAsStream(PRESET);
+        if (stream == null) {
+            throw new IOException("Recording preset " + PRESET + " not found");
+        }
+        try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    private static Path getDefaultFile() {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        return Paths.get(System.getProperty("user.home"), ".expensetracker", "expensetracker-" + timestamp + ".jfr");
+    }
+}
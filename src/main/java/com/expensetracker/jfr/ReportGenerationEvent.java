@@ -0,0 +1,52 @@
+package com.expensetracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A report requested on the reports panel, from the click until it is shown
+ */
+@Name("com.expensetracker.ReportGeneration")
+@Label("Report Generation")
+@Category({"Expense Tracker", "User Interface"})
+@Description("A report on the dashboard, from the request until its chart and table are shown")
+@StackTrace(false)
+public class ReportGenerationEvent extends Event {
+
+    @Label("Report Type")
+    private String reportType;
+
+    @Label("Period Start")
+    private String periodStart;
+
+    @Label("Period End")
+    private String periodEnd;
+
+    @Label("Rows")
+    @Description("Rows in the report's summary table")
+    private long rows;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    public void setReportType(String reportType) {
+        this.reportType = reportType;
+    }
+
+    public void setPeriod(String periodStart, String periodEnd) {
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public void setSucceeded(boolean succeeded) {
+        this.succeeded = succeeded;
+    }
+}
@@ -0,0 +1,41 @@
+package com.expensetracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A page of the expenses table loaded and shown
+ */
+@Name("com.expensetracker.TableReload")
+@Label("Table Reload")
+@Category({"Expense Tracker", "User Interface"})
+@Description("A page of the expenses table, from the request until its rows are shown")
+@StackTrace(false)
+public class TableReloadEvent extends Event {
+
+    @Label("Category ID")
+    @Description("Category filter, 0 for all categories")
+    private int categoryId;
+
+    @Label("Page")
+    private int page;
+
+    @Label("Rows")
+    private long rows;
+
+    public void setCategoryId(int categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+}
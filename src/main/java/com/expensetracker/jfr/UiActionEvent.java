@@ -0,0 +1,45 @@
+package com.expensetracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Handling of one event on the Event Dispatch Thread. Only slow ones are
+ * recorded by default, since those are what freeze the window.
+ */
+@Name("com.expensetracker.UiAction")
+@Label("UI Action")
+@Category({"Expense Tracker", "User Interface"})
+@Description("Handling of a button press, menu choice, key or other event on the Event Dispatch Thread")
+@Threshold("20 ms")
+@StackTrace(false)
+public class UiActionEvent extends Event {
+
+    @Label("Event Type")
+    @Description("AWT event class, e.g. ActionEvent or MouseEvent")
+    private String eventType;
+
+    @Label("Source")
+    @Description("Component the event came from, with its text for buttons and menu items")
+    private String source;
+
+    @Label("Action Command")
+    private String actionCommand;
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public void setActionCommand(String actionCommand) {
+        this.actionCommand = actionCommand;
+    }
+}
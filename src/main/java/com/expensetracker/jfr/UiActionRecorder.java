@@ -0,0 +1,57 @@
+package com.expensetracker.jfr;
+
+import java.awt.AWTEvent;
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.InvocationEvent;
+import javax.swing.AbstractButton;
+
+/**
+ * Event queue that times every event the Event Dispatch Thread handles and
+ * emits a {@link UiActionEvent} for the slow ones. While no recording is
+ * running the event is disabled and only a begin and end remain.
+ */
+public class UiActionRecorder extends EventQueue {
+
+    private UiActionRecorder() {
+    }
+
+    /**
+     * Replace the system event queue; call once at startup
+     */
+    public static void install() {
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(new UiActionRecorder());
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        UiActionEvent uiAction = new UiActionEvent();
+        uiAction.begin();
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            uiAction.end();
+            if (uiAction.shouldCommit()) {
+                uiAction.setEventType(event.getClass().getSimpleName());
+                // Tasks posted with invokeLater come from the Toolkit; their runnable says more
+                uiAction.setSource(event instanceof InvocationEvent ? event.paramString() : describe(event.getSource()));
+                if (event instanceof ActionEvent actionEvent) {
+                    uiAction.setActionCommand(actionEvent.getActionCommand());
+                }
+                uiAction.commit();
+            }
+        }
+    }
+
+    private static String describe(Object source) {
+        if (source instanceof AbstractButton button && button.getText() != null && !button.getText().isEmpty()) {
+            return button.getClass().getSimpleName() + " \"" + button.getText() + "\"";
+        }
+        if (source instanceof Component component && component.getName() != null) {
+            return component.getClass().getSimpleName() + " " + component.getName();
+        }
+        return source != null ? source.getClass().getName() : null;
+    }
+}
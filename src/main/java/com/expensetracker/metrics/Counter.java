@@ -0,0 +1,33 @@
+package com.expensetracker.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count of events, e.g. failed logins. Increments are striped across cells,
+ * so busy counters do not contend.
+ */
+public class Counter implements CounterMXBean {
+
+    private final LongAdder count = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public void reset() {
+        count.reset();
+    }
+}
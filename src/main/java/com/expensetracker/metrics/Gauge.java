@@ -0,0 +1,28 @@
+package com.expensetracker.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Current value of something the application already keeps, e.g. the number
+ * of idle connections; read only when the gauge is.
+ */
+public class Gauge implements GaugeMXBean {
+
+    private volatile LongSupplier supplier;
+
+    Gauge(LongSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * Read from a new source, e.g. after the connection pool was replaced
+     */
+    void setSupplier(LongSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public long getValue() {
+        return supplier.getAsLong();
+    }
+}
@@ -0,0 +1,9 @@
+package com.expensetracker.metrics;
+
+/**
+ * JMX view of a {@link Gauge}
+ */
+public interface GaugeMXBean {
+
+    long getValue();
+}
@@ -0,0 +1,142 @@
+package com.expensetracker.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Named counters, gauges and timers of the application, each published as a
+ * JMX MXBean so they can be watched in JConsole or VisualVM.
+ *
+ * Names are dotted, with the first part grouping related metrics, e.g.
+ * "dao.ExpenseDAO.addExpense" shows up under
+ * com.expensetracker:type=Timer,group=dao,name=ExpenseDAO.addExpense.
+ * Asking for a name again returns the same metric, so call sites can look
+ * their metric up on every call instead of keeping it in a field.
+ */
+public final class MetricsRegistry {
+
+    public static final String JMX_DOMAIN = "com.expensetracker";
+
+    private static final Map<String, Object> METRICS = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Get or create the counter with this name
+     */
+    public static Counter counter(String name) {
+        return get(name, Counter.class);
+    }
+
+    /**
+     * Get or create the timer with this name
+     */
+    public static Timer timer(String name) {
+        return get(name, Timer.class);
+    }
+
+    /**
+     * Start timing with the named timer
+     */
+    public static Timer.Context time(String name) {
+        return timer(name).time();
+    }
+
+    /**
+     * Register a gauge reading from supplier. Registering the name again
+     * makes the existing gauge read from the new supplier.
+     */
+    public static Gauge gauge(String name, LongSupplier supplier) {
+        Object metric = METRICS.get(name);
+        if (metric == null) {
+            metric = METRICS.computeIfAbsent(name, key -> register(key, new Gauge(supplier)));
+        }
+        if (!(metric instanceof Gauge gauge)) {
+            throw new IllegalArgumentException(name + " is already registered as a " +
+                                               metric.getClass().getSimpleName());
+        }
+        gauge.setSupplier(supplier);
+        return gauge;
+    }
+
+    /**
+     * All timers by name, e.g. for logging their summaries
+     */
+    public static Map<String, Timer> getTimers() {
+        Map<String, Timer> timers = new TreeMap<>();
+        METRICS.forEach((name, metric) -> {
+            if (metric instanceof Timer timer) {
+                timers.put(name, timer);
+            }
+        });
+        return timers;
+    }
+
+    /**
+     * One line per timer that has recorded something
+     */
+    public static String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        getTimers().forEach((name, timer) -> {
+            if (timer.getCount() > 0) {
+                summary.append(name).append(": ").append(timer.getHistogram().getSummary()).append('\n');
+            }
+        });
+        return summary.toString();
+    }
+
+    private static <T> T get(String name, Class<T> type) {
+        Object metric = METRICS.get(name);
+        if (metric == null) {
+            metric = METRICS.computeIfAbsent(name, key -> register(key, type == Timer.class ? new Timer() : new Counter()));
+        }
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException(name + " is already registered as a " +
+                                               metric.getClass().getSimpleName());
+        }
+        return type.cast(metric);
+    }
+
+    /**
+     * Publish a new metric over JMX. Failing to do so only costs visibility,
+     * so the metric is still returned.
+     */
+    private static Object register(String name, Object metric) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectName(name, metric.getClass().getSimpleName());
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(metric, objectName);
+            }
+        } catch (JMException | RuntimeException e) {
+            System.out.println("Could not publish metric " + name + " over JMX: " + e.getMessage());
+        }
+        return metric;
+    }
+
+    private static ObjectName objectName(String name, String type) throws JMException {
+        int dot = name.indexOf('.');
+        String group = dot > 0 ? ",group=" + value(name.substring(0, dot)) : "";
+        String shortName = dot > 0 ? name.substring(dot + 1) : name;
+        return new ObjectName(JMX_DOMAIN + ":type=" + type + group + ",name=" + value(shortName));
+    }
+
+    /**
+     * Quote a key property value only when it needs it, so plain names read cleanly in JConsole
+     */
+    private static String value(String text) {
+        for (char c : text.toCharArray()) {
+            if (",=:\"*?\n".indexOf(c) >= 0) {
+                return ObjectName.quote(text);
+            }
+        }
+        return text;
+    }
+}
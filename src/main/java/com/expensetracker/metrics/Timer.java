@@ -0,0 +1,109 @@
+package com.expensetracker.metrics;
+
+import com.expensetracker.util.LatencyHistogram;
+
+/**
+ * Latency distribution of an operation, recorded into a lock-free
+ * {@link LatencyHistogram}.
+ *
+ * Code times itself with try-with-resources:
+ * <pre>
+ * try (Timer.Context timing = MetricsRegistry.time("dao.ExpenseDAO.addExpense")) {
+ *     ...
+ * }
+ * </pre>
+ */
+public class Timer implements TimerMXBean {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    Timer() {
+    }
+
+    /**
+     * Start timing; the time is recorded when the context is closed
+     */
+    public Context time() {
+        return new Context(this, System.nanoTime());
+    }
+
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    /**
+     * The recorded latencies, e.g. for printing a summary
+     */
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    @Override
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return histogram.getMean() / 1e6;
+    }
+
+    @Override
+    public double getMinMillis() {
+        return histogram.getMin() / 1e6;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return histogram.getMax() / 1e6;
+    }
+
+    @Override
+    public double get50thPercentileMillis() {
+        return histogram.getValueAtPercentile(50) / 1e6;
+    }
+
+    @Override
+    public double get90thPercentileMillis() {
+        return histogram.getValueAtPercentile(90) / 1e6;
+    }
+
+    @Override
+    public double get99thPercentileMillis() {
+        return histogram.getValueAtPercentile(99) / 1e6;
+    }
+
+    @Override
+    public double get999thPercentileMillis() {
+        return histogram.getValueAtPercentile(99.9) / 1e6;
+    }
+
+    @Override
+    public double getTotalSeconds() {
+        return histogram.getMean() * histogram.getCount() / 1e9;
+    }
+
+    @Override
+    public void reset() {
+        histogram.reset();
+    }
+
+    /**
+     * One timed call
+     */
+    public static final class Context implements AutoCloseable {
+
+        private final Timer timer;
+        private final long start;
+
+        private Context(Timer timer, long start) {
+            this.timer = timer;
+            this.start = start;
+        }
+
+        @Override
+        public void close() {
+            timer.record(System.nanoTime() - start);
+        }
+    }
+}
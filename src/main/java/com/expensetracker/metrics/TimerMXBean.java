@@ -0,0 +1,31 @@
+package com.expensetracker.metrics;
+
+/**
+ * JMX view of a {@link Timer}. Times are in milliseconds, since the timer
+ * was created or last reset.
+ */
+public interface TimerMXBean {
+
+    long getCount();
+
+    double getMeanMillis();
+
+    double getMinMillis();
+
+    double getMaxMillis();
+
+    double get50thPercentileMillis();
+
+    double get90thPercentileMillis();
+
+    double get99thPercentileMillis();
+
+    double get999thPercentileMillis();
+
+    /**
+     * Total time spent, in seconds
+     */
+    double getTotalSeconds();
+
+    void reset();
+}
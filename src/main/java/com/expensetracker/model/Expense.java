@@ -11,7 +11,7 @@ public class Expense {
     private int userId;
     private int categoryId;
     private String categoryName;
-    private BigDecimal amount;
+    private Money amount;
     private String description;
     private Date expenseDate;
     private Date createdAt;
@@ -25,7 +25,7 @@ public class Expense {
         this.expenseId = expenseId;
         this.userId = userId;
         this.categoryId = categoryId;
-        this.amount = amount;
+        setAmount(amount);
         this.description = description;
         this.expenseDate = expenseDate;
         this.createdAt = createdAt;
@@ -64,14 +64,35 @@ public class Expense {
         this.categoryName = categoryName;
     }
     
+    /**
+     * The amount as a BigDecimal, for display and JDBC; creates a new object on each call
+     */
     public BigDecimal getAmount() {
-        return amount;
+        return amount != null ? amount.toBigDecimal() : null;
     }
     
+    /**
+     * Set the amount, rounded half-up to whole cents
+     */
     public void setAmount(BigDecimal amount) {
+        this.amount = amount != null ? Money.of(amount) : null;
+    }
+    
+    public Money getMoney() {
+        return amount;
+    }
+    
+    public void setMoney(Money amount) {
         this.amount = amount;
     }
     
+    /**
+     * The amount in cents, for totals; the amount must be set
+     */
+    public long getAmountCents() {
+        return amount.getCents();
+    }
+    
     public String getDescription() {
         return description;
     }
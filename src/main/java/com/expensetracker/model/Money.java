@@ -0,0 +1,149 @@
+package com.expensetracker.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money stored as a whole number of cents.
+ *
+ * Sums are exact and can be taken on plain longs with {@link #getCents()},
+ * so totals over many expenses do not create an object per row. Rounding to
+ * cents happens once, when an amount enters the application; conversion to
+ * BigDecimal or double is left to the edges, such as JDBC parameters and charts.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * Money from a number of cents
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Money from a decimal amount, rounded half-up to whole cents
+     *
+     * @throws ArithmeticException if the amount does not fit in a long number of cents
+     */
+    public static Money of(BigDecimal amount) {
+        return ofCents(amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Parse a plain decimal such as "-12.345", rounded half-up to whole cents
+     *
+     * @throws NumberFormatException if the text is not a number
+     */
+    public static Money parse(String text) {
+        int length = text.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            index++;
+        }
+
+        long units = 0;
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        try {
+            for (; index < length; index++) {
+                char c = text.charAt(index);
+                if (c == '.' && !seenPoint) {
+                    seenPoint = true;
+                } else if (c >= '0' && c <= '9') {
+                    seenDigit = true;
+                    if (!seenPoint) {
+                        units = Math.addExact(Math.multiplyExact(units, 10), c - '0');
+                    } else if (fractionDigits < 2) {
+                        fraction = fraction * 10 + (c - '0');
+                        fractionDigits++;
+                    } else if (fractionDigits == 2) {
+                        roundUp = c >= '5';
+                        fractionDigits++;
+                    }
+                } else {
+                    // Exponents and other forms are left to BigDecimal
+                    return of(new BigDecimal(text));
+                }
+            }
+            if (!seenDigit) {
+                throw new NumberFormatException("Not a number: \"" + text + "\"");
+            }
+            for (; fractionDigits < 2; fractionDigits++) {
+                fraction *= 10;
+            }
+            long cents = Math.addExact(Math.multiplyExact(units, 100), fraction + (roundUp ? 1 : 0));
+            return ofCents(negative ? -cents : cents);
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: \"" + text + "\"");
+        }
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Approximate value for charts and percentages
+     */
+    public double toDouble() {
+        return cents / 100.0;
+    }
+
+    /**
+     * The amount with two decimals and no grouping, e.g. "-1234.50"
+     */
+    public String toPlainString() {
+        long absolute = Math.abs(cents);
+        long fraction = absolute % 100;
+        return (cents < 0 ? "-" : "") + absolute / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money && ((Money) o).cents == cents);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toPlainString();
+    }
+}
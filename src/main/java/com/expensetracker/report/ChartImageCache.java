@@ -0,0 +1,122 @@
+package com.expensetracker.report;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Least-recently-used cache of rendered chart images, bounded by their total
+ * size in bytes. Images are keyed on the report and the user's data version,
+ * so a change to the data makes the old images unreachable; they are dropped
+ * when a newer version of the same report is stored.
+ */
+public class ChartImageCache {
+
+    /**
+     * Identifies one rendered chart
+     */
+    public record Key(int userId, ReportType type, LocalDate startDate, LocalDate endDate,
+                      long dataVersion, int width, int height) {
+
+        boolean isOlderVersionOf(Key other) {
+            return userId == other.userId && type == other.type && startDate.equals(other.startDate)
+                && endDate.equals(other.endDate) && width == other.width && height == other.height
+                && dataVersion < other.dataVersion;
+        }
+    }
+
+    /**
+     * A chart encoded as JPEG
+     */
+    public record ChartImage(byte[] jpeg, int width, int height) {
+    }
+
+    private final long maxBytes;
+    private final Map<Key, ChartImage> images = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes = 0;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxBytes total size of the cached images
+     */
+    public ChartImageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Return the cached image for the key, rendering and caching it if needed.
+     * Rendering happens outside the cache lock.
+     */
+    public ChartImage get(Key key, Supplier<ChartImage> renderer) {
+        synchronized (images) {
+            ChartImage cached = images.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+
+        ChartImage image = renderer.get();
+        synchronized (images) {
+            // Older versions of this chart can never be requested again
+            Iterator<Map.Entry<Key, ChartImage>> iterator = images.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Key, ChartImage> entry = iterator.next();
+                if (entry.getKey().isOlderVersionOf(key)) {
+                    currentBytes -= entry.getValue().jpeg().length;
+                    iterator.remove();
+                }
+            }
+
+            ChartImage previous = images.put(key, image);
+            if (previous != null) {
+                currentBytes -= previous.jpeg().length;
+            }
+            currentBytes += image.jpeg().length;
+
+            // Evict least recently used images
+            iterator = images.entrySet().iterator();
+            while (currentBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<Key, ChartImage> eldest = iterator.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                currentBytes -= eldest.getValue().jpeg().length;
+                iterator.remove();
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Remove all cached images
+     */
+    public void clear() {
+        synchronized (images) {
+            images.clear();
+            currentBytes = 0;
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Total size of the cached images in bytes
+     */
+    public long getSizeInBytes() {
+        synchronized (images) {
+            return currentBytes;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.expensetracker.report;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One user's expenses aggregated in memory by day and category, with the
+ * total in cents and the number of expenses for each cell.
+ *
+ * Each category keeps a dense daily series, so a slice over any date range
+ * and set of categories is a loop over arrays; coarser levels such as months
+ * and years are summed from the days when they are asked for. The cube is
+ * updated one expense at a time as expenses change.
+ *
+ * All methods are synchronized; updates arrive on the thread that changed
+ * the data while reports read on background threads.
+ */
+public class ExpenseCube {
+
+    // Days allocated beyond the range in use, so most new expenses fit without copying
+    private static final int GROWTH_DAYS = 62;
+
+    /**
+     * Daily totals of one category from firstDay onwards
+     */
+    private static final class Series {
+        int firstDay;
+        long[] cents;
+        int[] counts;
+
+        Series(int day) {
+            firstDay = day - GROWTH_DAYS;
+            cents = new long[2 * GROWTH_DAYS + 1];
+            counts = new int[cents.length];
+        }
+
+        void add(int day, long amountCents, int count) {
+            ensureDay(day);
+            int index = day - firstDay;
+            cents[index] = Math.addExact(cents[index], amountCents);
+            counts[index] += count;
+        }
+
+        private void ensureDay(int day) {
+            int lastDay = firstDay + cents.length - 1;
+            if (day >= firstDay && day <= lastDay) {
+                return;
+            }
+            // Grow by half the current length or more, so loading a long history stays linear
+            int margin = Math.max(GROWTH_DAYS, cents.length / 2);
+            int newFirst = Math.min(firstDay, day - margin);
+            int newLast = Math.max(lastDay, day + margin);
+            long[] newCents = new long[newLast - newFirst + 1];
+            int[] newCounts = new int[newCents.length];
+            System.arraycopy(cents, 0, newCents, firstDay - newFirst, cents.length);
+            System.arraycopy(counts, 0, newCounts, firstDay - newFirst, counts.length);
+            firstDay = newFirst;
+            cents = newCents;
+            counts = newCounts;
+        }
+
+        /**
+         * Add the days from fromDay to toDay inclusive to total[0] (cents) and total[1] (count)
+         */
+        void sum(int fromDay, int toDay, long[] total) {
+            int from = Math.max(fromDay, firstDay) - firstDay;
+            int to = Math.min(toDay, firstDay + cents.length - 1) - firstDay;
+            for (int i = from; i <= to; i++) {
+                total[0] += cents[i];
+                total[1] += counts[i];
+            }
+        }
+    }
+
+    private final Map<Integer, Series> seriesByCategory = new HashMap<>();
+
+    /**
+     * Add an amount to one day and category; a negative count and amount remove an expense
+     */
+    public synchronized void add(LocalDate date, int categoryId, long amountCents, int count) {
+        int day = (int) date.toEpochDay();
+        Series series = seriesByCategory.get(categoryId);
+        if (series == null) {
+            series = new Series(day);
+            seriesByCategory.put(categoryId, series);
+        }
+        series.add(day, amountCents, count);
+    }
+
+    /**
+     * Total in cents and number of expenses between two dates, both included
+     *
+     * @param categoryId one category, or 0 for all categories
+     * @return {cents, count}
+     */
+    public synchronized long[] getTotal(LocalDate startDate, LocalDate endDate, int categoryId) {
+        long[] total = new long[2];
+        int fromDay = (int) startDate.toEpochDay();
+        int toDay = (int) endDate.toEpochDay();
+        if (categoryId > 0) {
+            Series series = seriesByCategory.get(categoryId);
+            if (series != null) {
+                series.sum(fromDay, toDay, total);
+            }
+        } else {
+            for (Series series : seriesByCategory.values()) {
+                series.sum(fromDay, toDay, total);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Totals per category between two dates, both included, for categories
+     * with at least one expense in the period. Each row is {category ID, cents},
+     * largest total first.
+     */
+    public synchronized List<long[]> getCategoryTotals(LocalDate startDate, LocalDate endDate) {
+        int fromDay = (int) startDate.toEpochDay();
+        int toDay = (int) endDate.toEpochDay();
+        List<long[]> rows = new ArrayList<>();
+        long[] total = new long[2];
+        for (Map.Entry<Integer, Series> entry : seriesByCategory.entrySet()) {
+            total[0] = 0;
+            total[1] = 0;
+            entry.getValue().sum(fromDay, toDay, total);
+            if (total[1] > 0) {
+                rows.add(new long[]{entry.getKey(), total[0]});
+            }
+        }
+        rows.sort((a, b) -> Long.compare(b[1], a[1]));
+        return rows;
+    }
+
+    /**
+     * Totals per calendar month from startDate (included) to endDate
+     * (excluded), for months with at least one expense. Each row is
+     * {year, month, cents}, oldest first.
+     *
+     * @param categoryId one category, or 0 for all categories
+     */
+    public synchronized List<long[]> getMonthlyTotals(LocalDate startDate, LocalDate endDate, int categoryId) {
+        List<long[]> rows = new ArrayList<>();
+        LocalDate month = startDate.withDayOfMonth(1);
+        while (month.isBefore(endDate)) {
+            LocalDate nextMonth = month.plusMonths(1);
+            LocalDate from = month.isBefore(startDate) ? startDate : month;
+            LocalDate to = (nextMonth.isAfter(endDate) ? endDate : nextMonth).minusDays(1);
+
+            long[] total = getTotal(from, to, categoryId);
+            if (total[1] > 0) {
+                rows.add(new long[]{month.getYear(), month.getMonthValue(), total[0]});
+            }
+            month = nextMonth;
+        }
+        return rows;
+    }
+
+    /**
+     * Number of categories with data, for diagnostics
+     */
+    public synchronized int getCategoryCount() {
+        return seriesByCategory.size();
+    }
+}
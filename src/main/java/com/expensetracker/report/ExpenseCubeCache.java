@@ -0,0 +1,148 @@
+package com.expensetracker.report;
+
+import com.expensetracker.controller.ExpenseChangeEvent;
+import com.expensetracker.controller.ExpenseChangeListener;
+import com.expensetracker.controller.ExpenseController;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.Money;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps an {@link ExpenseCube} for each recently used user. A cube is loaded
+ * with one grouped query the first time a report needs it and is then kept
+ * up to date from expense change events, so later reports do not query the
+ * database. Bulk changes drop the cube and it is loaded again when needed.
+ */
+public class ExpenseCubeCache implements ExpenseChangeListener {
+
+    // Attempts to load a cube while the user's data keeps changing
+    private static final int LOAD_ATTEMPTS = 3;
+
+    private final ExpenseController expenseController;
+    private final int maxUsers;
+    private final Map<Integer, ExpenseCube> cubes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+
+    /**
+     * @param maxUsers number of users whose cubes are kept
+     */
+    public ExpenseCubeCache(ExpenseController expenseController, int maxUsers) {
+        this.expenseController = expenseController;
+        this.maxUsers = maxUsers;
+        this.cubes = new LinkedHashMap<Integer, ExpenseCube>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ExpenseCube> eldest) {
+                return size() > ExpenseCubeCache.this.maxUsers;
+            }
+        };
+    }
+
+    /**
+     * Get the user's cube, loading it if needed. Runs a query on a miss, so
+     * call it off the EDT. Returns null if the data could not be loaded.
+     */
+    public ExpenseCube get(int userId) {
+        synchronized (cubes) {
+            ExpenseCube cube = cubes.get(userId);
+            if (cube != null) {
+                hits.incrementAndGet();
+                return cube;
+            }
+        }
+
+        ExpenseCube cube = null;
+        for (int attempt = 0; attempt < LOAD_ATTEMPTS; attempt++) {
+            long version = ExpenseController.getDataVersion(userId);
+            boolean pendingBefore = ExpenseController.hasPendingWrites(userId);
+            cube = load(userId);
+            if (cube == null) {
+                return null;
+            }
+
+            // A write that overlapped the query may or may not be in the
+            // result, and its event may still arrive; only keep a cube that
+            // no write overlapped. Checked under the lock that events are
+            // applied under, so no event falls between the check and the put.
+            synchronized (cubes) {
+                if (!pendingBefore && !ExpenseController.hasPendingWrites(userId)
+                    && version == ExpenseController.getDataVersion(userId)) {
+                    cubes.put(userId, cube);
+                    return cube;
+                }
+            }
+        }
+
+        // Correct as of its query, but not kept since changes kept arriving
+        return cube;
+    }
+
+    /**
+     * Drop a user's cube
+     */
+    public void invalidate(int userId) {
+        synchronized (cubes) {
+            cubes.remove(userId);
+        }
+    }
+
+    /**
+     * Apply a stored change to the user's cube, if one is loaded
+     */
+    @Override
+    public void expenseChanged(ExpenseChangeEvent event) {
+        synchronized (cubes) {
+            ExpenseCube cube = cubes.get(event.getUserId());
+            if (cube == null) {
+                return;
+            }
+            switch (event.getType()) {
+                case ADDED -> apply(cube, event.getExpense(), 1);
+                case DELETED -> apply(cube, event.getExpense(), -1);
+                case UPDATED -> {
+                    if (event.getPrevious() == null) {
+                        cubes.remove(event.getUserId());
+                    } else {
+                        apply(cube, event.getPrevious(), -1);
+                        apply(cube, event.getExpense(), 1);
+                    }
+                }
+                default -> cubes.remove(event.getUserId());
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getLoadCount() {
+        return loads.get();
+    }
+
+    private ExpenseCube load(int userId) {
+        List<Object[]> rows = expenseController.getDailyCategoryTotals(userId);
+        if (rows == null) {
+            return null;
+        }
+        loads.incrementAndGet();
+
+        ExpenseCube cube = new ExpenseCube();
+        for (Object[] row : rows) {
+            cube.add(((java.sql.Date) row[0]).toLocalDate(), (Integer) row[1],
+                ((Money) row[2]).getCents(), (Integer) row[3]);
+        }
+        return cube;
+    }
+
+    private static void apply(ExpenseCube cube, Expense expense, int count) {
+        // Calendar day only; the database stores dates without a time
+        LocalDate date = new java.sql.Date(expense.getExpenseDate().getTime()).toLocalDate();
+        cube.add(date, expense.getCategoryId(), count * expense.getAmountCents(), count);
+    }
+}
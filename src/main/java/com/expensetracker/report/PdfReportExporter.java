@@ -0,0 +1,282 @@
+package com.expensetracker.report;
+
+import com.expensetracker.controller.ExpenseController;
+import com.expensetracker.metrics.MetricsRegistry;
+import com.expensetracker.metrics.Timer;
+import com.expensetracker.util.BackgroundTaskRunner;
+import com.expensetracker.util.SwingUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Writes a report to a PDF file: the chart and summary table shown on the
+ * reports panel, followed by every expense in the report period.
+ *
+ * Charts are rendered off-screen and cached by {@link ChartImageCache}, so
+ * exporting the same report again without data changes skips rendering.
+ * The expense listing is streamed from the database and written page by
+ * page, so long periods do not need more memory than short ones.
+ */
+public class PdfReportExporter {
+
+    // Rendered at twice the size drawn on the page for sharper output
+    private static final int CHART_WIDTH_PX = 1000;
+    private static final int CHART_HEIGHT_PX = 600;
+    private static final float JPEG_QUALITY = 0.9f;
+    private static final long CHART_CACHE_BYTES = 32L * 1024 * 1024;
+
+    private static final ChartImageCache CHART_IMAGES = new ChartImageCache(CHART_CACHE_BYTES);
+
+    private static final float MARGIN = 50f;
+    private static final float CONTENT_WIDTH = PdfWriter.PAGE_WIDTH - 2 * MARGIN;
+    private static final float ROW_HEIGHT = 16f;
+    private static final float FONT_SIZE = 9f;
+    private static final Color HEADER_COLOR = new Color(236, 240, 241);
+    private static final Color RULE_COLOR = new Color(189, 195, 199);
+
+    // Column positions of the expense listing, relative to the left margin
+    private static final float[] DETAIL_COLUMNS = {0f, 70f, 170f, 250f};
+    private static final int DESCRIPTION_MAX_CHARS = 52;
+
+    private final ExpenseController expenseController;
+    private final ReportBuilder reportBuilder;
+
+    /**
+     * Constructor
+     */
+    public PdfReportExporter(ExpenseController expenseController) {
+        this.expenseController = expenseController;
+        this.reportBuilder = new ReportBuilder(expenseController);
+    }
+
+    /**
+     * Shared cache of rendered chart images
+     */
+    public static ChartImageCache getChartImageCache() {
+        return CHART_IMAGES;
+    }
+
+    /**
+     * Write the report for the given period to a PDF file. Runs database
+     * queries and rendering, so call it off the EDT.
+     *
+     * @return the number of pages written
+     */
+    public int export(ReportType type, int userId, Date startDate, Date endDate, Path file,
+                      BackgroundTaskRunner.Progress progress) throws IOException, SQLException {
+        try (Timer.Context timing = MetricsRegistry.time("report.PdfReportExporter.export")) {
+            // Validate input
+            if (type == null || userId <= 0 || startDate == null || endDate == null || file == null) {
+                throw new IllegalArgumentException("A report, user, period and output file are required");
+            }
+
+            progress.update(-1, "Loading report data...");
+            ReportContent content = reportBuilder.build(type, userId, startDate, endDate);
+
+            ChartImageCache.ChartImage chart = null;
+            if (!content.isEmpty()) {
+                progress.update(-1, "Rendering chart...");
+                ChartImageCache.Key key = new ChartImageCache.Key(userId, type,
+                    new java.sql.Date(startDate.getTime()).toLocalDate(),
+                    new java.sql.Date(endDate.getTime()).toLocalDate(),
+                    ExpenseController.getDataVersion(userId), CHART_WIDTH_PX, CHART_HEIGHT_PX);
+                chart = CHART_IMAGES.get(key, () -> renderChart(content.createChart()));
+            }
+
+            long total = expenseController.countExpenses(userId, 0, startDate, endDate);
+            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+
+            Path tempFile = file.resolveSibling(file.getFileName() + ".part");
+            int pages;
+            try (OutputStream stream = Files.newOutputStream(tempFile);
+                 PdfWriter writer = new PdfWriter(stream)) {
+                PageLayout layout = new PageLayout(writer);
+
+                // Title and period
+                layout.text(PdfWriter.Font.BOLD, 18f, 0f, type.getLabel() + " Report", 30f);
+                layout.text(PdfWriter.Font.REGULAR, 10f, 0f,
+                    "Period: " + dateFormat.format(startDate) + " to " + dateFormat.format(endDate), 24f);
+
+                // Chart
+                if (chart != null) {
+                    float height = CONTENT_WIDTH * CHART_HEIGHT_PX / CHART_WIDTH_PX;
+                    layout.ensureSpace(height);
+                    layout.page.image(chart, MARGIN, layout.y - height, CONTENT_WIDTH, height);
+                    layout.y -= height + 20f;
+                } else {
+                    layout.text(PdfWriter.Font.REGULAR, 10f, 0f, content.getEmptyMessage(), 24f);
+                }
+
+                // Summary table
+                if (!content.isEmpty()) {
+                    layout.tableHeader(new float[]{0f, 250f, 400f}, "Item", "Amount", "Percentage");
+                    for (String[] row : content.getRows()) {
+                        layout.tableRow(new float[]{0f, 250f, 400f}, row);
+                    }
+                    layout.y -= 20f;
+                }
+
+                // Expense listing, streamed one row at a time
+                layout.text(PdfWriter.Font.BOLD, 12f, 0f, "Expenses (" + total + ")", 22f);
+                layout.tableHeader(DETAIL_COLUMNS, "Date", "Category", "Amount", "Description");
+                long[] written = {0};
+                int[] lastPercent = {-1};
+                expenseController.streamExpenses(userId, 0, startDate, endDate, expense -> {
+                    if (layout.needsNewPage(ROW_HEIGHT)) {
+                        layout.newPage();
+                        layout.tableHeader(DETAIL_COLUMNS, "Date", "Category", "Amount", "Description");
+                    }
+                    layout.tableRow(DETAIL_COLUMNS, new String[]{
+                        dateFormat.format(expense.getExpenseDate()),
+                        expense.getCategoryName(),
+                        SwingUtils.formatCurrency(expense.getMoney().toDouble()),
+                        truncate(expense.getDescription(), DESCRIPTION_MAX_CHARS)
+                    });
+
+                    // Report only when the percentage changes
+                    written[0]++;
+                    int percent = total > 0 ? (int) Math.min(100, written[0] * 100 / total) : 100;
+                    if (percent != lastPercent[0]) {
+                        lastPercent[0] = percent;
+                        progress.update(percent, "Writing PDF: " + written[0] + " of " + total + " expenses");
+                    }
+                });
+
+                layout.finishPage();
+                pages = writer.getPageCount();
+            } catch (IOException | SQLException | RuntimeException e) {
+                Files.deleteIfExists(tempFile);
+                throw e;
+            }
+
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return pages;
+        }
+    }
+
+    /**
+     * Draw a chart off-screen and encode it as JPEG
+     */
+    private static ChartImageCache.ChartImage renderChart(org.jfree.chart.JFreeChart chart) {
+        // JPEG has no alpha channel, so draw onto an opaque white image
+        BufferedImage image = new BufferedImage(CHART_WIDTH_PX, CHART_HEIGHT_PX, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setColor(Color.WHITE);
+            g2.fillRect(0, 0, CHART_WIDTH_PX, CHART_HEIGHT_PX);
+            chart.draw(g2, new Rectangle2D.Double(0, 0, CHART_WIDTH_PX, CHART_HEIGHT_PX));
+        } finally {
+            g2.dispose();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 * 1024);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writer.dispose();
+        }
+        return new ChartImageCache.ChartImage(bytes.toByteArray(), CHART_WIDTH_PX, CHART_HEIGHT_PX);
+    }
+
+    private static String truncate(String text, int maxChars) {
+        if (text == null) {
+            return "";
+        }
+        return text.length() <= maxChars ? text : text.substring(0, maxChars - 3) + "...";
+    }
+
+    /**
+     * Tracks the current page and vertical position, starting a new page when
+     * the current one is full. Finished pages are written out immediately.
+     */
+    private static final class PageLayout {
+        private final PdfWriter writer;
+        private PdfWriter.Page page;
+        private float y;
+
+        PageLayout(PdfWriter writer) {
+            this.writer = writer;
+            startPage();
+        }
+
+        boolean needsNewPage(float height) {
+            return y - height < MARGIN + ROW_HEIGHT;
+        }
+
+        void ensureSpace(float height) throws IOException {
+            if (needsNewPage(height)) {
+                newPage();
+            }
+        }
+
+        void newPage() throws IOException {
+            finishPage();
+            startPage();
+        }
+
+        void text(PdfWriter.Font font, float size, float x, String text, float lineHeight) throws IOException {
+            ensureSpace(lineHeight);
+            page.text(font, size, MARGIN + x, y - size, text);
+            y -= lineHeight;
+        }
+
+        void tableHeader(float[] columns, String... labels) throws IOException {
+            ensureSpace(ROW_HEIGHT * 2);
+            page.fillRect(MARGIN, y - ROW_HEIGHT, CONTENT_WIDTH, ROW_HEIGHT, HEADER_COLOR);
+            for (int i = 0; i < labels.length; i++) {
+                page.text(PdfWriter.Font.BOLD, FONT_SIZE, MARGIN + columns[i] + 4f, y - ROW_HEIGHT + 5f, labels[i]);
+            }
+            y -= ROW_HEIGHT;
+        }
+
+        void tableRow(float[] columns, String[] values) throws IOException {
+            ensureSpace(ROW_HEIGHT);
+            for (int i = 0; i < values.length; i++) {
+                page.text(PdfWriter.Font.REGULAR, FONT_SIZE, MARGIN + columns[i] + 4f, y - ROW_HEIGHT + 5f,
+                    values[i] != null ? values[i] : "");
+            }
+            page.line(MARGIN, y - ROW_HEIGHT, MARGIN + CONTENT_WIDTH, y - ROW_HEIGHT, RULE_COLOR, 0.5f);
+            y -= ROW_HEIGHT;
+        }
+
+        void finishPage() throws IOException {
+            page.text(PdfWriter.Font.REGULAR, 8f, MARGIN, MARGIN / 2,
+                "Expense Tracker - page " + (writer.getPageCount() + 1));
+            writer.writePage(page);
+        }
+
+        private void startPage() {
+            page = writer.newPage();
+            y = PdfWriter.PAGE_HEIGHT - MARGIN;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.expensetracker.report;
+
+import java.awt.Color;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Minimal PDF 1.4 writer for reports: text in the standard Helvetica fonts,
+ * lines, filled rectangles and JPEG images.
+ *
+ * Each page is written to the stream as soon as it is finished, so memory
+ * use depends on the size of one page, not on the number of pages. Only the
+ * byte offset of each object is kept until the cross-reference table is
+ * written on close.
+ *
+ * Coordinates are in points with the origin at the bottom-left of the page.
+ */
+public class PdfWriter implements Closeable {
+
+    // A4 in points
+    public static final float PAGE_WIDTH = 595f;
+    public static final float PAGE_HEIGHT = 842f;
+
+    /**
+     * Standard fonts available on every page
+     */
+    public enum Font {
+        REGULAR("F1", "Helvetica"),
+        BOLD("F2", "Helvetica-Bold");
+
+        private final String resourceName;
+        private final String baseFont;
+
+        Font(String resourceName, String baseFont) {
+            this.resourceName = resourceName;
+            this.baseFont = baseFont;
+        }
+    }
+
+    /**
+     * Drawing operations for one page
+     */
+    public static class Page {
+        private final StringBuilder content = new StringBuilder(4096);
+        private final List<ChartImageCache.ChartImage> images = new ArrayList<>();
+
+        /**
+         * Draw a line of text with its baseline at y
+         */
+        public void text(Font font, float size, float x, float y, String text) {
+            content.append("BT /").append(font.resourceName).append(' ').append(number(size)).append(" Tf ")
+                   .append(number(x)).append(' ').append(number(y)).append(" Td (");
+            appendEscaped(text);
+            content.append(") Tj ET\n");
+        }
+
+        public void line(float x1, float y1, float x2, float y2, Color color, float width) {
+            content.append(rgb(color)).append(" RG ").append(number(width)).append(" w ")
+                   .append(number(x1)).append(' ').append(number(y1)).append(" m ")
+                   .append(number(x2)).append(' ').append(number(y2)).append(" l S\n");
+        }
+
+        public void fillRect(float x, float y, float width, float height, Color color) {
+            content.append(rgb(color)).append(" rg ")
+                   .append(number(x)).append(' ').append(number(y)).append(' ')
+                   .append(number(width)).append(' ').append(number(height)).append(" re f 0 g\n");
+        }
+
+        /**
+         * Draw a JPEG image scaled into the given box, (x, y) being its bottom-left corner
+         */
+        public void image(ChartImageCache.ChartImage image, float x, float y, float width, float height) {
+            String name = "Im" + images.size();
+            images.add(image);
+            content.append("q ").append(number(width)).append(" 0 0 ").append(number(height)).append(' ')
+                   .append(number(x)).append(' ').append(number(y)).append(" cm /").append(name).append(" Do Q\n");
+        }
+
+        /**
+         * Write a string as PDF literal text in WinAnsiEncoding
+         */
+        private void appendEscaped(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '(' || c == ')' || c == '\\') {
+                    content.append('\\').append(c);
+                } else if (c == '€') {
+                    content.append((char) 0x80); // Euro sign
+                } else if (c < 0x20) {
+                    content.append(' ');
+                } else if (c > 0xFF) {
+                    content.append('?');
+                } else {
+                    content.append(c);
+                }
+            }
+        }
+
+        private static String rgb(Color color) {
+            return number(color.getRed() / 255f) + " " + number(color.getGreen() / 255f) + " "
+                + number(color.getBlue() / 255f);
+        }
+
+        private static String number(float value) {
+            return String.format(Locale.ROOT, "%.2f", value);
+        }
+    }
+
+    private final CountingOutputStream out;
+    private final List<Long> offsets = new ArrayList<>();
+    private final List<Integer> pageIds = new ArrayList<>();
+    private final int pagesId;
+    private final int regularFontId;
+    private final int boldFontId;
+    private boolean closed = false;
+
+    public PdfWriter(OutputStream stream) throws IOException {
+        out = new CountingOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+        write("%PDF-1.4\n");
+        // Binary comment so tools treat the file as binary
+        out.write(new byte[]{'%', (byte) 0xE2, (byte) 0xE3, (byte) 0xCF, (byte) 0xD3, '\n'});
+
+        // Pages refer to their parent, which is written last
+        pagesId = reserveObject();
+        regularFontId = writeFont(Font.REGULAR);
+        boldFontId = writeFont(Font.BOLD);
+    }
+
+    /**
+     * Start a new, empty page
+     */
+    public Page newPage() {
+        return new Page();
+    }
+
+    /**
+     * Write a finished page to the output. The page must not be used afterwards.
+     */
+    public void writePage(Page page) throws IOException {
+        StringBuilder xObjects = new StringBuilder();
+        for (int i = 0; i < page.images.size(); i++) {
+            ChartImageCache.ChartImage image = page.images.get(i);
+            int imageId = beginObject();
+            write("<< /Type /XObject /Subtype /Image /Width " + image.width() + " /Height " + image.height() +
+                  " /ColorSpace /DeviceRGB /BitsPerComponent 8 /Filter /DCTDecode /Length " +
+                  image.jpeg().length + " >>\nstream\n");
+            out.write(image.jpeg());
+            write("\nendstream");
+            endObject();
+            xObjects.append(" /Im").append(i).append(' ').append(imageId).append(" 0 R");
+        }
+
+        byte[] content = page.content.toString().getBytes(StandardCharsets.ISO_8859_1);
+        int contentId = beginObject();
+        write("<< /Length " + content.length + " >>\nstream\n");
+        out.write(content);
+        write("\nendstream");
+        endObject();
+
+        int pageId = beginObject();
+        write("<< /Type /Page /Parent " + pagesId + " 0 R /MediaBox [0 0 " + (int) PAGE_WIDTH + " " +
+              (int) PAGE_HEIGHT + "] /Resources << /Font << /F1 " + regularFontId + " 0 R /F2 " +
+              boldFontId + " 0 R >>" + (xObjects.length() > 0 ? " /XObject <<" + xObjects + " >>" : "") +
+              " >> /Contents " + contentId + " 0 R >>");
+        endObject();
+        pageIds.add(pageId);
+    }
+
+    /**
+     * Number of pages written so far
+     */
+    public int getPageCount() {
+        return pageIds.size();
+    }
+
+    /**
+     * Write the page tree, catalog and cross-reference table and close the stream
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            StringBuilder kids = new StringBuilder();
+            for (int pageId : pageIds) {
+                kids.append(pageId).append(" 0 R ");
+            }
+            beginObject(pagesId);
+            write("<< /Type /Pages /Kids [" + kids + "] /Count " + pageIds.size() + " >>");
+            endObject();
+
+            int catalogId = beginObject();
+            write("<< /Type /Catalog /Pages " + pagesId + " 0 R >>");
+            endObject();
+
+            long xrefOffset = out.count;
+            StringBuilder xref = new StringBuilder();
+            xref.append("xref\n0 ").append(offsets.size() + 1).append("\n0000000000 65535 f \n");
+            for (long offset : offsets) {
+                xref.append(String.format(Locale.ROOT, "%010d 00000 n \n", offset));
+            }
+            xref.append("trailer\n<< /Size ").append(offsets.size() + 1)
+                .append(" /Root ").append(catalogId).append(" 0 R >>\nstartxref\n")
+                .append(xrefOffset).append("\n%%EOF\n");
+            write(xref.toString());
+        } finally {
+            out.close();
+        }
+    }
+
+    private int writeFont(Font font) throws IOException {
+        int id = beginObject();
+        write("<< /Type /Font /Subtype /Type1 /BaseFont /" + font.baseFont + " /Encoding /WinAnsiEncoding >>");
+        endObject();
+        return id;
+    }
+
+    private int reserveObject() {
+        offsets.add(-1L);
+        return offsets.size();
+    }
+
+    private int beginObject() throws IOException {
+        int id = reserveObject();
+        beginObject(id);
+        return id;
+    }
+
+    private void beginObject(int id) throws IOException {
+        offsets.set(id - 1, out.count);
+        write(id + " 0 obj\n");
+    }
+
+    private void endObject() throws IOException {
+        write("\nendobj\n");
+    }
+
+    private void write(String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Tracks the byte offset of the output for the cross-reference table
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count = 0;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
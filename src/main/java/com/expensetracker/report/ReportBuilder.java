@@ -0,0 +1,323 @@
+package com.expensetracker.report;
+
+import com.expensetracker.controller.CategoryController;
+import com.expensetracker.controller.ExpenseController;
+import com.expensetracker.metrics.MetricsRegistry;
+import com.expensetracker.metrics.Timer;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Money;
+import com.expensetracker.util.SwingUtils;
+
+import java.awt.Color;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the data for a report and builds its chart and summary table. Used
+ * by the reports panel and by the PDF export, so both show the same report.
+ *
+ * Report data is answered from each user's in-memory {@link ExpenseCube};
+ * the database is only queried to load a cube, or when it cannot be loaded.
+ */
+public class ReportBuilder {
+
+    private static final String[] MONTH_NAMES = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+
+    // Cubes of recently used users, kept current from expense changes
+    private static final int CUBE_MAX_USERS = 16;
+    private static final ExpenseCubeCache CUBES = new ExpenseCubeCache(new ExpenseController(), CUBE_MAX_USERS);
+
+    static {
+        ExpenseController.addExpenseChangeListener(CUBES);
+    }
+
+    private final ExpenseController expenseController;
+    private final CategoryController categoryController;
+
+    /**
+     * Constructor
+     */
+    public ReportBuilder(ExpenseController expenseController) {
+        this.expenseController = expenseController;
+        this.categoryController = new CategoryController();
+    }
+
+    /**
+     * Shared cache of per-user expense cubes
+     */
+    public static ExpenseCubeCache getCubeCache() {
+        return CUBES;
+    }
+
+    /**
+     * Query the data for a report. Runs database queries, so call it off the EDT.
+     */
+    public ReportContent build(ReportType type, int userId, Date startDate, Date endDate) {
+        try (Timer.Context timing = MetricsRegistry.time("report.ReportBuilder.build." + type)) {
+            switch (type) {
+                case CATEGORY_BREAKDOWN:
+                    return buildCategoryBreakdown(getCategorySummary(userId, startDate, endDate));
+                case MONTHLY_SUMMARY: {
+                    int year = getYear(startDate);
+                    List<Object[]> monthlyTotals = new ArrayList<>();
+                    for (Object[] row : getMonthlyTotals(userId, year, year)) {
+                        monthlyTotals.add(new Object[]{row[1], row[2]});
+                    }
+                    return buildMonthlySummary(year, monthlyTotals);
+                }
+                case YEARLY_COMPARISON: {
+                    int startYear = getYear(startDate);
+                    int endYear = getYear(endDate);
+
+                    // One query for the whole span, split by year for the chart
+                    Map<Integer, List<Object[]>> totalsByYear = new LinkedHashMap<>();
+                    for (int year = startYear; year <= endYear; year++) {
+                        totalsByYear.put(year, new ArrayList<>());
+                    }
+                    for (Object[] row : getMonthlyTotals(userId, startYear, endYear)) {
+                        totalsByYear.get((Integer) row[0]).add(new Object[]{row[1], row[2]});
+                    }
+                    return buildYearlyComparison(totalsByYear);
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown report type: " + type);
+            }
+        }
+    }
+
+    /**
+     * Totals per category in the period, largest first. Each row is {category name, total as Money}.
+     */
+    private List<Object[]> getCategorySummary(int userId, Date startDate, Date endDate) {
+        ExpenseCube cube = CUBES.get(userId);
+        if (cube == null) {
+            return expenseController.getExpenseSummaryByCategory(userId, startDate, endDate);
+        }
+
+        // Names come from the category cache, so renames show up without reloading the cube
+        Map<Integer, String> names = new HashMap<>();
+        List<Category> categories = categoryController.getCategoriesByUser(userId);
+        if (categories != null) {
+            for (Category category : categories) {
+                names.put(category.getCategoryId(), category.getName());
+            }
+        }
+
+        List<Object[]> summary = new ArrayList<>();
+        for (long[] row : cube.getCategoryTotals(toLocalDate(startDate), toLocalDate(endDate))) {
+            summary.add(new Object[]{names.getOrDefault((int) row[0], "Unknown"), Money.ofCents(row[1])});
+        }
+        return summary;
+    }
+
+    /**
+     * Totals per month for whole years. Each row is {year, month, total as Money}.
+     */
+    private List<Object[]> getMonthlyTotals(int userId, int startYear, int endYear) {
+        ExpenseCube cube = CUBES.get(userId);
+        if (cube == null) {
+            List<Object[]> rows = expenseController.getMonthlyExpenseTotals(userId, startYear, endYear);
+            return rows != null ? rows : new ArrayList<>();
+        }
+
+        List<Object[]> totals = new ArrayList<>();
+        for (long[] row : cube.getMonthlyTotals(LocalDate.of(startYear, 1, 1), LocalDate.of(endYear + 1, 1, 1), 0)) {
+            totals.add(new Object[]{(int) row[0], (int) row[1], Money.ofCents(row[2])});
+        }
+        return totals;
+    }
+
+    /**
+     * Pie chart for category breakdown
+     */
+    private ReportContent buildCategoryBreakdown(List<Object[]> categorySummary) {
+        if (categorySummary == null || categorySummary.isEmpty()) {
+            return new ReportContent(ReportType.CATEGORY_BREAKDOWN,
+                "No expense data available for the selected period");
+        }
+
+        long totalCents = sumCents(categorySummary, 1);
+
+        // Populate table rows with data
+        List<String[]> rows = new ArrayList<>();
+        for (Object[] row : categorySummary) {
+            String category = (String) row[0];
+            Money amount = (Money) row[1];
+
+            // Calculate percentage
+            rows.add(new String[]{
+                category,
+                SwingUtils.formatCurrency(amount.toDouble()),
+                formatPercentage(amount.getCents(), totalCents)
+            });
+        }
+
+        // Add total row
+        rows.add(new String[]{"TOTAL", SwingUtils.formatCurrency(Money.ofCents(totalCents).toDouble()), "100.00%"});
+
+        return new ReportContent(ReportType.CATEGORY_BREAKDOWN, () -> {
+            // Create dataset for pie chart
+            org.jfree.data.general.DefaultPieDataset<String> dataset = new org.jfree.data.general.DefaultPieDataset<>();
+            for (Object[] row : categorySummary) {
+                dataset.setValue((String) row[0], ((Money) row[1]).toDouble());
+            }
+
+            // Create chart
+            org.jfree.chart.JFreeChart chart = org.jfree.chart.ChartFactory.createPieChart(
+                "Expense Distribution by Category",
+                dataset,
+                true,  // legend
+                true,  // tooltips
+                false  // URLs
+            );
+
+            // Customize chart
+            org.jfree.chart.plot.PiePlot<?> plot = (org.jfree.chart.plot.PiePlot<?>) chart.getPlot();
+            plot.setBackgroundPaint(Color.WHITE);
+            plot.setOutlineVisible(false);
+            plot.setLabelFont(SwingUtils.SMALL_FONT);
+            plot.setLabelBackgroundPaint(new Color(255, 255, 255, 200));
+            plot.setLabelOutlinePaint(null);
+            plot.setLabelShadowPaint(null);
+            return chart;
+        }, rows);
+    }
+
+    /**
+     * Bar chart for monthly summary
+     */
+    private ReportContent buildMonthlySummary(int year, List<Object[]> monthlyTotals) {
+        if (monthlyTotals == null || monthlyTotals.isEmpty()) {
+            return new ReportContent(ReportType.MONTHLY_SUMMARY, "No expense data available for " + year);
+        }
+
+        long yearlyCents = sumCents(monthlyTotals, 1);
+
+        // Populate table rows with data
+        List<String[]> rows = new ArrayList<>();
+        for (Object[] row : monthlyTotals) {
+            int month = (int) row[0];
+            Money amount = (Money) row[1];
+
+            // Calculate percentage
+            rows.add(new String[]{
+                MONTH_NAMES[month - 1] + " " + year,
+                SwingUtils.formatCurrency(amount.toDouble()),
+                formatPercentage(amount.getCents(), yearlyCents)
+            });
+        }
+
+        // Add total row
+        rows.add(new String[]{"TOTAL " + year, SwingUtils.formatCurrency(Money.ofCents(yearlyCents).toDouble()), "100.00%"});
+
+        return new ReportContent(ReportType.MONTHLY_SUMMARY, () -> {
+            // Create dataset for bar chart
+            org.jfree.data.category.DefaultCategoryDataset dataset = new org.jfree.data.category.DefaultCategoryDataset();
+            for (Object[] row : monthlyTotals) {
+                dataset.setValue(((Money) row[1]).toDouble(), "Expenses", MONTH_NAMES[(int) row[0] - 1]);
+            }
+
+            // Create chart
+            org.jfree.chart.JFreeChart chart = org.jfree.chart.ChartFactory.createBarChart(
+                "Monthly Expenses for " + year,
+                "Month",
+                "Amount",
+                dataset,
+                org.jfree.chart.plot.PlotOrientation.VERTICAL,
+                true,
+                true,
+                false
+            );
+            customizeCategoryPlot(chart);
+            return chart;
+        }, rows);
+    }
+
+    /**
+     * Line chart for yearly comparison
+     */
+    private ReportContent buildYearlyComparison(Map<Integer, List<Object[]>> totalsByYear) {
+        List<String[]> rows = new ArrayList<>();
+        long grandCents = 0;
+
+        for (Map.Entry<Integer, List<Object[]>> entry : totalsByYear.entrySet()) {
+            long yearlyCents = sumCents(entry.getValue(), 1);
+
+            // Add yearly total to table
+            rows.add(new String[]{entry.getKey() + " Total", SwingUtils.formatCurrency(Money.ofCents(yearlyCents).toDouble()), "-"});
+            grandCents = Math.addExact(grandCents, yearlyCents);
+        }
+
+        // Add grand total row
+        rows.add(new String[]{"GRAND TOTAL", SwingUtils.formatCurrency(Money.ofCents(grandCents).toDouble()), "100.00%"});
+
+        return new ReportContent(ReportType.YEARLY_COMPARISON, () -> {
+            // Create dataset for line chart
+            org.jfree.data.category.DefaultCategoryDataset dataset = new org.jfree.data.category.DefaultCategoryDataset();
+            for (Map.Entry<Integer, List<Object[]>> entry : totalsByYear.entrySet()) {
+                for (Object[] row : entry.getValue()) {
+                    dataset.setValue(((Money) row[1]).toDouble(), String.valueOf(entry.getKey()),
+                        MONTH_NAMES[(int) row[0] - 1]);
+                }
+            }
+
+            // Create chart
+            org.jfree.chart.JFreeChart chart = org.jfree.chart.ChartFactory.createLineChart(
+                "Yearly Expense Comparison",
+                "Month",
+                "Amount",
+                dataset,
+                org.jfree.chart.plot.PlotOrientation.VERTICAL,
+                true,
+                true,
+                false
+            );
+            customizeCategoryPlot(chart);
+            return chart;
+        }, rows);
+    }
+
+    private static void customizeCategoryPlot(org.jfree.chart.JFreeChart chart) {
+        org.jfree.chart.plot.CategoryPlot plot = chart.getCategoryPlot();
+        plot.setBackgroundPaint(Color.WHITE);
+        plot.setOutlinePaint(null);
+        plot.setRangeGridlinePaint(SwingUtils.LIGHT_ACCENT);
+    }
+
+    /**
+     * Sum the Money values in one column of the rows, in cents
+     */
+    private static long sumCents(List<Object[]> rows, int column) {
+        long cents = 0;
+        for (Object[] row : rows) {
+            cents = Math.addExact(cents, ((Money) row[column]).getCents());
+        }
+        return cents;
+    }
+
+    /**
+     * Share of a total as a percentage with two decimals
+     */
+    private static String formatPercentage(long cents, long totalCents) {
+        return String.format("%.2f%%", totalCents != 0 ? cents * 100.0 / totalCents : 0.0);
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return new java.sql.Date(date.getTime()).toLocalDate();
+    }
+
+    /**
+     * Get the calendar year of a date
+     */
+    private static int getYear(Date date) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        return calendar.get(Calendar.YEAR);
+    }
+}
@@ -0,0 +1,66 @@
+package com.expensetracker.report;
+
+import org.jfree.chart.JFreeChart;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The chart and summary table of one report, ready to be shown on screen
+ * or written to a PDF
+ */
+public class ReportContent {
+
+    private final ReportType type;
+    private final String emptyMessage;
+    private final Supplier<JFreeChart> chartFactory;
+    private final List<String[]> rows;
+
+    ReportContent(ReportType type, Supplier<JFreeChart> chartFactory, List<String[]> rows) {
+        this.type = type;
+        this.emptyMessage = null;
+        this.chartFactory = chartFactory;
+        this.rows = rows;
+    }
+
+    ReportContent(ReportType type, String emptyMessage) {
+        this.type = type;
+        this.emptyMessage = emptyMessage;
+        this.chartFactory = null;
+        this.rows = Collections.emptyList();
+    }
+
+    public ReportType getType() {
+        return type;
+    }
+
+    /**
+     * Returns true if there was no data for the report
+     */
+    public boolean isEmpty() {
+        return chartFactory == null;
+    }
+
+    /**
+     * Message to show instead of the chart when the report is empty
+     */
+    public String getEmptyMessage() {
+        return emptyMessage;
+    }
+
+    /**
+     * Build a new chart from the report data. Each call returns a separate
+     * chart, so one can be shown on screen while another is rendered off-screen.
+     */
+    public JFreeChart createChart() {
+        return chartFactory.get();
+    }
+
+    /**
+     * Summary table rows of {label, amount, percentage}
+     */
+    public List<String[]> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+}
@@ -0,0 +1,40 @@
+package com.expensetracker.report;
+
+/**
+ * Reports offered on the reports panel
+ */
+public enum ReportType {
+    CATEGORY_BREAKDOWN("Category Breakdown"),
+    MONTHLY_SUMMARY("Monthly Summary"),
+    YEARLY_COMPARISON("Yearly Comparison");
+
+    private final String label;
+
+    ReportType(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Name shown in the report type selector
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Find the report type shown with the given name
+     */
+    public static ReportType fromLabel(String label) {
+        for (ReportType type : values()) {
+            if (type.label.equals(label)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown report type: " + label);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,454 @@
+package com.expensetracker.tools;
+
+import com.expensetracker.controller.CategoryController;
+import com.expensetracker.controller.ExpenseController;
+import com.expensetracker.controller.UserController;
+import com.expensetracker.dao.ExpensePage;
+import com.expensetracker.metrics.MetricsRegistry;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.User;
+import com.expensetracker.report.ReportBuilder;
+import com.expensetracker.report.ReportType;
+import com.expensetracker.util.ConnectionPool;
+import com.expensetracker.util.DatabaseUtil;
+import com.expensetracker.util.LatencyHistogram;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless load generator that drives the controllers the way the dashboard
+ * does, with many concurrent sessions and no Swing.
+ *
+ * Each session runs on its own virtual thread: it logs in as one of the
+ * users, then repeatedly picks an operation from the mix, runs it and waits
+ * for a random think time. Latency is recorded per operation in a
+ * {@link LatencyHistogram}. Sessions can be given as a list of counts, which
+ * are run one stage after another, so the report shows where throughput
+ * stops growing and latency and connection pool waits take off.
+ *
+ * Users are the ones created by SyntheticDataGenerator (synthetic_0, ...);
+ * missing users are registered empty.
+ * <pre>
+ * java -cp expense-tracker.jar com.expensetracker.tools.LoadHarness \
+ *     --sessions 10,50,100,500 --users 100 --duration 60 --think-ms 200
+ * </pre>
+ */
+public class LoadHarness {
+
+    /**
+     * What a session does; the weight is its share of the default mix
+     */
+    enum Operation {
+        LOGIN(5),
+        LIST(35),
+        FILTER(10),
+        CATEGORIES(5),
+        ADD(15),
+        EDIT(10),
+        DELETE(5),
+        REPORT(15);
+
+        final int defaultWeight;
+
+        Operation(int defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+    }
+
+    private static final String PASSWORD = "password";
+    private static final int PAGE_SIZE = 50;
+    private static final ReportType[] REPORT_TYPES = ReportType.values();
+
+    private final String usernamePrefix;
+    private final int userCount;
+    private final long thinkNanos;
+    private final Map<Operation, Integer> mix;
+    private final long seed;
+
+    private final UserController userController = new UserController();
+    private final CategoryController categoryController = new CategoryController();
+    private final ExpenseController expenseController = new ExpenseController();
+    private final ReportBuilder reportBuilder = new ReportBuilder(expenseController);
+
+    // Results of the running stage
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private volatile boolean recording;
+
+    /**
+     * @param thinkMillis mean pause between a session's operations
+     * @param mix         relative weight of each operation
+     */
+    public LoadHarness(String usernamePrefix, int userCount, long thinkMillis,
+                       Map<Operation, Integer> mix, long seed) {
+        this.usernamePrefix = usernamePrefix;
+        this.userCount = userCount;
+        this.thinkNanos = thinkMillis * 1_000_000;
+        this.mix = mix;
+        this.seed = seed;
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Run one stage: the sessions warm up, then operations are recorded for
+     * the measured period, then all sessions stop
+     */
+    public void runStage(int sessions, long warmupMillis, long durationMillis) throws InterruptedException {
+        for (Operation operation : Operation.values()) {
+            latencies.get(operation).reset();
+            errors.get(operation).reset();
+        }
+        recording = false;
+
+        ConnectionPool pool = DatabaseUtil.getPool();
+        long startNanos = System.nanoTime();
+        long measureStart = startNanos + warmupMillis * 1_000_000;
+        long deadline = measureStart + durationMillis * 1_000_000;
+
+        List<Thread> threads = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            int sessionIndex = i;
+            threads.add(Thread.ofVirtual().name("load-session-" + i).start(
+                () -> runSession(sessionIndex, deadline)));
+        }
+
+        Thread.sleep(warmupMillis);
+        long borrowsBefore = pool.getBorrowCount();
+        long waitBefore = pool.getTotalBorrowWaitNanos();
+        long timeoutsBefore = pool.getBorrowTimeouts();
+        recording = true;
+
+        // Sample the pool while the stage runs
+        int maxWaiting = 0;
+        while (System.nanoTime() < deadline) {
+            maxWaiting = Math.max(maxWaiting, pool.getWaitingThreads());
+            Thread.sleep(100);
+        }
+        recording = false;
+        long borrows = pool.getBorrowCount() - borrowsBefore;
+        long waitNanos = pool.getTotalBorrowWaitNanos() - waitBefore;
+        long timeouts = pool.getBorrowTimeouts() - timeoutsBefore;
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        printStage(sessions, durationMillis, borrows, waitNanos, timeouts, maxWaiting);
+    }
+
+    private void runSession(int sessionIndex, long deadline) {
+        SplittableRandom random = new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (sessionIndex + 1)));
+        Session session = new Session(usernamePrefix + "_" + (sessionIndex % userCount));
+
+        // Sessions start at different times, as users do
+        pause(random, random.nextLong(Math.max(1, thinkNanos)));
+        execute(Operation.LOGIN, session, random);
+
+        int totalWeight = 0;
+        for (int weight : mix.values()) {
+            totalWeight += weight;
+        }
+
+        while (System.nanoTime() < deadline) {
+            int choice = random.nextInt(totalWeight);
+            Operation operation = null;
+            for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+                choice -= entry.getValue();
+                if (choice < 0) {
+                    operation = entry.getKey();
+                    break;
+                }
+            }
+            execute(operation, session, random);
+            pause(random, thinkNanos);
+        }
+    }
+
+    /**
+     * Run and time one operation
+     */
+    private void execute(Operation operation, Session session, SplittableRandom random) {
+        if (session.user == null && operation != Operation.LOGIN) {
+            operation = Operation.LOGIN;
+        }
+
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = perform(operation, session, random);
+        } catch (RuntimeException e) {
+            ok = false;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (recording) {
+            latencies.get(operation).record(elapsed);
+            if (!ok) {
+                errors.get(operation).increment();
+            }
+        }
+    }
+
+    private boolean perform(Operation operation, Session session, SplittableRandom random) {
+        switch (operation) {
+            case LOGIN: {
+                User user = userController.authenticateUser(session.username, PASSWORD);
+                if (user == null && userController.getUserByUsername(session.username) == null) {
+                    userController.registerUser(session.username, PASSWORD, session.username + "@example.com");
+                    user = userController.authenticateUser(session.username, PASSWORD);
+                }
+                session.user = user;
+                if (user != null) {
+                    session.categories = categoryController.getCategoriesByUser(user.getUserId());
+                }
+                return user != null && session.categories != null && !session.categories.isEmpty();
+            }
+            case LIST: {
+                // The dashboard's first page and its total
+                int userId = session.user.getUserId();
+                ExpensePage page = expenseController.getExpensePage(userId, 0, null, true, PAGE_SIZE);
+                expenseController.getTotalExpenses(userId, 0);
+                session.lastPage = page.getExpenses();
+                return true;
+            }
+            case FILTER: {
+                int userId = session.user.getUserId();
+                int categoryId = randomCategory(session, random).getCategoryId();
+                ExpensePage page = expenseController.getExpensePage(userId, categoryId, null, true, PAGE_SIZE);
+                expenseController.getTotalExpenses(userId, categoryId);
+                if (page.hasNext()) {
+                    expenseController.getExpensePage(userId, categoryId, page.getNextCursor(), true, PAGE_SIZE);
+                }
+                return true;
+            }
+            case CATEGORIES:
+                return categoryController.getCategoriesByUser(session.user.getUserId()) != null;
+            case ADD: {
+                Expense expense = newExpense(session, random);
+                boolean added = expenseController.addExpense(session.user.getUserId(), expense.getCategoryId(),
+                    expense.getAmount(), expense.getDescription(), expense.getExpenseDate());
+                if (added) {
+                    // Found again on the next list; kept so deletes only remove the session's own rows
+                    session.added++;
+                }
+                return added;
+            }
+            case EDIT: {
+                if (session.lastPage.isEmpty()) {
+                    return perform(Operation.LIST, session, random);
+                }
+                Expense existing = session.lastPage.get(random.nextInt(session.lastPage.size()));
+                Expense changed = newExpense(session, random);
+                return expenseController.updateExpense(existing.getExpenseId(), session.user.getUserId(),
+                    existing.getCategoryId(), changed.getAmount(), existing.getDescription(), existing.getExpenseDate());
+            }
+            case DELETE: {
+                if (session.added == 0) {
+                    return perform(Operation.ADD, session, random);
+                }
+                // Delete the newest expense the session added, so the data set keeps its size
+                Expense newest = findOwnExpense(session);
+                if (newest == null) {
+                    return true;
+                }
+                session.added--;
+                return expenseController.deleteExpense(newest.getExpenseId(), session.user.getUserId());
+            }
+            case REPORT: {
+                ReportType type = REPORT_TYPES[random.nextInt(REPORT_TYPES.length)];
+                LocalDate end = SyntheticDataGenerator.DEFAULT_END_DATE;
+                LocalDate start = type == ReportType.CATEGORY_BREAKDOWN ? end.minusMonths(1).plusDays(1)
+                    : type == ReportType.MONTHLY_SUMMARY ? end.withDayOfYear(1) : end.minusYears(2).withDayOfYear(1);
+                return reportBuilder.build(type, session.user.getUserId(),
+                    java.sql.Date.valueOf(start), java.sql.Date.valueOf(end)) != null;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    /**
+     * One of the expenses this session added, found by its description
+     */
+    private Expense findOwnExpense(Session session) {
+        List<Expense> expenses = expenseController.getExpensePage(session.user.getUserId(), 0, null, true, PAGE_SIZE)
+            .getExpenses();
+        for (Expense expense : expenses) {
+            if (session.marker.equals(expense.getDescription())) {
+                return expense;
+            }
+        }
+        return null;
+    }
+
+    private Expense newExpense(Session session, SplittableRandom random) {
+        Expense expense = new Expense();
+        expense.setCategoryId(randomCategory(session, random).getCategoryId());
+        expense.setMoney(Money.ofCents(100 + random.nextLong(20_000)));
+        expense.setDescription(session.marker);
+        // Newest first on the dashboard, so the session finds its own rows on the first page
+        expense.setExpenseDate(java.sql.Date.valueOf(LocalDate.now()));
+        return expense;
+    }
+
+    private static Category randomCategory(Session session, SplittableRandom random) {
+        return session.categories.get(random.nextInt(session.categories.size()));
+    }
+
+    /**
+     * Sleep for an exponentially distributed time with the given mean
+     */
+    private static void pause(SplittableRandom random, long meanNanos) {
+        if (meanNanos <= 0) {
+            return;
+        }
+        long nanos = (long) (-Math.log(1 - random.nextDouble()) * meanNanos);
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void printStage(int sessions, long durationMillis, long borrows, long waitNanos,
+                            long timeouts, int maxWaiting) {
+        double seconds = durationMillis / 1000.0;
+        System.out.println();
+        System.out.printf("=== %d sessions, %.0f s ===%n", sessions, seconds);
+        System.out.printf("%-11s %9s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+            "operation", "count", "ops/s", "errors", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        LatencyHistogram all = new LatencyHistogram();
+        long allErrors = 0;
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = latencies.get(operation);
+            long errorCount = errors.get(operation).sum();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            printRow(operation.name().toLowerCase(), histogram, errorCount, seconds);
+            all.add(histogram);
+            allErrors += errorCount;
+        }
+        printRow("all", all, allErrors, seconds);
+
+        System.out.printf("pool: %d borrows, mean wait %.3f ms, max waiting %d, timeouts %d, %s%n",
+            borrows, borrows == 0 ? 0.0 : waitNanos / 1e6 / borrows, maxWaiting, timeouts,
+            DatabaseUtil.getPool().getStatistics());
+    }
+
+    private static void printRow(String name, LatencyHistogram histogram, long errorCount, double seconds) {
+        System.out.printf("%-11s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+            name, histogram.getCount(), histogram.getCount() / seconds, errorCount,
+            histogram.getMean() / 1e6,
+            histogram.getValueAtPercentile(50) / 1e6,
+            histogram.getValueAtPercentile(90) / 1e6,
+            histogram.getValueAtPercentile(99) / 1e6,
+            histogram.getValueAtPercentile(99.9) / 1e6,
+            histogram.getMax() / 1e6);
+    }
+
+    /**
+     * State of one simulated user
+     */
+    private static final class Session {
+        final String username;
+        // Description of the expenses this session adds, so it can find them again
+        final String marker;
+        User user;
+        List<Category> categories;
+        List<Expense> lastPage = List.of();
+        int added;
+
+        Session(String username) {
+            this.username = username;
+            this.marker = "Load test " + Thread.currentThread().getName();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> stages = List.of(10);
+        int users = 10;
+        long warmupSeconds = 10;
+        long durationSeconds = 30;
+        long thinkMillis = 200;
+        long seed = SyntheticDataGenerator.DEFAULT_SEED;
+        String prefix = "synthetic";
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            mix.put(operation, operation.defaultWeight);
+        }
+
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--sessions" -> {
+                        List<Integer> counts = new ArrayList<>();
+                        for (String count : value.split(",")) {
+                            counts.add(Integer.parseInt(count.trim()));
+                        }
+                        stages = counts;
+                    }
+                    case "--users" -> users = Integer.parseInt(value);
+                    case "--warmup" -> warmupSeconds = Long.parseLong(value);
+                    case "--duration" -> durationSeconds = Long.parseLong(value);
+                    case "--think-ms" -> thinkMillis = Long.parseLong(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--prefix" -> prefix = value;
+                    case "--mix" -> {
+                        // e.g. list=50,add=20,report=30; operations not named are not run
+                        mix.clear();
+                        for (String part : value.split(",")) {
+                            String[] pair = part.split("=");
+                            mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            mix.values().removeIf(weight -> weight <= 0);
+            if (users <= 0 || durationSeconds <= 0 || warmupSeconds < 0 || thinkMillis < 0 || mix.isEmpty()
+                || stages.stream().anyMatch(count -> count <= 0)) {
+                throw new IllegalArgumentException("Invalid options");
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LoadHarness [--sessions N[,N...]] [--users N] [--warmup s] [--duration s]");
+            System.err.println("       [--think-ms N] [--seed N] [--prefix name] [--mix op=weight,...]");
+            System.err.println("Operations: login, list, filter, categories, add, edit, delete, report");
+            System.exit(2);
+            return;
+        }
+
+        DatabaseUtil.initializeDatabase();
+        try {
+            LoadHarness harness = new LoadHarness(prefix, users, thinkMillis, mix, seed);
+            System.out.println("Mix " + mix + ", think time " + thinkMillis + " ms, " + users + " users");
+            for (int sessions : stages) {
+                harness.runStage(sessions, warmupSeconds * 1000, durationSeconds * 1000);
+            }
+
+            // Where the time went below the controllers, over all stages including warmup
+            System.out.println();
+            System.out.println("Timers over the whole run:");
+            System.out.print(MetricsRegistry.getSummary());
+        } finally {
+            DatabaseUtil.closeConnection();
+        }
+    }
+}
@@ -0,0 +1,562 @@
+package com.expensetracker.tools;
+
+import com.expensetracker.controller.CategoryController;
+import com.expensetracker.controller.ExpenseController;
+import com.expensetracker.controller.UserController;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.User;
+import com.expensetracker.util.DatabaseUtil;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Generates users, categories and expenses that look like real usage, for
+ * benchmarks, load tests and trying the dashboard at scale.
+ *
+ * Output depends only on the seed, the date range and the user's index, so
+ * the same options always produce the same data and users can be generated
+ * in any order or in parallel. Each user gets:
+ * <ul>
+ *   <li>the default categories plus a few of their own, weighted by a
+ *       personal mix around typical spending shares</li>
+ *   <li>recurring payments such as rent and subscriptions on fixed days</li>
+ *   <li>other expenses spread by season and day of the week, with
+ *       log-normal amounts and slowly rising prices</li>
+ *   <li>descriptions drawn from a long-tailed (Zipf) distribution, so a
+ *       few are very common and most are rare</li>
+ * </ul>
+ * Expenses are generated in chunks and written with the batch insert, so
+ * memory use does not grow with the number of expenses.
+ *
+ * Run from the command line, using the configured storage engine:
+ * <pre>
+ * java -cp expense-tracker.jar com.expensetracker.tools.SyntheticDataGenerator \
+ *     --users 1000 --expenses-per-user 10000 --threads 4
+ * </pre>
+ */
+public class SyntheticDataGenerator {
+
+    public static final long DEFAULT_SEED = 42;
+    public static final LocalDate DEFAULT_END_DATE = LocalDate.of(2025, 12, 31);
+    public static final int DEFAULT_YEARS = 3;
+
+    // Expenses handed to the sink at once; each chunk is one insert transaction
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+
+    private static final String PASSWORD = "password";
+
+    // Largest amount that fits DECIMAL(10,2)
+    private static final long MAX_CENTS = 9_999_999_999L;
+
+    // Yearly price increase applied to generated amounts
+    private static final double INFLATION = 0.03;
+
+    // Spending by month of the year and by day of the week, Monday first
+    private static final double[] MONTH_WEIGHTS = {0.85, 0.8, 0.9, 0.95, 1.0, 1.05, 1.1, 1.05, 0.95, 1.0, 1.1, 1.4};
+    private static final double[] WEEKDAY_WEIGHTS = {0.9, 0.9, 0.95, 1.0, 1.2, 1.35, 1.1};
+    private static final double MAX_CALENDAR_WEIGHT = 1.4 * 1.35;
+
+    // Descriptions are ranked 1..DESCRIPTION_RANKS with probability ~ 1 / rank^ZIPF_EXPONENT
+    private static final int DESCRIPTION_RANKS = 2000;
+    private static final double ZIPF_EXPONENT = 1.1;
+    private static final double[] ZIPF_CDF = zipfCdf(DESCRIPTION_RANKS, ZIPF_EXPONENT);
+
+    /**
+     * How expenses of one category are spread and priced
+     */
+    private static final class CategoryProfile {
+        final double weight;
+        final long medianCents;
+        final double sigma;
+        final int peakMonth;
+        final double seasonality;
+        final String[] descriptions;
+
+        CategoryProfile(double weight, long medianCents, double sigma, int peakMonth, double seasonality,
+                        String... descriptions) {
+            this.weight = weight;
+            this.medianCents = medianCents;
+            this.sigma = sigma;
+            this.peakMonth = peakMonth;
+            this.seasonality = seasonality;
+            this.descriptions = descriptions;
+        }
+
+        /**
+         * Relative spending in a month, peaking in peakMonth
+         */
+        double seasonalWeight(int month) {
+            return 1 + seasonality * Math.cos(2 * Math.PI * (month - peakMonth) / 12.0);
+        }
+    }
+
+    /**
+     * A payment made every month on the same day
+     */
+    private static final class Recurring {
+        final String categoryName;
+        final String description;
+        final int dayOfMonth;
+        final long cents;
+        final double seasonality;
+
+        Recurring(String categoryName, String description, int dayOfMonth, long cents, double seasonality) {
+            this.categoryName = categoryName;
+            this.description = description;
+            this.dayOfMonth = dayOfMonth;
+            this.cents = cents;
+            this.seasonality = seasonality;
+        }
+    }
+
+    private static final CategoryProfile DEFAULT_PROFILE =
+        new CategoryProfile(3, 2500, 1.0, 6, 0.1, "Purchase", "Payment", "Order");
+
+    private static final Map<String, CategoryProfile> PROFILES = new HashMap<>();
+
+    // Categories users may add to the defaults
+    private static final String[] CUSTOM_CATEGORIES = {"Pets", "Travel", "Gifts", "Subscriptions", "Hobbies", "Childcare"};
+
+    static {
+        PROFILES.put("Food", new CategoryProfile(30, 1800, 0.7, 12, 0.1,
+            "Groceries", "Coffee", "Lunch", "Supermarket", "Bakery", "Takeaway", "Restaurant", "Farmers market"));
+        PROFILES.put("Transport", new CategoryProfile(14, 1200, 0.8, 7, 0.15,
+            "Bus ticket", "Fuel", "Taxi", "Train ticket", "Parking", "Ride share", "Car wash"));
+        PROFILES.put("Housing", new CategoryProfile(3, 9000, 1.0, 4, 0.2,
+            "Hardware store", "Repairs", "Furniture", "Cleaning supplies", "Garden centre"));
+        PROFILES.put("Entertainment", new CategoryProfile(8, 2500, 0.8, 7, 0.3,
+            "Cinema", "Bar", "Concert", "Video game", "Museum", "Bowling"));
+        PROFILES.put("Healthcare", new CategoryProfile(4, 3500, 1.0, 1, 0.2,
+            "Pharmacy", "Doctor visit", "Dentist", "Optician"));
+        PROFILES.put("Education", new CategoryProfile(2, 4500, 1.1, 9, 0.5,
+            "Books", "Online course", "School supplies", "Tuition"));
+        PROFILES.put("Shopping", new CategoryProfile(10, 4000, 1.0, 12, 0.5,
+            "Clothes", "Online order", "Electronics", "Shoes", "Home goods", "Department store"));
+        PROFILES.put("Utilities", new CategoryProfile(2, 4000, 0.5, 1, 0.3,
+            "Water", "Gas refill", "Phone top-up", "Postage"));
+        PROFILES.put("Other", new CategoryProfile(4, 2000, 1.2, 6, 0.0,
+            "Miscellaneous", "Cash withdrawal", "Bank fee", "Donation"));
+        PROFILES.put("Pets", new CategoryProfile(5, 2500, 0.8, 6, 0.0,
+            "Pet food", "Vet", "Pet supplies", "Grooming"));
+        PROFILES.put("Travel", new CategoryProfile(3, 15000, 1.0, 7, 0.7,
+            "Hotel", "Flight", "Car rental", "Souvenirs"));
+        PROFILES.put("Gifts", new CategoryProfile(2, 3000, 0.9, 12, 0.8,
+            "Birthday gift", "Flowers", "Wedding gift", "Gift card"));
+        PROFILES.put("Subscriptions", new CategoryProfile(2, 1000, 0.4, 6, 0.0,
+            "App subscription", "Magazine", "Cloud storage"));
+        PROFILES.put("Hobbies", new CategoryProfile(3, 3000, 1.0, 5, 0.2,
+            "Craft supplies", "Sports gear", "Music lessons", "Photography"));
+        PROFILES.put("Childcare", new CategoryProfile(5, 5000, 0.6, 9, 0.2,
+            "Babysitter", "Daycare", "Toys", "School trip"));
+    }
+
+    private final long seed;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    private final UserController userController = new UserController();
+    private final CategoryController categoryController = new CategoryController();
+    private final ExpenseController expenseController = new ExpenseController();
+
+    /**
+     * @param seed      seed for all random choices
+     * @param startDate first day expenses can fall on
+     * @param endDate   last day expenses can fall on
+     */
+    public SyntheticDataGenerator(long seed, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date " + endDate + " is before start date " + startDate);
+        }
+        this.seed = seed;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    /**
+     * Names of the categories the user adds to the defaults
+     *
+     * @param userIndex position of the user in the generated set, from 0
+     */
+    public List<String> getCustomCategoryNames(int userIndex) {
+        SplittableRandom random = userRandom(userIndex).split();
+        List<String> names = new ArrayList<>();
+        for (String name : CUSTOM_CATEGORIES) {
+            if (random.nextDouble() < 0.35) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Generate a user's expenses and return them all. Convenient for small
+     * counts; use the chunked overload for large ones.
+     */
+    public List<Expense> generateExpenses(int userIndex, int userId, List<Category> categories, int count) {
+        List<Expense> expenses = new ArrayList<>(count);
+        generateExpenses(userIndex, userId, categories, count, DEFAULT_CHUNK_SIZE, expenses::addAll);
+        return expenses;
+    }
+
+    /**
+     * Generate a user's expenses and hand them to the sink in chunks
+     *
+     * @param userIndex  position of the user in the generated set, from 0
+     * @param userId     user the expenses belong to
+     * @param categories categories the user can file expenses under
+     * @param count      number of expenses, recurring payments included
+     * @param chunkSize  maximum number of expenses per chunk
+     * @param sink       receives each chunk; the list is not used afterwards
+     */
+    public void generateExpenses(int userIndex, int userId, List<Category> categories, long count,
+                                 int chunkSize, Consumer<List<Expense>> sink) {
+        if (categories == null || categories.isEmpty()) {
+            throw new IllegalArgumentException("User " + userId + " has no categories");
+        }
+
+        // Sorted so the result does not depend on the order or IDs the database returns
+        List<Category> sorted = new ArrayList<>(categories);
+        sorted.sort(Comparator.comparing(Category::getName).thenComparingInt(Category::getCategoryId));
+
+        SplittableRandom base = userRandom(userIndex);
+        base.split(); // Custom categories
+        SplittableRandom random = base.split();
+
+        // Personal mix: typical shares, scaled up or down for each user
+        double[] cumulativeWeights = new double[sorted.size()];
+        CategoryProfile[] profiles = new CategoryProfile[sorted.size()];
+        Map<String, Category> byName = new HashMap<>();
+        double totalWeight = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            Category category = sorted.get(i);
+            profiles[i] = PROFILES.getOrDefault(category.getName(), DEFAULT_PROFILE);
+            totalWeight += profiles[i].weight * Math.exp(0.5 * random.nextGaussian());
+            cumulativeWeights[i] = totalWeight;
+            byName.putIfAbsent(category.getName(), category);
+        }
+
+        List<Expense> chunk = new ArrayList<>((int) Math.min(count, chunkSize));
+        long generated = 0;
+
+        for (Recurring recurring : recurringPayments(random)) {
+            Category category = byName.get(recurring.categoryName);
+            if (category == null) {
+                continue;
+            }
+            for (LocalDate month = startDate.withDayOfMonth(1); !month.isAfter(endDate) && generated < count;
+                 month = month.plusMonths(1)) {
+                LocalDate date = month.withDayOfMonth(Math.min(recurring.dayOfMonth, month.lengthOfMonth()));
+                if (date.isBefore(startDate) || date.isAfter(endDate)) {
+                    continue;
+                }
+                double season = 1 + recurring.seasonality * Math.cos(2 * Math.PI * (date.getMonthValue() - 1) / 12.0);
+                long cents = Math.round(recurring.cents * season * priceLevel(date));
+                chunk.add(newExpense(userId, category.getCategoryId(), cents, recurring.description, date));
+                generated++;
+                if (chunk.size() == chunkSize) {
+                    sink.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        }
+
+        int days = (int) (endDate.toEpochDay() - startDate.toEpochDay()) + 1;
+        for (; generated < count; generated++) {
+            int index = pick(cumulativeWeights, random.nextDouble() * totalWeight);
+            CategoryProfile profile = profiles[index];
+            LocalDate date = pickDate(random, profile, days);
+
+            long cents = Math.round(profile.medianCents * Math.exp(profile.sigma * random.nextGaussian())
+                * priceLevel(date));
+            String description = describe(profile, random);
+            chunk.add(newExpense(userId, sorted.get(index).getCategoryId(), cents, description, date));
+
+            if (chunk.size() == chunkSize) {
+                sink.accept(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            sink.accept(chunk);
+        }
+    }
+
+    /**
+     * Create users named prefix_0, prefix_1, ... with their categories and
+     * expenses. The output is deterministic, so a user that already has
+     * some expenses resumes after the ones stored and an interrupted run can
+     * be started again with the same options.
+     *
+     * @param batchSize rows per JDBC batch
+     * @param threads   users generated at once
+     * @return the number of expenses inserted
+     */
+    public long populate(String usernamePrefix, int userCount, long expensesPerUser,
+                         int batchSize, int threads) throws InterruptedException {
+        AtomicLong inserted = new AtomicLong();
+        AtomicLong usersDone = new AtomicLong();
+        long startNanos = System.nanoTime();
+        int reportEvery = Math.max(1, userCount / 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<?>> tasks = new ArrayList<>(userCount);
+            for (int i = 0; i < userCount; i++) {
+                int userIndex = i;
+                tasks.add(executor.submit(() -> {
+                    populateUser(usernamePrefix, userIndex, expensesPerUser, batchSize, inserted);
+                    long done = usersDone.incrementAndGet();
+                    if (done % reportEvery == 0 || done == userCount) {
+                        double seconds = (System.nanoTime() - startNanos) / 1e9;
+                        System.out.printf("%d/%d users, %d expenses, %.0f expenses/s%n",
+                            done, userCount, inserted.get(), inserted.get() / Math.max(seconds, 1e-3));
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    System.out.println("Error generating user: " + e.getCause());
+                    e.getCause().printStackTrace();
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        return inserted.get();
+    }
+
+    private void populateUser(String usernamePrefix, int userIndex, long expensesPerUser, int batchSize,
+                              AtomicLong inserted) {
+        String username = usernamePrefix + "_" + userIndex;
+        User user = userController.getUserByUsername(username);
+        if (user == null) {
+            if (!userController.registerUser(username, PASSWORD, username + "@example.com")) {
+                System.out.println("Could not create user " + username);
+                return;
+            }
+            user = userController.getUserByUsername(username);
+        }
+        int userId = user.getUserId();
+
+        // Expenses are inserted in the order they are generated, so the stored
+        // ones are the start of the sequence and only the rest is missing
+        long stored = expenseController.countExpenses(userId, 0, null, null);
+        if (stored >= expensesPerUser) {
+            System.out.println("Skipping " + username + ": already has " + stored + " expenses");
+            return;
+        }
+        if (stored > 0) {
+            System.out.println("Resuming " + username + " after " + stored + " expenses");
+        }
+
+        // A previous run may have created the categories before it stopped
+        Set<String> existing = new HashSet<>();
+        for (Category category : categoryController.getCategoriesByUser(userId)) {
+            existing.add(category.getName());
+        }
+        for (String name : getCustomCategoryNames(userIndex)) {
+            if (!existing.contains(name)) {
+                categoryController.addCategory(name, name + " expenses", userId);
+            }
+        }
+
+        AtomicLong toSkip = new AtomicLong(stored);
+        generateExpenses(userIndex, userId, categoryController.getCategoriesByUser(userId), expensesPerUser,
+            DEFAULT_CHUNK_SIZE, generated -> {
+                List<Expense> chunk = generated;
+                if (toSkip.get() > 0) {
+                    int skipped = (int) Math.min(toSkip.get(), chunk.size());
+                    toSkip.addAndGet(-skipped);
+                    chunk = chunk.subList(skipped, chunk.size());
+                    if (chunk.isEmpty()) {
+                        return;
+                    }
+                }
+                int count = expenseController.addExpenses(chunk, batchSize).getInsertedCount();
+                inserted.addAndGet(count);
+                if (count < chunk.size()) {
+                    System.out.println("User " + username + ": " + (chunk.size() - count) + " expenses failed to insert");
+                }
+            });
+    }
+
+    /**
+     * The user's monthly bills, each paid with some probability
+     */
+    private List<Recurring> recurringPayments(SplittableRandom random) {
+        List<Recurring> payments = new ArrayList<>();
+        addRecurring(payments, random, 0.9, "Housing", "Rent", 1, 120_000, 0.35, 0.0);
+        addRecurring(payments, random, 0.9, "Utilities", "Internet", 5 + random.nextInt(20), 5_000, 0.2, 0.0);
+        addRecurring(payments, random, 0.8, "Utilities", "Phone bill", 5 + random.nextInt(20), 3_500, 0.3, 0.0);
+        addRecurring(payments, random, 0.85, "Utilities", "Electricity", 10 + random.nextInt(15), 7_000, 0.3, 0.3);
+        addRecurring(payments, random, 0.7, "Entertainment", "Streaming service", 1 + random.nextInt(28), 1_299, 0.2, 0.0);
+        addRecurring(payments, random, 0.4, "Healthcare", "Gym membership", 1 + random.nextInt(28), 4_000, 0.3, 0.0);
+        addRecurring(payments, random, 0.5, "Transport", "Transit pass", 1, 8_000, 0.2, 0.0);
+        addRecurring(payments, random, 0.5, "Other", "Insurance", 1 + random.nextInt(28), 9_000, 0.4, 0.0);
+        return payments;
+    }
+
+    private static void addRecurring(List<Recurring> payments, SplittableRandom random, double probability,
+                                     String categoryName, String description, int dayOfMonth,
+                                     long medianCents, double sigma, double seasonality) {
+        // Draw the amount even when the payment is skipped, so later draws do not shift
+        long cents = Math.round(medianCents * Math.exp(sigma * random.nextGaussian()));
+        if (random.nextDouble() < probability) {
+            payments.add(new Recurring(categoryName, description, dayOfMonth, cents, seasonality));
+        }
+    }
+
+    /**
+     * A day in the range, more likely in the category's busy months and at weekends
+     */
+    private LocalDate pickDate(SplittableRandom random, CategoryProfile profile, int days) {
+        double maxWeight = MAX_CALENDAR_WEIGHT * (1 + profile.seasonality);
+        while (true) {
+            LocalDate date = startDate.plusDays(random.nextInt(days));
+            int month = date.getMonthValue();
+            double weight = MONTH_WEIGHTS[month - 1] * WEEKDAY_WEIGHTS[date.getDayOfWeek().getValue() - 1]
+                * profile.seasonalWeight(month);
+            if (random.nextDouble() * maxWeight < weight) {
+                return date;
+            }
+        }
+    }
+
+    /**
+     * A description from the long tail: common ranks are the profile's plain
+     * descriptions, rarer ranks name a particular place
+     */
+    private static String describe(CategoryProfile profile, SplittableRandom random) {
+        int rank = pick(ZIPF_CDF, random.nextDouble());
+        String base = profile.descriptions[rank % profile.descriptions.length];
+        return rank < profile.descriptions.length ? base : base + " #" + rank;
+    }
+
+    /**
+     * Prices rise by INFLATION a year from the start date
+     */
+    private double priceLevel(LocalDate date) {
+        return Math.pow(1 + INFLATION, (date.toEpochDay() - startDate.toEpochDay()) / 365.25);
+    }
+
+    private static Expense newExpense(int userId, int categoryId, long cents, String description, LocalDate date) {
+        Expense expense = new Expense();
+        expense.setUserId(userId);
+        expense.setCategoryId(categoryId);
+        expense.setMoney(Money.ofCents(Math.max(1, Math.min(cents, MAX_CENTS))));
+        expense.setDescription(description);
+        expense.setExpenseDate(java.sql.Date.valueOf(date));
+        return expense;
+    }
+
+    private SplittableRandom userRandom(int userIndex) {
+        // Mix the index in so neighbouring users do not get overlapping sequences
+        return new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (userIndex + 1)));
+    }
+
+    /**
+     * Index of the first cumulative value above the target
+     */
+    private static int pick(double[] cumulative, double target) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] > target) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static double[] zipfCdf(int ranks, double exponent) {
+        double[] cdf = new double[ranks];
+        double sum = 0;
+        for (int rank = 1; rank <= ranks; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cdf[rank - 1] = sum;
+        }
+        for (int i = 0; i < ranks; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = 10;
+        long expensesPerUser = 1_000;
+        long seed = DEFAULT_SEED;
+        LocalDate end = DEFAULT_END_DATE;
+        LocalDate start = null;
+        int batchSize = ExpenseDAO.DEFAULT_BATCH_SIZE;
+        int threads = 1;
+        String prefix = "synthetic";
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--users" -> users = Integer.parseInt(value);
+                    case "--expenses-per-user" -> expensesPerUser = Long.parseLong(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--start" -> start = LocalDate.parse(value);
+                    case "--end" -> end = LocalDate.parse(value);
+                    case "--batch-size" -> batchSize = Integer.parseInt(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--prefix" -> prefix = value;
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+                i++;
+            }
+            if (prefix.trim().isEmpty() || users <= 0 || expensesPerUser < 0 || batchSize <= 0 || threads <= 0) {
+                throw new IllegalArgumentException("Invalid options");
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: SyntheticDataGenerator [--users N] [--expenses-per-user N] [--seed N]");
+            System.err.println("       [--start yyyy-MM-dd] [--end yyyy-MM-dd] [--batch-size N] [--threads N] [--prefix name]");
+            System.exit(2);
+            return;
+        }
+        if (start == null) {
+            start = end.minusYears(DEFAULT_YEARS).plusDays(1);
+        }
+
+        DatabaseUtil.initializeDatabase();
+        try {
+            System.out.println("Generating " + users + " users with " + expensesPerUser + " expenses each, " +
+                start + " to " + end + ", seed " + seed);
+            long inserted = new SyntheticDataGenerator(seed, start, end)
+                .populate(prefix, users, expensesPerUser, batchSize, threads);
+            System.out.println("Inserted " + inserted + " expenses");
+        } finally {
+            DatabaseUtil.closeConnection();
+        }
+    }
+}
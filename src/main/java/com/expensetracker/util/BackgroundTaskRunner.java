@@ -0,0 +1,191 @@
+package com.expensetracker.util;
+
+import javax.swing.SwingUtilities;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Runs database work off the Event Dispatch Thread and posts the results back
+ * to it.
+ *
+ * Tasks are submitted under a key such as "expenses" or "report". Submitting a
+ * new task under a key supersedes the previous one: the older task is
+ * cancelled if it has not started yet, and its result is discarded if it has.
+ * Tasks submitted with a null key, such as writes, are never superseded.
+ * Running tasks are not interrupted, because interrupting a thread blocked on
+ * a JDBC socket closes the connection underneath the pool.
+ *
+ * All methods must be called on the Event Dispatch Thread, and all callbacks
+ * are invoked on it.
+ */
+public class BackgroundTaskRunner {
+
+    /**
+     * Work to run in the background, with a way to report progress
+     */
+    @FunctionalInterface
+    public interface Task<T> {
+        T run(Progress progress) throws Exception;
+    }
+
+    /**
+     * Progress reporting handle passed to a running task. May be called from
+     * any thread.
+     */
+    @FunctionalInterface
+    public interface Progress {
+        /**
+         * @param percent 0-100, or -1 if the amount of work is unknown
+         * @param message short description of the current step
+         */
+        void update(int percent, String message);
+    }
+
+    /**
+     * Notified on the Event Dispatch Thread when tasks start, finish or report progress
+     */
+    @FunctionalInterface
+    public interface StatusListener {
+        void statusChanged(int activeTasks, int percent, String message);
+    }
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Submission> latest = new HashMap<>();
+    private StatusListener statusListener;
+    private int activeTasks = 0;
+    private long anonymousTasks = 0;
+    private boolean shutdown = false;
+
+    /**
+     * Set the listener used to show progress, e.g. in a status bar
+     */
+    public void setStatusListener(StatusListener statusListener) {
+        this.statusListener = statusListener;
+    }
+
+    /**
+     * Run a query in the background and hand its result to onSuccess on the EDT
+     */
+    public <T> void submit(String key, Callable<T> work, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        submit(key, "Loading...", progress -> work.call(), onSuccess, onError);
+    }
+
+    /**
+     * Run a task in the background and hand its result to onSuccess on the EDT.
+     * Any earlier task under the same key is superseded.
+     *
+     * @param key       tasks with the same key supersede each other; null for a task
+     *                  that must always report back
+     * @param message   status text shown while the task runs
+     * @param task      the work to run off the EDT
+     * @param onSuccess receives the result on the EDT
+     * @param onError   receives any exception on the EDT; may be null
+     */
+    public <T> void submit(String key, String message, Task<T> task,
+                           Consumer<T> onSuccess, Consumer<Exception> onError) {
+        if (shutdown) {
+            return;
+        }
+
+        String taskKey = key != null ? key : "#" + (++anonymousTasks);
+        cancel(taskKey);
+
+        Submission submission = new Submission();
+        latest.put(taskKey, submission);
+        activeTasks++;
+        fireStatus(-1, message);
+
+        Progress progress = (percent, text) -> SwingUtilities.invokeLater(() -> {
+            if (latest.get(taskKey) == submission) {
+                fireStatus(percent, text);
+            }
+        });
+
+        submission.future = executor.submit(() -> {
+            T result = null;
+            Exception failure = null;
+            try {
+                result = task.run(progress);
+            } catch (Exception e) {
+                failure = e;
+            }
+
+            T finalResult = result;
+            Exception finalFailure = failure;
+            SwingUtilities.invokeLater(() -> complete(taskKey, submission, finalResult, finalFailure, onSuccess, onError));
+        });
+    }
+
+    /**
+     * Cancel the task running under the given key, if any. Its callbacks will not run.
+     */
+    public void cancel(String key) {
+        Submission previous = latest.remove(key);
+        if (previous != null) {
+            previous.future.cancel(false);
+            finished();
+        }
+    }
+
+    /**
+     * Returns true if a task is currently running under the given key
+     */
+    public boolean isRunning(String key) {
+        return latest.containsKey(key);
+    }
+
+    /**
+     * Stop accepting tasks and discard the results of running ones
+     */
+    public void shutdown() {
+        shutdown = true;
+        for (Submission submission : latest.values()) {
+            submission.future.cancel(false);
+        }
+        latest.clear();
+        activeTasks = 0;
+        executor.shutdown();
+    }
+
+    private <T> void complete(String key, Submission submission, T result, Exception failure,
+                              Consumer<T> onSuccess, Consumer<Exception> onError) {
+        if (latest.get(key) != submission) {
+            // Superseded or cancelled while running
+            return;
+        }
+        latest.remove(key);
+        finished();
+
+        if (failure != null) {
+            failure.printStackTrace();
+            if (onError != null) {
+                onError.accept(failure);
+            }
+        } else if (onSuccess != null) {
+            onSuccess.accept(result);
+        }
+    }
+
+    private void finished() {
+        activeTasks = Math.max(0, activeTasks - 1);
+        fireStatus(activeTasks == 0 ? 100 : -1, activeTasks == 0 ? "Ready" : "Loading...");
+    }
+
+    private void fireStatus(int percent, String message) {
+        if (statusListener != null) {
+            statusListener.statusChanged(activeTasks, percent, message);
+        }
+    }
+
+    /**
+     * Identity of one submitted task
+     */
+    private static final class Submission {
+        Future<?> future;
+    }
+}
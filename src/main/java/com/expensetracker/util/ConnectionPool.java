@@ -0,0 +1,574 @@
+package com.expensetracker.util;
+
+import com.expensetracker.metrics.MetricsRegistry;
+import com.expensetracker.metrics.Timer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded pool of JDBC connections.
+ *
+ * Callers borrow a connection with {@link #getConnection()} and hand it back by
+ * closing it, so the usual try-with-resources blocks in the DAOs return the
+ * physical connection to the pool instead of tearing it down. Connections are
+ * validated on borrow, evicted when idle for too long or past their maximum
+ * lifetime, and reported when they are held longer than the leak threshold.
+ * Leak reports name the borrowing thread; set the expensetracker.pool.leakDebug
+ * system property to true to also record the stack trace of every borrow.
+ *
+ * Each physical connection also keeps an LRU cache of its prepared
+ * statements, so repeated DAO calls reuse the statement the driver and the
+ * server have already parsed.
+ */
+public class ConnectionPool {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /**
+     * System property that turns on a stack trace per borrow for leak reports
+     */
+    public static final String LEAK_DEBUG_PROPERTY = "expensetracker.pool.leakDebug";
+
+    // Filling in a stack trace costs more than a pooled borrow, so it is opt-in
+    private static final boolean LEAK_DEBUG = Boolean.getBoolean(LEAK_DEBUG_PROPERTY);
+
+    // Time from asking for a connection to getting one, across all pools
+    private static final Timer BORROW_TIMER = MetricsRegistry.timer("pool.ConnectionPool.borrow");
+
+    private final String url;
+    private final String fallbackUrl;
+    private final String user;
+    private final String password;
+
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final long leakThresholdMillis;
+    private final int statementCacheSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> leased = ConcurrentHashMap.newKeySet();
+    private int totalConnections = 0;
+    private int waitingThreads = 0;
+    private boolean shutdown = false;
+
+    private final ScheduledExecutorService housekeeper;
+
+    // Borrow metrics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowWaitNanos = new AtomicLong();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong connectionsEvicted = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final StatementCache.Stats statementStats = new StatementCache.Stats();
+
+    /**
+     * Constructor
+     *
+     * @param url                 primary JDBC URL
+     * @param fallbackUrl         URL tried when the primary one fails, may be null
+     * @param user                database user
+     * @param password            database password
+     * @param maxSize             maximum number of physical connections
+     * @param borrowTimeoutMillis how long a borrower waits for a free connection
+     * @param idleTimeoutMillis   idle connections older than this are closed
+     * @param maxLifetimeMillis   connections older than this are retired
+     * @param leakThresholdMillis connections held longer than this are reported
+     * @param statementCacheSize  prepared statements cached per connection, 0 disables the cache
+     */
+    public ConnectionPool(String url, String fallbackUrl, String user, String password,
+                          int maxSize, long borrowTimeoutMillis, long idleTimeoutMillis,
+                          long maxLifetimeMillis, long leakThresholdMillis, int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.url = url;
+        this.fallbackUrl = fallbackUrl;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = statementCacheSize;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMillis, leakThresholdMillis) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection from the pool. Closing the returned connection
+     * gives it back to the pool.
+     */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        PooledConnection pooled = null;
+
+        while (pooled == null) {
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (shutdown) {
+                        throw new SQLException("Connection pool has been shut down");
+                    }
+                    if (!idle.isEmpty()) {
+                        pooled = idle.pollFirst();
+                        break;
+                    }
+                    if (totalConnections < maxSize) {
+                        // Reserve the slot now, open the connection outside the lock
+                        totalConnections++;
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        borrowTimeouts.incrementAndGet();
+                        throw new SQLException("Timed out after " + borrowTimeoutMillis +
+                                               " ms waiting for a database connection");
+                    }
+                    waitingThreads++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waitingThreads--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    pooled = new PooledConnection(openPhysicalConnection());
+                    connectionsCreated.incrementAndGet();
+                } catch (SQLException e) {
+                    releaseSlot();
+                    throw e;
+                }
+            } else if (!isUsable(pooled)) {
+                // Stale connection; drop it and try again
+                discard(pooled);
+                pooled = null;
+            }
+        }
+
+        recordBorrowWait(System.nanoTime() - start);
+        return pooled.lease();
+    }
+
+    /**
+     * Close all idle connections and refuse further borrows. Connections that
+     * are currently lent out are closed when they are returned.
+     */
+    public void shutdown() {
+        housekeeper.shutdownNow();
+        lock.lock();
+        try {
+            shutdown = true;
+            for (PooledConnection pooled : idle) {
+                pooled.close();
+                totalConnections--;
+            }
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a one-line summary of the pool state and borrow metrics
+     */
+    public String getStatistics() {
+        long borrows = borrowCount.get();
+        long avgWaitMicros = borrows == 0 ? 0 : borrowWaitNanos.get() / borrows / 1000;
+        return "ConnectionPool{total=" + getTotalConnections() +
+               ", idle=" + getIdleConnections() +
+               ", waiting=" + getWaitingThreads() +
+               ", borrows=" + borrows +
+               ", avgWaitMicros=" + avgWaitMicros +
+               ", maxWaitMicros=" + maxBorrowWaitNanos.get() / 1000 +
+               ", timeouts=" + borrowTimeouts.get() +
+               ", created=" + connectionsCreated.get() +
+               ", evicted=" + connectionsEvicted.get() +
+               ", leaks=" + leaksDetected.get() +
+               ", statementHits=" + statementStats.hits.get() +
+               ", statementMisses=" + statementStats.misses.get() +
+               ", statementEvictions=" + statementStats.evictions.get() +
+               '}';
+    }
+
+    public int getTotalConnections() {
+        lock.lock();
+        try {
+            return totalConnections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getIdleConnections() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getActiveConnections() {
+        lock.lock();
+        try {
+            return totalConnections - idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaitingThreads() {
+        lock.lock();
+        try {
+            return waitingThreads;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    public long getTotalBorrowWaitNanos() {
+        return borrowWaitNanos.get();
+    }
+
+    public long getMaxBorrowWaitNanos() {
+        return maxBorrowWaitNanos.get();
+    }
+
+    public long getBorrowTimeouts() {
+        return borrowTimeouts.get();
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected.get();
+    }
+    
+    public long getStatementCacheHits() {
+        return statementStats.hits.get();
+    }
+    
+    public long getStatementCacheMisses() {
+        return statementStats.misses.get();
+    }
+    
+    public long getStatementCacheEvictions() {
+        return statementStats.evictions.get();
+    }
+    
+    /**
+     * Fraction of prepareStatement calls served from the statement cache
+     */
+    public double getStatementCacheHitRate() {
+        long hits = statementStats.hits.get();
+        long total = hits + statementStats.misses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * Opens a new physical connection, falling back to the simple URL if the
+     * full one is rejected
+     */
+    private Connection openPhysicalConnection() throws SQLException {
+        try {
+            return DriverManager.getConnection(url, user, password);
+        } catch (SQLException e) {
+            if (fallbackUrl == null) {
+                throw e;
+            }
+            System.out.println("Error connecting with full URL: " + e.getMessage());
+            return DriverManager.getConnection(fallbackUrl, user, password);
+        }
+    }
+
+    /**
+     * Validation on borrow: retire connections past their lifetime and ping the rest
+     */
+    private boolean isUsable(PooledConnection pooled) {
+        if (isExpired(pooled, System.currentTimeMillis())) {
+            return false;
+        }
+        try {
+            return !pooled.physical.isClosed() && pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection pooled, long now) {
+        return maxLifetimeMillis > 0 && now - pooled.createdAt >= maxLifetimeMillis;
+    }
+
+    /**
+     * Called when a borrower closes its connection
+     */
+    private void release(PooledConnection pooled) {
+        boolean healthy = pooled.resetState();
+
+        lock.lock();
+        try {
+            if (!shutdown && healthy && !isExpired(pooled, System.currentTimeMillis())) {
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                // LIFO keeps the warmest connections in use and lets the rest age out
+                idle.addFirst(pooled);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(pooled);
+    }
+
+    private void discard(PooledConnection pooled) {
+        pooled.close();
+        connectionsEvicted.incrementAndGet();
+        releaseSlot();
+    }
+
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            totalConnections--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Periodic idle eviction, lifetime retirement and leak detection
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        Deque<PooledConnection> evicted = new ArrayDeque<>();
+
+        lock.lock();
+        try {
+            Iterator<PooledConnection> it = idle.iterator();
+            while (it.hasNext()) {
+                PooledConnection pooled = it.next();
+                boolean idleTooLong = idleTimeoutMillis > 0 && now - pooled.lastReturnedAt >= idleTimeoutMillis;
+                if (idleTooLong || isExpired(pooled, now)) {
+                    it.remove();
+                    evicted.add(pooled);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pooled : evicted) {
+            discard(pooled);
+        }
+
+        reportLeaks(now);
+    }
+
+    private void recordBorrowWait(long waitNanos) {
+        borrowCount.incrementAndGet();
+        borrowWaitNanos.addAndGet(waitNanos);
+        maxBorrowWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        BORROW_TIMER.record(waitNanos);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.out.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool plus its bookkeeping
+     */
+    private final class PooledConnection {
+        final Connection physical;
+        final StatementCache statements;
+        final long createdAt = System.currentTimeMillis();
+        volatile long lastReturnedAt = createdAt;
+
+        volatile long leasedAt;
+        volatile String leasedBy;
+        volatile Throwable leaseTrace;
+        volatile boolean leakReported;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = statementCacheSize > 0
+                ? new StatementCache(physical, statementCacheSize, statementStats)
+                : null;
+        }
+
+        /**
+         * Hands out a fresh logical handle for this physical connection
+         */
+        Connection lease() {
+            leasedAt = System.currentTimeMillis();
+            leasedBy = Thread.currentThread().getName();
+            leakReported = false;
+            leaseTrace = LEAK_DEBUG && leakThresholdMillis > 0
+                ? new Throwable("Connection borrowed by " + leasedBy)
+                : null;
+            leased.add(this);
+            return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new LogicalConnection(this));
+        }
+
+        /**
+         * Restore the defaults a borrower may have changed. Returns false if the
+         * connection should not be reused.
+         */
+        boolean resetState() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void giveBack() {
+            leased.remove(this);
+            leaseTrace = null;
+            release(this);
+        }
+
+        /**
+         * Close the cached statements, then the physical connection
+         */
+        void close() {
+            if (statements != null) {
+                statements.close();
+            }
+            closeQuietly(physical);
+        }
+    }
+
+    /**
+     * Reports connections that have been borrowed for longer than the leak threshold
+     */
+    private void reportLeaks(long now) {
+        if (leakThresholdMillis <= 0) {
+            return;
+        }
+        for (PooledConnection pooled : leased) {
+            if (!pooled.leakReported && now - pooled.leasedAt >= leakThresholdMillis) {
+                pooled.leakReported = true;
+                leaksDetected.incrementAndGet();
+                System.out.println("Possible connection leak: connection borrowed by " + pooled.leasedBy +
+                                   " held for " + (now - pooled.leasedAt) + " ms");
+                Throwable trace = pooled.leaseTrace;
+                if (trace != null) {
+                    trace.printStackTrace();
+                } else {
+                    System.out.println("Run with -D" + LEAK_DEBUG_PROPERTY + "=true to see where it was borrowed");
+                }
+            }
+        }
+    }
+
+    /**
+     * The handle given to borrowers. Closing it returns the physical connection
+     * to the pool; any use after that fails like a closed connection would.
+     */
+    private static final class LogicalConnection implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean closed = false;
+
+        LogicalConnection(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pooled.giveBack();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (closed ? ", closed]" : "]");
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+            if (pooled.statements != null && StatementCache.isCacheable(method, args)) {
+                int autoGeneratedKeys = args.length > 1 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                return pooled.statements.prepare((String) args[0], autoGeneratedKeys, (Connection) proxy);
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
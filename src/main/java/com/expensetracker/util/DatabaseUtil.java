@@ -1,56 +1,41 @@
 package com.expensetracker.util;
 
+import com.expensetracker.dao.EmbeddedStorageEngine;
+import com.expensetracker.dao.MySqlStorageEngine;
+import com.expensetracker.dao.StorageEngine;
+import com.expensetracker.metrics.MetricsRegistry;
+
 import java.sql.*;
 
 /**
  * Utility class for database operations
  */
 public class DatabaseUtil {
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/";
-    private static final String DB_NAME = "expense_tracker";
-    private static final String DB_USER = "root";
-    private static final String DB_PASSWORD = "dbms123"; // Change this to your MySQL password
     
-    // Connection string with extra parameters for compatibility
-    private static final String FULL_DB_URL = 
-        "jdbc:mysql://localhost:3306/" + DB_NAME + 
-        "?useSSL=false&allowPublicKeyRetrieval=true&useUnicode=true&characterEncoding=UTF-8" +
-        "&createDatabaseIfNotExist=true";
+    /**
+     * System property selecting the storage engine: "mysql" (the default) or "embedded"
+     */
+    public static final String STORAGE_PROPERTY = "expensetracker.storage";
     
-    private static Connection connection;
+    private static volatile StorageEngine storageEngine;
+    private static volatile ConnectionPool pool;
     
     /**
      * Initializes the database by creating it if it doesn't exist
      * and creating all required tables
      */
     public static void initializeDatabase() throws SQLException {
+        StorageEngine engine = getStorageEngine();
         try {
             // Create database if needed
-            try (Connection tempConnection = DriverManager.getConnection(
-                    "jdbc:mysql://localhost:3306/?useSSL=false&allowPublicKeyRetrieval=true", 
-                    DB_USER, DB_PASSWORD);
-                 Statement statement = tempConnection.createStatement()) {
-                
-                statement.executeUpdate("CREATE DATABASE IF NOT EXISTS " + DB_NAME);
-                System.out.println("Database created or exists: " + DB_NAME);
-            } catch (SQLException e) {
-                System.out.println("Error creating database: " + e.getMessage());
-                throw e;
-            }
+            engine.createDatabase();
             
             // Connect to the database
-            connection = getConnection();
-            System.out.println("Connected to database: " + DB_NAME);
-            
-            // First, let's check if the tables exist with correct schema
-            if (!tablesExistWithCorrectSchema()) {
-                System.out.println("Tables don't exist or schema is incorrect. Creating tables...");
-                // Drop tables if they exist with incorrect schema
-                dropTables();
-                // Create tables
-                createTables();
-            } else {
-                System.out.println("Tables exist with correct schema.");
+            try (Connection connection = getConnection()) {
+                System.out.println("Connected to " + engine.getName() + " database");
+                
+                // Create or upgrade the schema
+                engine.migrate(connection);
             }
             
         } catch (SQLException e) {
@@ -60,180 +45,96 @@ public class DatabaseUtil {
     }
     
     /**
-     * Check if tables exist with correct schema
+     * Returns the storage engine chosen by the expensetracker.storage property
      */
-    private static boolean tablesExistWithCorrectSchema() {
-        try {
-            DatabaseMetaData metaData = connection.getMetaData();
-            
-            // Check tables existence
-            boolean usersExist = false;
-            boolean categoriesExist = false;
-            boolean expensesExist = false;
-            
-            try (ResultSet tables = metaData.getTables(null, null, "%", new String[]{"TABLE"})) {
-                while (tables.next()) {
-                    String tableName = tables.getString("TABLE_NAME");
-                    if ("users".equalsIgnoreCase(tableName)) {
-                        usersExist = true;
-                    } else if ("categories".equalsIgnoreCase(tableName)) {
-                        categoriesExist = true;
-                    } else if ("expenses".equalsIgnoreCase(tableName)) {
-                        expensesExist = true;
-                    }
+    public static StorageEngine getStorageEngine() {
+        StorageEngine current = storageEngine;
+        if (current == null) {
+            synchronized (DatabaseUtil.class) {
+                current = storageEngine;
+                if (current == null) {
+                    current = createStorageEngine(System.getProperty(STORAGE_PROPERTY, MySqlStorageEngine.NAME));
+                    storageEngine = current;
                 }
             }
-            
-            if (!usersExist || !categoriesExist || !expensesExist) {
-                return false;
-            }
-            
-            // Verify columns in expenses table
-            boolean categoryIdExists = false;
-            
-            try (ResultSet columns = metaData.getColumns(null, null, "expenses", null)) {
-                while (columns.next()) {
-                    String columnName = columns.getString("COLUMN_NAME");
-                    if ("category_id".equalsIgnoreCase(columnName)) {
-                        categoryIdExists = true;
-                        break;
-                    }
-                }
-            }
-            
-            return categoryIdExists;
-            
-        } catch (SQLException e) {
-            System.out.println("Error checking schema: " + e.getMessage());
-            return false;
         }
+        return current;
     }
     
     /**
-     * Drops all tables if they exist
+     * Use the given storage engine instead of the configured one. Must be
+     * called before the first connection is borrowed.
      */
-    private static void dropTables() throws SQLException {
-        Statement statement = connection.createStatement();
-        
-        // Disable foreign key checks to allow dropping tables with dependencies
-        statement.execute("SET FOREIGN_KEY_CHECKS = 0");
-        
-        try {
-            // Drop tables in reverse order of dependencies
-            statement.executeUpdate("DROP TABLE IF EXISTS expenses");
-            statement.executeUpdate("DROP TABLE IF EXISTS categories");
-            statement.executeUpdate("DROP TABLE IF EXISTS users");
-        } finally {
-            // Re-enable foreign key checks
-            statement.execute("SET FOREIGN_KEY_CHECKS = 1");
-            statement.close();
+    public static synchronized void setStorageEngine(StorageEngine engine) {
+        if (pool != null) {
+            throw new IllegalStateException("The storage engine cannot change once connections are in use");
+        }
+        storageEngine = engine;
+    }
+    
+    private static StorageEngine createStorageEngine(String name) {
+        switch (name.trim().toLowerCase()) {
+            case EmbeddedStorageEngine.NAME:
+                return new EmbeddedStorageEngine();
+            case MySqlStorageEngine.NAME:
+                return new MySqlStorageEngine();
+            default:
+                System.out.println("Unknown storage engine '" + name + "', using " + MySqlStorageEngine.NAME);
+                return new MySqlStorageEngine();
         }
     }
     
     /**
-     * Creates all necessary tables for the expense tracker
+     * Borrows a connection from the pool. Closing it returns it to the pool.
      */
-    private static void createTables() throws SQLException {
-        Statement statement = connection.createStatement();
-        
-        // Create users table
-        statement.executeUpdate(
-            "CREATE TABLE IF NOT EXISTS users (" +
-            "user_id INT AUTO_INCREMENT PRIMARY KEY," +
-            "username VARCHAR(50) UNIQUE NOT NULL," +
-            "password VARCHAR(100) NOT NULL," +
-            "email VARCHAR(100) UNIQUE NOT NULL," +
-            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-            ")"
-        );
-        
-        // Create expense categories table
-        statement.executeUpdate(
-            "CREATE TABLE IF NOT EXISTS categories (" +
-            "category_id INT AUTO_INCREMENT PRIMARY KEY," +
-            "name VARCHAR(50) NOT NULL," +
-            "description VARCHAR(200)," +
-            "user_id INT," +
-            "is_default BOOLEAN DEFAULT FALSE," +
-            "FOREIGN KEY (user_id) REFERENCES users(user_id)" +
-            ")"
-        );
-        
-        // Create expenses table
-        statement.executeUpdate(
-            "CREATE TABLE IF NOT EXISTS expenses (" +
-            "expense_id INT AUTO_INCREMENT PRIMARY KEY," +
-            "user_id INT NOT NULL," +
-            "category_id INT NOT NULL," +
-            "amount DECIMAL(10,2) NOT NULL," +
-            "description VARCHAR(200)," +
-            "expense_date DATE NOT NULL," +
-            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-            "FOREIGN KEY (user_id) REFERENCES users(user_id)," +
-            "FOREIGN KEY (category_id) REFERENCES categories(category_id)" +
-            ")"
-        );
-        
-        // Insert default categories
-        insertDefaultCategories();
-        
-        statement.close();
+    public static Connection getConnection() throws SQLException {
+        return getPool().getConnection();
     }
     
     /**
-     * Inserts default expense categories
+     * Returns the shared connection pool, creating it on first use
      */
-    private static void insertDefaultCategories() throws SQLException {
-        // Check if default categories already exist
-        try (PreparedStatement checkStmt = connection.prepareStatement(
-                "SELECT COUNT(*) FROM categories WHERE is_default = TRUE")) {
-            
-            ResultSet rs = checkStmt.executeQuery();
-            if (rs.next() && rs.getInt(1) > 0) {
-                return; // Default categories already exist
-            }
-        }
-        
-        // Insert default categories
-        String[] defaultCategories = {"Food", "Transport", "Housing", "Entertainment", "Healthcare", "Education", "Shopping", "Utilities", "Other"};
-        String sql = "INSERT INTO categories (name, description, is_default) VALUES (?, ?, TRUE)";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            for (String category : defaultCategories) {
-                pstmt.setString(1, category);
-                pstmt.setString(2, category + " expenses");
-                pstmt.executeUpdate();
+    public static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseUtil.class) {
+                current = pool;
+                if (current == null) {
+                    current = getStorageEngine().createPool();
+                    pool = current;
+                    registerPoolGauges(current);
+                }
             }
         }
+        return current;
     }
     
     /**
-     * Returns a database connection
+     * Publish the state of a new pool; gauges of a replaced pool move over to it
      */
-    public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            try {
-                // Try to establish connection with full parameters
-                connection = DriverManager.getConnection(FULL_DB_URL, DB_USER, DB_PASSWORD);
-            } catch (SQLException e) {
-                System.out.println("Error connecting with full URL: " + e.getMessage());
-                // Fall back to simple URL
-                connection = DriverManager.getConnection(DB_URL + DB_NAME, DB_USER, DB_PASSWORD);
-            }
-        }
-        return connection;
+    private static void registerPoolGauges(ConnectionPool current) {
+        MetricsRegistry.gauge("pool.totalConnections", current::getTotalConnections);
+        MetricsRegistry.gauge("pool.activeConnections", current::getActiveConnections);
+        MetricsRegistry.gauge("pool.idleConnections", current::getIdleConnections);
+        MetricsRegistry.gauge("pool.waitingThreads", current::getWaitingThreads);
+        MetricsRegistry.gauge("pool.borrowTimeouts", current::getBorrowTimeouts);
+        MetricsRegistry.gauge("pool.leaksDetected", current::getLeaksDetected);
+        MetricsRegistry.gauge("pool.statementCacheHits", current::getStatementCacheHits);
+        MetricsRegistry.gauge("pool.statementCacheMisses", current::getStatementCacheMisses);
     }
     
     /**
-     * Closes the database connection
+     * Shuts down the connection pool and closes all pooled connections
      */
     public static void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+        ConnectionPool current;
+        synchronized (DatabaseUtil.class) {
+            current = pool;
+            pool = null;
+        }
+        if (current != null) {
+            System.out.println(current.getStatistics());
+            current.shutdown();
         }
     }
     
@@ -241,20 +142,15 @@ public class DatabaseUtil {
      * Test the database connection and print diagnostic information
      */
     public static boolean testConnection() {
-        try {
-            Connection conn = getConnection();
+        try (Connection conn = getConnection()) {
             System.out.println("Database connection successful!");
             
-            // Print MySQL version
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery("SELECT VERSION()")) {
-                if (rs.next()) {
-                    System.out.println("MySQL version: " + rs.getString(1));
-                }
-            }
+            // Print database version
+            DatabaseMetaData metaData = conn.getMetaData();
+            System.out.println(metaData.getDatabaseProductName() + " version: " +
+                metaData.getDatabaseProductVersion());
             
             // Print table information
-            DatabaseMetaData metaData = conn.getMetaData();
             
             // Check users table
             try (ResultSet rs = metaData.getTables(null, null, "users", null)) {
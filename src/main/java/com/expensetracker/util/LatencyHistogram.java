@@ -0,0 +1,201 @@
+package com.expensetracker.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in nanoseconds that many threads can record into
+ * without locking.
+ *
+ * Buckets are log-linear, in the style of HdrHistogram: each power of two is
+ * split into equal sub-buckets, so any recorded value is reported within
+ * about 0.8% of its true value while the whole range up to days fits in a
+ * few thousand counters. Percentiles report the upper end of their bucket.
+ *
+ * Recording is striped like a LongAdder: bucket counts start in a single
+ * stripe, and the stripes double, up to about one per CPU, when recorders
+ * collide. Threads pick a stripe by their ID. The stripes are summed when a
+ * percentile is read.
+ */
+public class LatencyHistogram {
+
+    // Each power of two is split into 2^(SUB_BUCKET_BITS - 1) buckets
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT =
+        SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+    // Power of two; each stripe costs BUCKET_COUNT longs, so only contended histograms grow
+    private static final int MAX_STRIPES =
+        Math.min(16, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)));
+
+    private volatile AtomicLongArray[] stripes = {new AtomicLongArray(BUCKET_COUNT)};
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record one latency; negative values are recorded as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        int index = indexOf(value);
+
+        AtomicLongArray[] current = stripes;
+        AtomicLongArray stripe = current[stripeIndex(current.length)];
+        long before = stripe.get(index);
+        if (!stripe.compareAndSet(index, before, before + 1)) {
+            // Another thread hit the same stripe; count anyway and spread out
+            stripe.incrementAndGet(index);
+            grow(current);
+        }
+
+        count.increment();
+        total.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Smallest recorded value, or 0 if nothing was recorded
+     */
+    public long getMin() {
+        long value = min.get();
+        return value == Long.MAX_VALUE ? 0 : value;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    /**
+     * Value at or below which the given percentage of recorded values fall
+     *
+     * @param percentile between 0 and 100
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] counts = snapshot();
+        long n = 0;
+        for (long bucketCount : counts) {
+            n += bucketCount;
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueAt(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Add the values recorded in another histogram to this one
+     */
+    public void add(LatencyHistogram other) {
+        long[] counts = other.snapshot();
+        AtomicLongArray target = stripes[0];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] > 0) {
+                target.addAndGet(i, counts[i]);
+            }
+        }
+        count.add(other.count.sum());
+        total.add(other.total.sum());
+        min.accumulate(other.min.get());
+        max.accumulate(other.max.get());
+    }
+
+    /**
+     * Forget all recorded values. Values recorded concurrently may be partly kept.
+     */
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                stripe.set(i, 0);
+            }
+        }
+        count.reset();
+        total.reset();
+        min.reset();
+        max.reset();
+    }
+
+    /**
+     * Count, mean and the usual percentiles in milliseconds, for logging
+     */
+    public String getSummary() {
+        return String.format("count=%d, mean=%.2fms, p50=%.2fms, p90=%.2fms, p99=%.2fms, p99.9=%.2fms, max=%.2fms",
+            getCount(), getMean() / 1e6, getValueAtPercentile(50) / 1e6, getValueAtPercentile(90) / 1e6,
+            getValueAtPercentile(99) / 1e6, getValueAtPercentile(99.9) / 1e6, getMax() / 1e6);
+    }
+
+    /**
+     * Bucket counts summed over all stripes
+     */
+    private long[] snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] += stripe.get(i);
+            }
+        }
+        return counts;
+    }
+
+    private static int stripeIndex(int stripeCount) {
+        // Fibonacci hashing spreads consecutive thread IDs over the stripes
+        long id = Thread.currentThread().threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (stripeCount - 1);
+    }
+
+    /**
+     * Double the stripes after a collision, unless another thread already did
+     */
+    private synchronized void grow(AtomicLongArray[] seen) {
+        if (stripes != seen || seen.length >= MAX_STRIPES) {
+            return;
+        }
+        AtomicLongArray[] grown = Arrays.copyOf(seen, seen.length * 2);
+        for (int i = seen.length; i < grown.length; i++) {
+            grown[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+        stripes = grown;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // Keep the top SUB_BUCKET_BITS bits of the value
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (subBucket - SUB_BUCKET_HALF);
+    }
+
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,271 @@
+package com.expensetracker.util;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Brings the database schema up to date by applying numbered migrations in
+ * order. Applied versions are recorded in the schema_version table together
+ * with a checksum of their statements, so a normal start costs a single
+ * primary key scan and existing data is never dropped.
+ *
+ * To change the schema, append a new migration to MIGRATIONS. Never edit a
+ * migration that has been released: its checksum would no longer match the
+ * databases it was applied to. MIGRATIONS is the MySQL schema; other storage
+ * engines pass their own list to {@link #migrate(Connection, List, boolean)}.
+ */
+public final class SchemaMigrator {
+
+    // MySQL error for CREATE INDEX on a name that already exists
+    private static final int ER_DUP_KEYNAME = 1061;
+    // MySQL error for ADD COLUMN on a name that already exists
+    private static final int ER_DUP_FIELDNAME = 1060;
+
+    // Named lock so two instances starting at once do not migrate concurrently
+    private static final String LOCK_NAME = "expense_tracker_schema";
+    private static final int LOCK_TIMEOUT_SECONDS = 30;
+
+    /**
+     * One schema change
+     */
+    public static final class Migration {
+        final int version;
+        final String description;
+        final List<String> statements;
+
+        public Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = List.of(statements);
+        }
+
+        long checksum() {
+            CRC32 crc = new CRC32();
+            for (String statement : statements) {
+                crc.update(statement.getBytes(StandardCharsets.UTF_8));
+                crc.update(';');
+            }
+            return crc.getValue();
+        }
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+        // Tables as created by earlier versions; IF NOT EXISTS adopts existing databases
+        new Migration(1, "Create users, categories and expenses tables",
+            "CREATE TABLE IF NOT EXISTS users (" +
+            "user_id INT AUTO_INCREMENT PRIMARY KEY," +
+            "username VARCHAR(50) UNIQUE NOT NULL," +
+            "password VARCHAR(100) NOT NULL," +
+            "email VARCHAR(100) UNIQUE NOT NULL," +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+            ")",
+            "CREATE TABLE IF NOT EXISTS categories (" +
+            "category_id INT AUTO_INCREMENT PRIMARY KEY," +
+            "name VARCHAR(50) NOT NULL," +
+            "description VARCHAR(200)," +
+            "user_id INT," +
+            "is_default BOOLEAN DEFAULT FALSE," +
+            "FOREIGN KEY (user_id) REFERENCES users(user_id)" +
+            ")",
+            "CREATE TABLE IF NOT EXISTS expenses (" +
+            "expense_id INT AUTO_INCREMENT PRIMARY KEY," +
+            "user_id INT NOT NULL," +
+            "category_id INT NOT NULL," +
+            "amount DECIMAL(10,2) NOT NULL," +
+            "description VARCHAR(200)," +
+            "expense_date DATE NOT NULL," +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+            "FOREIGN KEY (user_id) REFERENCES users(user_id)," +
+            "FOREIGN KEY (category_id) REFERENCES categories(category_id)" +
+            ")"),
+
+        new Migration(2, "Insert default categories",
+            "INSERT INTO categories (name, description, is_default) " +
+            "SELECT d.name, CONCAT(d.name, ' expenses'), TRUE FROM (" +
+            "SELECT 'Food' AS name UNION ALL SELECT 'Transport' UNION ALL SELECT 'Housing' " +
+            "UNION ALL SELECT 'Entertainment' UNION ALL SELECT 'Healthcare' UNION ALL SELECT 'Education' " +
+            "UNION ALL SELECT 'Shopping' UNION ALL SELECT 'Utilities' UNION ALL SELECT 'Other'" +
+            ") d WHERE NOT EXISTS (SELECT 1 FROM categories WHERE is_default = TRUE)"),
+
+        // Every expense query filters on user_id plus a date range or category and
+        // sorts by date
+        new Migration(3, "Add composite expense indexes",
+            // InnoDB appends the primary key after all declared columns, so
+            // expense_id is listed explicitly for the keyset (expense_date,
+            // expense_id) ordering of the expense list; amount and category_id
+            // cover date-range totals and monthly aggregation without touching rows
+            "CREATE INDEX idx_expenses_user_date ON expenses " +
+            "(user_id, expense_date, expense_id, amount, category_id)",
+            // Category filter on the expense list and per-category summaries
+            "CREATE INDEX idx_expenses_user_category_date ON expenses " +
+            "(user_id, category_id, expense_date)"),
+
+        // UserDAO looks users up by the lower-cased name, kept in a generated
+        // column because the embedded engine has no functional indexes
+        new Migration(4, "Add case-insensitive username index",
+            "ALTER TABLE users ADD COLUMN username_lower VARCHAR(50) " +
+            "GENERATED ALWAYS AS (LOWER(username)) VIRTUAL",
+            "CREATE INDEX idx_users_username_lower ON users (username_lower)"),
+
+        // Expense totals per user, month and category, kept up to date by every
+        // write in ExpenseDAO so monthly and all-time totals read a few rows
+        // instead of scanning every expense. CREATE TABLE commits implicitly, so
+        // the backfill may run again after an interrupted start and overwrites
+        // what it finds rather than failing on the rows it inserted before.
+        new Migration(5, "Add monthly expense rollup",
+            "CREATE TABLE IF NOT EXISTS expense_monthly_rollup (" +
+            "user_id INT NOT NULL," +
+            "year SMALLINT NOT NULL," +
+            "month TINYINT NOT NULL," +
+            "category_id INT NOT NULL," +
+            "total DECIMAL(14,2) NOT NULL," +
+            "expense_count INT NOT NULL," +
+            "PRIMARY KEY (user_id, year, month, category_id)," +
+            "FOREIGN KEY (user_id) REFERENCES users(user_id)," +
+            "FOREIGN KEY (category_id) REFERENCES categories(category_id)" +
+            ")",
+            "INSERT INTO expense_monthly_rollup (user_id, year, month, category_id, total, expense_count) " +
+            "SELECT user_id, YEAR(expense_date), MONTH(expense_date), category_id, SUM(amount), COUNT(*) " +
+            "FROM expenses GROUP BY user_id, YEAR(expense_date), MONTH(expense_date), category_id " +
+            "ON DUPLICATE KEY UPDATE total = VALUES(total), expense_count = VALUES(expense_count)")
+    );
+
+    private SchemaMigrator() {
+    }
+
+    /**
+     * Apply all pending migrations
+     *
+     * @throws SQLException if a migration fails or an applied migration was changed
+     */
+    public static void migrate(Connection connection) throws SQLException {
+        migrate(connection, MIGRATIONS, true);
+    }
+
+    /**
+     * Apply all pending migrations of the given schema
+     *
+     * @param serverLock hold a MySQL named lock while migrating, for databases
+     *                   that several application instances can open at once
+     * @throws SQLException if a migration fails or an applied migration was changed
+     */
+    public static void migrate(Connection connection, List<Migration> migrations,
+                               boolean serverLock) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(
+                "CREATE TABLE IF NOT EXISTS schema_version (" +
+                "version INT PRIMARY KEY," +
+                "description VARCHAR(200) NOT NULL," +
+                "checksum BIGINT NOT NULL," +
+                "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                ")"
+            );
+        }
+
+        Map<Integer, Long> applied = getAppliedVersions(connection);
+        if (applied.size() == migrations.size() && verify(applied, migrations)) {
+            System.out.println("Schema is up to date at version " + migrations.size());
+            return;
+        }
+
+        if (serverLock) {
+            acquireLock(connection);
+        }
+        try {
+            // Another instance may have migrated while we waited for the lock
+            applied = getAppliedVersions(connection);
+            verify(applied, migrations);
+
+            for (Migration migration : migrations) {
+                if (!applied.containsKey(migration.version)) {
+                    apply(connection, migration);
+                }
+            }
+        } finally {
+            if (serverLock) {
+                releaseLock(connection);
+            }
+        }
+    }
+
+    /**
+     * Check the recorded checksums against the known migrations
+     *
+     * @return true if every known migration has been applied
+     */
+    private static boolean verify(Map<Integer, Long> applied, List<Migration> migrations) throws SQLException {
+        boolean complete = true;
+        for (Migration migration : migrations) {
+            Long checksum = applied.get(migration.version);
+            if (checksum == null) {
+                complete = false;
+            } else if (checksum != migration.checksum()) {
+                throw new SQLException("Schema migration " + migration.version +
+                    " (" + migration.description + ") was changed after it was applied");
+            }
+        }
+        return complete;
+    }
+
+    private static Map<Integer, Long> getAppliedVersions(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT version, checksum FROM schema_version");
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        System.out.println("Applying schema migration " + migration.version + ": " + migration.description);
+
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : migration.statements) {
+                try {
+                    statement.executeUpdate(sql);
+                } catch (SQLException e) {
+                    // Index or column created by an earlier version or an interrupted run
+                    if (e.getErrorCode() != ER_DUP_KEYNAME && e.getErrorCode() != ER_DUP_FIELDNAME) {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "INSERT INTO schema_version (version, description, checksum) VALUES (?, ?, ?)")) {
+            pstmt.setInt(1, migration.version);
+            pstmt.setString(2, migration.description);
+            pstmt.setLong(3, migration.checksum());
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static void acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for the schema migration lock");
+                }
+            }
+        }
+    }
+
+    private static void releaseLock(Connection connection) {
+        try (PreparedStatement pstmt = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery().close();
+        } catch (SQLException e) {
+            System.out.println("Error releasing schema migration lock: " + e.getMessage());
+        }
+    }
+}
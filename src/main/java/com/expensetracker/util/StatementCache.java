@@ -0,0 +1,263 @@
+package com.expensetracker.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL
+ * text. Closing a statement handed out by the cache returns it to the cache,
+ * so the driver and the server keep the parsed statement for the next caller.
+ */
+final class StatementCache {
+
+    /**
+     * Hit, miss and eviction counters shared by every cache in a pool
+     */
+    static final class Stats {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+    }
+
+    private final Connection physical;
+    private final Stats stats;
+    private final Map<String, CachedStatement> statements;
+
+    StatementCache(Connection physical, int maxSize, Stats stats) {
+        this.physical = physical;
+        this.stats = stats;
+        this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                stats.evictions.incrementAndGet();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns true for the prepareStatement overloads the cache handles:
+     * plain SQL and SQL with an auto-generated keys flag
+     */
+    static boolean isCacheable(Method method, Object[] args) {
+        if (!"prepareStatement".equals(method.getName()) || args == null || !(args[0] instanceof String)) {
+            return false;
+        }
+        Class<?>[] types = method.getParameterTypes();
+        return types.length == 1 || (types.length == 2 && types[1] == int.class);
+    }
+
+    /**
+     * Returns a statement for the given prepareStatement call, reusing a cached
+     * one when available
+     *
+     * @param logical the borrower's connection handle, which the statement
+     *                reports as its connection
+     */
+    PreparedStatement prepare(String sql, int autoGeneratedKeys, Connection logical) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+
+        synchronized (statements) {
+            CachedStatement cached = statements.get(key);
+            if (cached != null && !cached.inUse) {
+                stats.hits.incrementAndGet();
+                return cached.checkOut(logical);
+            }
+            stats.misses.incrementAndGet();
+            CachedStatement created = wrap(physical.prepareStatement(sql, autoGeneratedKeys));
+            if (cached != null) {
+                // Same SQL is already checked out on this connection; hand out a
+                // statement that is really closed when the caller is done
+                created.evicted = true;
+                return created.checkOut(logical);
+            }
+            statements.put(key, created);
+            return created.checkOut(logical);
+        }
+    }
+
+    private CachedStatement wrap(PreparedStatement delegate) throws SQLException {
+        try {
+            return new CachedStatement(delegate);
+        } catch (SQLException e) {
+            closeQuietly(delegate);
+            throw e;
+        }
+    }
+
+    /**
+     * Closes every cached statement
+     */
+    void close() {
+        List<CachedStatement> all;
+        synchronized (statements) {
+            all = new ArrayList<>(statements.values());
+            statements.clear();
+        }
+        for (CachedStatement cached : all) {
+            cached.evict();
+        }
+    }
+
+    int size() {
+        synchronized (statements) {
+            return statements.size();
+        }
+    }
+
+    /**
+     * A cached statement and its checkout state
+     */
+    private final class CachedStatement {
+        final PreparedStatement delegate;
+        // Driver defaults, restored on check-in so one borrower's settings do not leak into the next
+        final int fetchSize;
+        final int fetchDirection;
+        final int maxRows;
+        final int maxFieldSize;
+        final int queryTimeout;
+        boolean inUse;
+        boolean evicted;
+
+        CachedStatement(PreparedStatement delegate) throws SQLException {
+            this.delegate = delegate;
+            this.fetchSize = delegate.getFetchSize();
+            this.fetchDirection = delegate.getFetchDirection();
+            this.maxRows = delegate.getMaxRows();
+            this.maxFieldSize = delegate.getMaxFieldSize();
+            this.queryTimeout = delegate.getQueryTimeout();
+        }
+
+        PreparedStatement checkOut(Connection logical) {
+            inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                StatementCache.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new Handle(this, logical));
+        }
+
+        void checkIn() {
+            boolean close;
+            synchronized (statements) {
+                inUse = false;
+                close = evicted;
+            }
+            try {
+                if (close) {
+                    delegate.close();
+                    return;
+                }
+                ResultSet open = delegate.getResultSet();
+                if (open != null) {
+                    open.close();
+                }
+                delegate.clearParameters();
+                delegate.clearBatch();
+                delegate.clearWarnings();
+                // Row limit before fetch size; some drivers refuse a fetch size above it
+                if (delegate.getMaxRows() != maxRows) {
+                    delegate.setMaxRows(maxRows);
+                }
+                if (delegate.getFetchSize() != fetchSize) {
+                    delegate.setFetchSize(fetchSize);
+                }
+                if (delegate.getFetchDirection() != fetchDirection) {
+                    delegate.setFetchDirection(fetchDirection);
+                }
+                if (delegate.getMaxFieldSize() != maxFieldSize) {
+                    delegate.setMaxFieldSize(maxFieldSize);
+                }
+                if (delegate.getQueryTimeout() != queryTimeout) {
+                    delegate.setQueryTimeout(queryTimeout);
+                }
+            } catch (SQLException e) {
+                // A statement that cannot be reset is not worth keeping
+                synchronized (statements) {
+                    statements.values().remove(this);
+                }
+                closeQuietly(delegate);
+            }
+        }
+
+        /**
+         * Called under the cache lock when the entry is dropped. Statements
+         * still checked out are closed when their borrower closes them.
+         */
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly(delegate);
+            }
+        }
+    }
+
+    /**
+     * Handle given to a borrower; closing it checks the statement back in
+     */
+    private static final class Handle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection logical;
+        private boolean closed = false;
+
+        Handle(CachedStatement cached, Connection logical) {
+            this.cached = cached;
+            this.logical = logical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        cached.checkIn();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.delegate.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            if ("getConnection".equals(method.getName())) {
+                // Closing the physical connection would pull it out from under the pool
+                return logical;
+            }
+            try {
+                return method.invoke(cached.delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.out.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+}
@@ -3,7 +3,9 @@ package com.expensetracker.view;
 import com.expensetracker.controller.CategoryController;
 import com.expensetracker.controller.ExpenseController;
 import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
 import com.expensetracker.model.User;
+import com.expensetracker.util.BackgroundTaskRunner;
 import com.expensetracker.util.SwingUtils;
 
 import javax.swing.*;
@@ -33,28 +35,40 @@ public class AddExpenseDialog extends JDialog {
     private CategoryController categoryController;
     private int expenseId = -1; // -1 means new expense, otherwise editing existing expense
     
+    // Database work runs here, off the Event Dispatch Thread
+    private final BackgroundTaskRunner backgroundTasks;
+    
+    /**
+     * Categories for the form and, when editing, the expense
+     */
+    private record DialogData(List<Category> categories, Expense expense) {
+    }
+    
     /**
      * Constructor for adding a new expense
      */
-    public AddExpenseDialog(Frame parent, User user) {
+    public AddExpenseDialog(Frame parent, User user, BackgroundTaskRunner backgroundTasks) {
         super(parent, "Add Expense", true);
         this.currentUser = user;
         this.expenseController = new ExpenseController();
         this.categoryController = new CategoryController();
+        this.backgroundTasks = backgroundTasks;
         initializeUI();
+        loadDialogData();
     }
     
     /**
      * Constructor for editing an existing expense
      */
-    public AddExpenseDialog(Frame parent, User user, int expenseId) {
+    public AddExpenseDialog(Frame parent, User user, int expenseId, BackgroundTaskRunner backgroundTasks) {
         super(parent, "Edit Expense", true);
         this.currentUser = user;
         this.expenseController = new ExpenseController();
         this.categoryController = new CategoryController();
         this.expenseId = expenseId;
+        this.backgroundTasks = backgroundTasks;
         initializeUI();
-        loadExpenseData();
+        loadDialogData();
     }
     
     /**
@@ -120,10 +134,7 @@ public class AddExpenseDialog extends JDialog {
             BorderFactory.createEmptyBorder(8, 10, 8, 10)
         ));
         
-        List<Category> categories = categoryController.getCategoriesByUser(currentUser.getUserId());
-        for (Category category : categories) {
-            categoryComboBox.addItem(category);
-        }
+        // Categories are added by loadDialogData once they are loaded
         
         categoryComboBox.setRenderer(new DefaultListCellRenderer() {
             @Override
@@ -203,16 +214,34 @@ public class AddExpenseDialog extends JDialog {
     }
     
     /**
-     * Load expense data for editing
+     * Load the categories and, when editing, the expense in the background,
+     * then fill in the form. Saving is enabled once the form is filled.
      */
-    private void loadExpenseData() {
-        if (expenseId <= 0) {
+    private void loadDialogData() {
+        saveButton.setEnabled(false);
+        int userId = currentUser.getUserId();
+        
+        backgroundTasks.submit(null, "Loading expense...",
+            progress -> new DialogData(
+                categoryController.getCategoriesByUser(userId),
+                expenseId > 0 ? expenseController.getExpenseById(expenseId, userId) : null),
+            this::showDialogData,
+            ex -> SwingUtils.showErrorMessage(this, "Error", "Error loading expense: " + ex.getMessage()));
+    }
+    
+    /**
+     * Fill in the categories and the expense being edited
+     */
+    private void showDialogData(DialogData data) {
+        if (data.categories() == null) {
+            SwingUtils.showErrorMessage(this, "Error", "Error loading categories.");
             return;
         }
+        for (Category category : data.categories()) {
+            categoryComboBox.addItem(category);
+        }
         
-        // Get the expense from the database
-        com.expensetracker.model.Expense expense = expenseController.getExpenseById(expenseId, currentUser.getUserId());
-        
+        Expense expense = data.expense();
         if (expense != null) {
             // Populate the fields with expense data
             amountField.setText(expense.getAmount().toString());
@@ -228,6 +257,7 @@ public class AddExpenseDialog extends JDialog {
                 }
             }
         }
+        saveButton.setEnabled(true);
     }
     
     /**
@@ -291,40 +321,48 @@ public class AddExpenseDialog extends JDialog {
                 return;
             }
             
-            boolean success;
-            
             // Use a string template for more readable error/success messages
             String action = expenseId > 0 ? "update" : "add";
+            int userId = currentUser.getUserId();
+            int categoryId = selectedCategory.getCategoryId();
             
-            if (expenseId > 0) {
-                // Update existing expense
-                success = expenseController.updateExpense(
-                    expenseId, 
-                    currentUser.getUserId(), 
-                    selectedCategory.getCategoryId(), 
-                    amount, 
-                    description, 
-                    expenseDate
-                );
-            } else {
+            // Save in the background; the button stays disabled so the expense is saved once
+            saveButton.setEnabled(false);
+            backgroundTasks.submit(null, "Saving expense...", progress -> {
+                if (expenseId > 0) {
+                    // Update existing expense
+                    return expenseController.updateExpense(
+                        expenseId, 
+                        userId, 
+                        categoryId, 
+                        amount, 
+                        description, 
+                        expenseDate
+                    );
+                }
                 // Add new expense
-                success = expenseController.addExpense(
-                    currentUser.getUserId(), 
-                    selectedCategory.getCategoryId(), 
+                return expenseController.addExpense(
+                    userId, 
+                    categoryId, 
                     amount, 
                     description, 
                     expenseDate
                 );
-            }
-            
-            setCursor(Cursor.getDefaultCursor());
-            
-            if (success) {
-                SwingUtils.showInfoMessage(this, "Success", "Expense " + (expenseId > 0 ? "updated" : "added") + " successfully.");
-                dispose();
-            } else {
-                SwingUtils.showErrorMessage(this, "Error", "Failed to " + action + " expense.");
-            }
+            }, success -> {
+                setCursor(Cursor.getDefaultCursor());
+                saveButton.setEnabled(true);
+                
+                if (success) {
+                    SwingUtils.showInfoMessage(this, "Success", "Expense " + (expenseId > 0 ? "updated" : "added") + " successfully.");
+                    dispose();
+                } else {
+                    SwingUtils.showErrorMessage(this, "Error", "Failed to " + action + " expense.");
+                }
+            }, ex -> {
+                setCursor(Cursor.getDefaultCursor());
+                saveButton.setEnabled(true);
+                SwingUtils.showErrorMessage(this, "Error", "An error occurred: " + ex.getMessage());
+            });
             
         } catch (Exception e) {
             setCursor(Cursor.getDefaultCursor());
@@ -1,11 +1,24 @@
 package com.expensetracker.view;
 
 import com.expensetracker.controller.CategoryController;
+import com.expensetracker.controller.ExpenseChangeEvent;
+import com.expensetracker.controller.ExpenseChangeListener;
 import com.expensetracker.controller.ExpenseController;
+import com.expensetracker.controller.ExpenseImporter;
 import com.expensetracker.controller.UserController;
+import com.expensetracker.dao.ExpenseCursor;
+import com.expensetracker.dao.ExpensePage;
+import com.expensetracker.jfr.ReportGenerationEvent;
+import com.expensetracker.jfr.TableReloadEvent;
 import com.expensetracker.model.Category;
 import com.expensetracker.model.Expense;
+import com.expensetracker.model.Money;
 import com.expensetracker.model.User;
+import com.expensetracker.report.PdfReportExporter;
+import com.expensetracker.report.ReportBuilder;
+import com.expensetracker.report.ReportContent;
+import com.expensetracker.report.ReportType;
+import com.expensetracker.util.BackgroundTaskRunner;
 import com.expensetracker.util.SwingUtils;
 
 import javax.swing.*;
@@ -14,9 +27,10 @@ import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 import java.util.Calendar;
 import java.util.prefs.Preferences;
 import java.text.SimpleDateFormat;
@@ -29,16 +43,51 @@ public class DashboardView extends JFrame {
     private User currentUser;
     private ExpenseController expenseController;
     private CategoryController categoryController;
+    private ReportBuilder reportBuilder;
+    private PdfReportExporter pdfReportExporter;
     
     private JTabbedPane tabbedPane;
     private JTable expensesTable;
-    private DefaultTableModel tableModel;
+    private ExpenseTableModel tableModel;
     private JButton addExpenseButton;
     private JButton editExpenseButton;
     private JButton deleteExpenseButton;
     private JComboBox<Category> categoryFilterComboBox;
     private JLabel totalExpensesLabel;
     
+    // Keyset pagination of the expenses table
+    private static final int PAGE_SIZE = 200;
+    private int pageNumber = 1;
+    private boolean pageHasNext;
+    private boolean pageHasPrevious;
+    private JButton previousPageButton;
+    private JButton nextPageButton;
+    private JLabel pageLabel;
+    
+    // Category filter and total of all matching expenses for the page in the
+    // table. Kept up to date one row at a time as expenses are added, edited
+    // and deleted.
+    private int pageCategoryId;
+    private long pageTotalCents;
+    
+    // The page last requested, so it can be fetched again
+    private ExpenseCursor requestedCursor;
+    private boolean requestedForward = true;
+    
+    // Changes arrive on the thread that made them
+    private final ExpenseChangeListener expenseChangeListener =
+        event -> SwingUtilities.invokeLater(() -> applyExpenseChange(event));
+    
+    private DefaultListModel<Category> categoryListModel;
+    
+    // Database work runs here, off the Event Dispatch Thread
+    private final BackgroundTaskRunner backgroundTasks = new BackgroundTaskRunner();
+    private JLabel statusLabel;
+    private JProgressBar statusProgressBar;
+    
+    // Event of the report still loading, ended unsuccessfully if it never shows
+    private ReportGenerationEvent pendingReportEvent;
+    
     /**
      * Constructor
      */
@@ -46,8 +95,26 @@ public class DashboardView extends JFrame {
         this.currentUser = user;
         this.expenseController = new ExpenseController();
         this.categoryController = new CategoryController();
+        this.reportBuilder = new ReportBuilder(expenseController);
+        this.pdfReportExporter = new PdfReportExporter(expenseController);
         initializeUI();
+        ExpenseController.addExpenseChangeListener(expenseChangeListener);
         loadExpenses();
+        reloadCategories(false);
+    }
+    
+    /**
+     * Stop background work when the window goes away
+     */
+    @Override
+    public void dispose() {
+        ExpenseController.removeExpenseChangeListener(expenseChangeListener);
+        backgroundTasks.shutdown();
+        if (pendingReportEvent != null) {
+            finishReportEvent(pendingReportEvent, false);
+            pendingReportEvent = null;
+        }
+        super.dispose();
     }
     
     /**
@@ -111,10 +178,17 @@ public class DashboardView extends JFrame {
         statusPanel.setBackground(SwingUtils.LIGHT_ACCENT);
         statusPanel.setBorder(BorderFactory.createEmptyBorder(5, 15, 5, 15));
         
-        JLabel statusLabel = new JLabel("Ready");
+        statusLabel = new JLabel("Ready");
         statusLabel.setFont(SwingUtils.SMALL_FONT);
         statusPanel.add(statusLabel, BorderLayout.WEST);
         
+        statusProgressBar = new JProgressBar(0, 100);
+        statusProgressBar.setPreferredSize(new Dimension(150, 12));
+        statusProgressBar.setVisible(false);
+        statusPanel.add(statusProgressBar, BorderLayout.EAST);
+        
+        backgroundTasks.setStatusListener(this::updateStatus);
+        
         mainContainer.add(statusPanel, BorderLayout.SOUTH);
         
         // Add the main container to the frame
@@ -149,11 +223,7 @@ public class DashboardView extends JFrame {
         categoryFilterComboBox.setFont(SwingUtils.REGULAR_FONT);
         categoryFilterComboBox.addItem(new Category(0, "All Categories", "", 0, false));
         
-        // Add the categories to the filter
-        List<Category> categories = categoryController.getCategoriesByUser(currentUser.getUserId());
-        for (Category category : categories) {
-            categoryFilterComboBox.addItem(category);
-        }
+        // The user's categories are added by reloadCategories once they are loaded
         
         // Custom renderer to show only category name
         categoryFilterComboBox.setRenderer(new DefaultListCellRenderer() {
@@ -175,22 +245,10 @@ public class DashboardView extends JFrame {
         
         panel.add(filterPanel, BorderLayout.NORTH);
         
-        // Create the expense table
-        String[] columnNames = {"ID", "Date", "Category", "Amount", "Description"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;  // Make the table non-editable
-            }
-            
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                if (columnIndex == 0) {
-                    return Integer.class;  // ID column
-                }
-                return String.class;  // All other columns are Strings (including formatted date and amount)
-            }
-        };
+        // Create the expense table; cells are formatted only when they are painted
+        tableModel = new ExpenseTableModel();
+        tableModel.setDisplayFormat(getCurrencySymbolFromSelection(getUserPreference("currency", "USD ($)")),
+            getUserPreference("dateFormat", "yyyy-MM-dd"));
         
         expensesTable = new JTable(tableModel);
         expensesTable.setFont(SwingUtils.REGULAR_FONT);
@@ -200,21 +258,15 @@ public class DashboardView extends JFrame {
         expensesTable.setAutoCreateRowSorter(true);
         
         // Set column widths
-        expensesTable.getColumnModel().getColumn(0).setMaxWidth(50);  // ID column
-        expensesTable.getColumnModel().getColumn(1).setPreferredWidth(120);  // Date column
-        expensesTable.getColumnModel().getColumn(2).setPreferredWidth(120);  // Category column
-        expensesTable.getColumnModel().getColumn(3).setPreferredWidth(120);  // Amount column
-        expensesTable.getColumnModel().getColumn(4).setPreferredWidth(300);  // Description column
+        expensesTable.getColumnModel().getColumn(ExpenseTableModel.DATE_COLUMN).setPreferredWidth(120);
+        expensesTable.getColumnModel().getColumn(ExpenseTableModel.CATEGORY_COLUMN).setPreferredWidth(120);
+        expensesTable.getColumnModel().getColumn(ExpenseTableModel.AMOUNT_COLUMN).setPreferredWidth(120);
+        expensesTable.getColumnModel().getColumn(ExpenseTableModel.DESCRIPTION_COLUMN).setPreferredWidth(300);
         
         // Set custom cell renderer for the amount column to right-align
         DefaultTableCellRenderer rightRenderer = new DefaultTableCellRenderer();
         rightRenderer.setHorizontalAlignment(JLabel.RIGHT);
-        expensesTable.getColumnModel().getColumn(3).setCellRenderer(rightRenderer);
-        
-        // Hide the ID column
-        expensesTable.getColumnModel().getColumn(0).setMinWidth(0);
-        expensesTable.getColumnModel().getColumn(0).setMaxWidth(0);
-        expensesTable.getColumnModel().getColumn(0).setWidth(0);
+        expensesTable.getColumnModel().getColumn(ExpenseTableModel.AMOUNT_COLUMN).setCellRenderer(rightRenderer);
         
         JScrollPane scrollPane = new JScrollPane(expensesTable);
         scrollPane.getViewport().setBackground(Color.WHITE);
@@ -241,6 +293,27 @@ public class DashboardView extends JFrame {
         
         bottomPanel.add(actionButtonPanel, BorderLayout.WEST);
         
+        // Page navigation
+        JPanel pagePanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        pagePanel.setBackground(SwingUtils.BACKGROUND_COLOR);
+        
+        previousPageButton = SwingUtils.createButton("< Newer", SwingUtils.PRIMARY_COLOR);
+        nextPageButton = SwingUtils.createButton("Older >", SwingUtils.PRIMARY_COLOR);
+        previousPageButton.setEnabled(false);
+        nextPageButton.setEnabled(false);
+        previousPageButton.addActionListener(this::showPreviousPage);
+        nextPageButton.addActionListener(this::showNextPage);
+        
+        pageLabel = new JLabel("Page 1");
+        pageLabel.setFont(SwingUtils.REGULAR_FONT);
+        pageLabel.setForeground(SwingUtils.TEXT_COLOR);
+        
+        pagePanel.add(previousPageButton);
+        pagePanel.add(pageLabel);
+        pagePanel.add(nextPageButton);
+        
+        bottomPanel.add(pagePanel, BorderLayout.CENTER);
+        
         JPanel summaryPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         summaryPanel.setBackground(SwingUtils.BACKGROUND_COLOR);
         
@@ -398,36 +471,29 @@ public class DashboardView extends JFrame {
         // Action to generate reports
         generateButton.addActionListener(e -> {
             String reportType = (String) reportTypeCombo.getSelectedItem();
-            Date startDate;
-            Date endDate;
             
             try {
-                if ("Custom...".equals(periodCombo.getSelectedItem())) {
-                    startDate = SwingUtils.DATE_FORMAT.parse(fromDateField.getText());
-                    endDate = SwingUtils.DATE_FORMAT.parse(toDateField.getText());
-                } else {
-                    startDate = getStartDateForPeriod((String) periodCombo.getSelectedItem());
-                    endDate = new Date(); // Current date
-                }
+                Date[] period = getReportPeriod(periodCombo, fromDateField, toDateField);
+                Date startDate = period[0];
+                Date endDate = period[1];
                 
-                // Clear existing chart and data
-                chartPanel.removeAll();
-                reportTableModel.setRowCount(0);
+                int userId = currentUser.getUserId();
                 
-                // Generate the report based on type
-                if ("Category Breakdown".equals(reportType)) {
-                    generateCategoryBreakdownReport(chartPanel, reportTableModel, startDate, endDate);
-                } else if ("Monthly Summary".equals(reportType)) {
-                    generateMonthlySummaryReport(chartPanel, reportTableModel, startDate, endDate);
-                } else if ("Yearly Comparison".equals(reportType)) {
-                    generateYearlyComparisonReport(chartPanel, reportTableModel, startDate, endDate);
+                // Query in the background, then show the chart and summary table
+                ReportType type = ReportType.fromLabel(reportType);
+                ReportGenerationEvent reportEvent = new ReportGenerationEvent();
+                if (reportEvent.isEnabled()) {
+                    SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+                    reportEvent.setReportType(type.name());
+                    reportEvent.setPeriod(dateFormat.format(startDate), dateFormat.format(endDate));
                 }
-                
-                // Refresh UI
-                chartPanel.revalidate();
-                chartPanel.repaint();
-                reportTable.revalidate();
-                reportTable.repaint();
+                reportEvent.begin();
+                runReport(chartPanel, reportTable, reportEvent,
+                    () -> reportBuilder.build(type, userId, startDate, endDate),
+                    content -> {
+                        showReport(chartPanel, reportTableModel, content);
+                        reportEvent.setRows(content.getRows().size());
+                    });
                 
             } catch (Exception ex) {
                 SwingUtils.showErrorMessage(DashboardView.this, "Report Error", 
@@ -438,260 +504,233 @@ public class DashboardView extends JFrame {
         
         // Export actions
         exportCsvButton.addActionListener(e -> {
-            JOptionPane.showMessageDialog(DashboardView.this, 
-                "CSV Export functionality will be implemented in the next version.", 
-                "Feature Coming Soon", JOptionPane.INFORMATION_MESSAGE);
+            try {
+                Date[] period = getReportPeriod(periodCombo, fromDateField, toDateField);
+                exportExpensesToCsv(0, period[0], period[1]);
+            } catch (java.text.ParseException ex) {
+                SwingUtils.showErrorMessage(DashboardView.this, "Export CSV", 
+                    "Invalid date: " + ex.getMessage());
+            }
         });
         
         exportPdfButton.addActionListener(e -> {
-            JOptionPane.showMessageDialog(DashboardView.this, 
-                "PDF Export functionality will be implemented in the next version.", 
-                "Feature Coming Soon", JOptionPane.INFORMATION_MESSAGE);
+            try {
+                Date[] period = getReportPeriod(periodCombo, fromDateField, toDateField);
+                exportReportToPdf(ReportType.fromLabel((String) reportTypeCombo.getSelectedItem()),
+                    period[0], period[1]);
+            } catch (java.text.ParseException ex) {
+                SwingUtils.showErrorMessage(DashboardView.this, "Export PDF", 
+                    "Invalid date: " + ex.getMessage());
+            }
         });
         
         return panel;
     }
     
     /**
-     * Generate a pie chart for category breakdown
+     * Get the {start, end} dates of the period selected on the reports panel
      */
-    private void generateCategoryBreakdownReport(JPanel chartPanel, DefaultTableModel tableModel, 
-                                               Date startDate, Date endDate) {
-        // Get expense summary by category from the controller
-        List<Object[]> categorySummary = expenseController.getExpenseSummaryByCategory(
-            currentUser.getUserId(), startDate, endDate);
-        
-        if (categorySummary.isEmpty()) {
-            JLabel noDataLabel = new JLabel("No expense data available for the selected period", SwingConstants.CENTER);
-            noDataLabel.setFont(SwingUtils.REGULAR_FONT);
-            chartPanel.add(noDataLabel, BorderLayout.CENTER);
+    private Date[] getReportPeriod(JComboBox<String> periodCombo, JTextField fromDateField,
+                                   JTextField toDateField) throws java.text.ParseException {
+        if ("Custom...".equals(periodCombo.getSelectedItem())) {
+            return new Date[]{
+                SwingUtils.DATE_FORMAT.parse(fromDateField.getText()),
+                SwingUtils.DATE_FORMAT.parse(toDateField.getText())
+            };
+        }
+        return new Date[]{
+            getStartDateForPeriod((String) periodCombo.getSelectedItem()),
+            new Date() // Current date
+        };
+    }
+    
+    /**
+     * Ask for a file and export the matching expenses to it as CSV in the background
+     *
+     * @param categoryId 0 for all categories
+     * @param startDate  first day included, or null
+     * @param endDate    last day included, or null
+     */
+    private void exportExpensesToCsv(int categoryId, Date startDate, Date endDate) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export CSV");
+        fileChooser.setSelectedFile(new java.io.File("expenses.csv"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
             return;
         }
         
-        // Create dataset for pie chart
-        org.jfree.data.general.DefaultPieDataset<String> dataset = new org.jfree.data.general.DefaultPieDataset<>();
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        
-        // Add data to dataset
-        for (Object[] row : categorySummary) {
-            String category = (String) row[0];
-            BigDecimal amount = (BigDecimal) row[1];
-            dataset.setValue(category, amount.doubleValue());
-            totalAmount = totalAmount.add(amount);
+        java.io.File file = fileChooser.getSelectedFile();
+        if (file.exists() && !SwingUtils.showConfirmDialog(this, "Export CSV",
+                file.getName() + " already exists. Replace it?")) {
+            return;
         }
         
-        // Create chart
-        org.jfree.chart.JFreeChart chart = org.jfree.chart.ChartFactory.createPieChart(
-            "Expense Distribution by Category", 
-            dataset, 
-            true,  // legend
-            true,  // tooltips
-            false  // URLs
-        );
-        
-        // Customize chart
-        org.jfree.chart.plot.PiePlot<?> plot = (org.jfree.chart.plot.PiePlot<?>) chart.getPlot();
-        plot.setBackgroundPaint(Color.WHITE);
-        plot.setOutlineVisible(false);
-        plot.setLabelFont(SwingUtils.SMALL_FONT);
-        plot.setLabelBackgroundPaint(new Color(255, 255, 255, 200));
-        plot.setLabelOutlinePaint(null);
-        plot.setLabelShadowPaint(null);
-        
-        // Create chart panel
-        org.jfree.chart.ChartPanel chartPanel2 = new org.jfree.chart.ChartPanel(chart);
-        chartPanel2.setPreferredSize(new Dimension(500, 300));
-        chartPanel2.setBackground(Color.WHITE);
-        chartPanel.add(chartPanel2, BorderLayout.CENTER);
+        int userId = currentUser.getUserId();
+        // No key: every export writes its file, so every export reports back
+        backgroundTasks.submit(null, "Exporting expenses...",
+            progress -> expenseController.exportExpensesToCsv(
+                userId, categoryId, startDate, endDate, file.toPath(), progress),
+            count -> SwingUtils.showInfoMessage(this, "Export CSV",
+                "Exported " + count + " expenses to " + file.getName()),
+            ex -> SwingUtils.showErrorMessage(this, "Export CSV",
+                "Export failed: " + ex.getMessage()));
+    }
+    
+    /**
+     * Ask for a file and write the report for the given period to it as PDF in the background
+     */
+    private void exportReportToPdf(ReportType type, Date startDate, Date endDate) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export PDF");
+        fileChooser.setSelectedFile(new java.io.File("expense-report.pdf"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
         
-        // Populate table model with data
-        for (Object[] row : categorySummary) {
-            String category = (String) row[0];
-            BigDecimal amount = (BigDecimal) row[1];
-            
-            // Calculate percentage
-            double percentage = amount.doubleValue() * 100 / totalAmount.doubleValue();
-            String percentageStr = String.format("%.2f%%", percentage);
-            
-            tableModel.addRow(new Object[]{
-                category,
-                SwingUtils.formatCurrency(amount.doubleValue()),
-                percentageStr
-            });
+        java.io.File file = fileChooser.getSelectedFile();
+        if (file.exists() && !SwingUtils.showConfirmDialog(this, "Export PDF",
+                file.getName() + " already exists. Replace it?")) {
+            return;
         }
         
-        // Add total row
-        tableModel.addRow(new Object[]{
-            "TOTAL",
-            SwingUtils.formatCurrency(totalAmount.doubleValue()),
-            "100.00%"
-        });
+        int userId = currentUser.getUserId();
+        backgroundTasks.submit(null, "Exporting report...",
+            progress -> pdfReportExporter.export(type, userId, startDate, endDate, file.toPath(), progress),
+            pages -> SwingUtils.showInfoMessage(this, "Export PDF",
+                "Exported a " + pages + " page report to " + file.getName()),
+            ex -> SwingUtils.showErrorMessage(this, "Export PDF",
+                "Export failed: " + ex.getMessage()));
     }
     
     /**
-     * Generate a bar chart for monthly summary
+     * Ask for a CSV file, such as a bank statement, and import its rows in the background
      */
-    private void generateMonthlySummaryReport(JPanel chartPanel, DefaultTableModel tableModel, 
-                                            Date startDate, Date endDate) {
-        // Calculate year based on the date range
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(startDate);
-        int year = calendar.get(Calendar.YEAR);
-        
-        // Get monthly expense totals
-        List<Object[]> monthlyTotals = expenseController.getMonthlyExpenseTotals(
-            currentUser.getUserId(), year);
-        
-        if (monthlyTotals.isEmpty()) {
-            JLabel noDataLabel = new JLabel("No expense data available for " + year, SwingConstants.CENTER);
-            noDataLabel.setFont(SwingUtils.REGULAR_FONT);
-            chartPanel.add(noDataLabel, BorderLayout.CENTER);
+    private void importExpensesFromCsv(ActionEvent event) {
+        // A running import cannot be stopped, and a second one would share its checkpoint
+        if (backgroundTasks.isRunning("import")) {
+            SwingUtils.showInfoMessage(this, "Import CSV",
+                "An import is still running. Wait for it to finish before starting another.");
             return;
         }
         
-        // Create dataset for bar chart
-        org.jfree.data.category.DefaultCategoryDataset dataset = new org.jfree.data.category.DefaultCategoryDataset();
-        String[] monthNames = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
-        BigDecimal yearlyTotal = BigDecimal.ZERO;
-        
-        // Convert the data for the chart
-        for (Object[] row : monthlyTotals) {
-            int month = (int) row[0];
-            BigDecimal amount = (BigDecimal) row[1];
-            dataset.setValue(amount.doubleValue(), "Expenses", monthNames[month - 1]);
-            yearlyTotal = yearlyTotal.add(amount);
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Import CSV");
+        fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV files", "csv"));
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
         
-        // Create chart
-        org.jfree.chart.JFreeChart chart = org.jfree.chart.ChartFactory.createBarChart(
-            "Monthly Expenses for " + year,
-            "Month",
-            "Amount",
-            dataset,
-            org.jfree.chart.plot.PlotOrientation.VERTICAL,
-            true,
-            true,
-            false
-        );
-        
-        // Customize chart
-        org.jfree.chart.plot.CategoryPlot plot = chart.getCategoryPlot();
-        plot.setBackgroundPaint(Color.WHITE);
-        plot.setOutlinePaint(null);
-        plot.setRangeGridlinePaint(SwingUtils.LIGHT_ACCENT);
-        
-        // Create chart panel
-        org.jfree.chart.ChartPanel chartPanel2 = new org.jfree.chart.ChartPanel(chart);
-        chartPanel2.setPreferredSize(new Dimension(500, 300));
-        chartPanel2.setBackground(Color.WHITE);
-        chartPanel.add(chartPanel2, BorderLayout.CENTER);
+        java.io.File file = fileChooser.getSelectedFile();
         
-        // Populate table model with data
-        for (Object[] row : monthlyTotals) {
-            int month = (int) row[0];
-            BigDecimal amount = (BigDecimal) row[1];
-            
-            // Calculate percentage
-            double percentage = amount.doubleValue() * 100 / yearlyTotal.doubleValue();
-            String percentageStr = String.format("%.2f%%", percentage);
-            
-            tableModel.addRow(new Object[]{
-                monthNames[month - 1] + " " + year,
-                SwingUtils.formatCurrency(amount.doubleValue()),
-                percentageStr
-            });
+        // Statements differ in how they sign spending; rows with the other sign are credits
+        String[] signs = {"Negative amounts", "Positive amounts", "Cancel"};
+        int choice = JOptionPane.showOptionDialog(this,
+            "How does " + file.getName() + " show money spent?\n" +
+            "Rows with the opposite sign, such as refunds, are not imported.",
+            "Import CSV", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, signs, signs[0]);
+        if (choice != 0 && choice != 1) {
+            return;
         }
-        
-        // Add total row
-        tableModel.addRow(new Object[]{
-            "TOTAL " + year,
-            SwingUtils.formatCurrency(yearlyTotal.doubleValue()),
-            "100.00%"
+        ExpenseImporter.SpendingSign spendingSign = choice == 0
+            ? ExpenseImporter.SpendingSign.NEGATIVE : ExpenseImporter.SpendingSign.POSITIVE;
+        
+        int userId = currentUser.getUserId();
+        backgroundTasks.submit("import", "Importing expenses...",
+            progress -> new ExpenseImporter(spendingSign).importCsv(userId, file.toPath(), progress),
+            result -> {
+                StringBuilder message = new StringBuilder("Imported " + result.getInsertedCount() +
+                    " expenses from " + file.getName() + ".");
+                if (result.getSkippedCount() + result.getFailedCount() > 0) {
+                    message.append("\n").append(result.getSkippedCount() + result.getFailedCount())
+                        .append(" rows could not be imported");
+                    if (!result.getErrors().isEmpty()) {
+                        message.append(", e.g. ").append(result.getErrors().get(0));
+                    }
+                }
+                // The table reloads when the controller reports the imported rows
+                SwingUtils.showInfoMessage(this, "Import CSV", message.toString());
+            },
+            ex -> SwingUtils.showErrorMessage(this, "Import CSV",
+                "Import failed: " + ex.getMessage() + "\nImport the same file again to resume."));
+    }
+    
+    /**
+     * Run a report query in the background and render the result on the EDT.
+     * A newer report request supersedes one that is still loading. The event
+     * is committed once the report is shown or has failed, or as unsuccessful
+     * when it is superseded.
+     */
+    private <T> void runReport(JPanel chartPanel, JTable reportTable, ReportGenerationEvent event,
+                               Callable<T> query, Consumer<T> render) {
+        // Clear existing chart and data
+        chartPanel.removeAll();
+        ((DefaultTableModel) reportTable.getModel()).setRowCount(0);
+        JLabel loadingLabel = new JLabel("Generating report...", SwingConstants.CENTER);
+        loadingLabel.setFont(SwingUtils.REGULAR_FONT);
+        chartPanel.add(loadingLabel, BorderLayout.CENTER);
+        refreshReport(chartPanel, reportTable);
+        
+        // The superseded report's callbacks never run, so its event ends here
+        if (pendingReportEvent != null) {
+            finishReportEvent(pendingReportEvent, false);
+        }
+        pendingReportEvent = event;
+        
+        backgroundTasks.submit("report", "Generating report...", progress -> query.call(), data -> {
+            pendingReportEvent = null;
+            chartPanel.removeAll();
+            render.accept(data);
+            refreshReport(chartPanel, reportTable);
+            finishReportEvent(event, true);
+        }, ex -> {
+            pendingReportEvent = null;
+            chartPanel.removeAll();
+            refreshReport(chartPanel, reportTable);
+            finishReportEvent(event, false);
+            SwingUtils.showErrorMessage(DashboardView.this, "Report Error",
+                "Error generating report: " + ex.getMessage());
         });
     }
     
+    private static void finishReportEvent(ReportGenerationEvent event, boolean succeeded) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setSucceeded(succeeded);
+            event.commit();
+        }
+    }
+    
     /**
-     * Generate a line chart for yearly comparison
+     * Refresh the report chart and table after their contents changed
      */
-    private void generateYearlyComparisonReport(JPanel chartPanel, DefaultTableModel tableModel, 
-                                              Date startDate, Date endDate) {
-        // Calculate years range
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(startDate);
-        int startYear = calendar.get(Calendar.YEAR);
-        
-        calendar.setTime(endDate);
-        int endYear = calendar.get(Calendar.YEAR);
-        
-        // Create dataset for line chart
-        org.jfree.data.category.DefaultCategoryDataset dataset = new org.jfree.data.category.DefaultCategoryDataset();
-        String[] monthNames = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
-        BigDecimal grandTotal = BigDecimal.ZERO;
-        
-        // Get data for each year
-        for (int year = startYear; year <= endYear; year++) {
-            List<Object[]> monthlyTotals = expenseController.getMonthlyExpenseTotals(
-                currentUser.getUserId(), year);
-            
-            BigDecimal yearlyTotal = BigDecimal.ZERO;
-            
-            // For table data, store monthly values
-            BigDecimal[] monthlyValues = new BigDecimal[12];
-            for (int i = 0; i < 12; i++) {
-                monthlyValues[i] = BigDecimal.ZERO;
-            }
-            
-            // Add data points to dataset
-            for (Object[] row : monthlyTotals) {
-                int month = (int) row[0];
-                BigDecimal amount = (BigDecimal) row[1];
-                dataset.setValue(amount.doubleValue(), String.valueOf(year), monthNames[month - 1]);
-                yearlyTotal = yearlyTotal.add(amount);
-                
-                // Store for table
-                monthlyValues[month - 1] = amount;
-            }
-            
-            // Add yearly total to table
-            tableModel.addRow(new Object[]{
-                year + " Total",
-                SwingUtils.formatCurrency(yearlyTotal.doubleValue()),
-                "-"
-            });
-            
-            grandTotal = grandTotal.add(yearlyTotal);
+    private void refreshReport(JPanel chartPanel, JTable reportTable) {
+        chartPanel.revalidate();
+        chartPanel.repaint();
+        reportTable.revalidate();
+        reportTable.repaint();
+    }
+    
+    /**
+     * Show a report's chart and summary table
+     */
+    private void showReport(JPanel chartPanel, DefaultTableModel tableModel, ReportContent content) {
+        if (content.isEmpty()) {
+            JLabel noDataLabel = new JLabel(content.getEmptyMessage(), SwingConstants.CENTER);
+            noDataLabel.setFont(SwingUtils.REGULAR_FONT);
+            chartPanel.add(noDataLabel, BorderLayout.CENTER);
+            return;
         }
         
-        // Create chart
-        org.jfree.chart.JFreeChart chart = org.jfree.chart.ChartFactory.createLineChart(
-            "Yearly Expense Comparison",
-            "Month",
-            "Amount",
-            dataset,
-            org.jfree.chart.plot.PlotOrientation.VERTICAL,
-            true,
-            true,
-            false
-        );
-        
-        // Customize chart
-        org.jfree.chart.plot.CategoryPlot plot = chart.getCategoryPlot();
-        plot.setBackgroundPaint(Color.WHITE);
-        plot.setOutlinePaint(null);
-        plot.setRangeGridlinePaint(SwingUtils.LIGHT_ACCENT);
-        
         // Create chart panel
-        org.jfree.chart.ChartPanel chartPanel2 = new org.jfree.chart.ChartPanel(chart);
+        org.jfree.chart.ChartPanel chartPanel2 = new org.jfree.chart.ChartPanel(content.createChart());
         chartPanel2.setPreferredSize(new Dimension(500, 300));
         chartPanel2.setBackground(Color.WHITE);
         chartPanel.add(chartPanel2, BorderLayout.CENTER);
         
-        // Add grand total row
-        tableModel.addRow(new Object[]{
-            "GRAND TOTAL",
-            SwingUtils.formatCurrency(grandTotal.doubleValue()),
-            "100.00%"
-        });
+        // Populate table model with data
+        for (String[] row : content.getRows()) {
+            tableModel.addRow(row);
+        }
     }
     
     /**
@@ -773,12 +812,9 @@ public class DashboardView extends JFrame {
         categoryListTitle.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 0));
         categoryListPanel.add(categoryListTitle, BorderLayout.NORTH);
         
-        // Create a list of categories
+        // Create a list of categories, filled in by reloadCategories
         DefaultListModel<Category> categoryModel = new DefaultListModel<>();
-        List<Category> categories = categoryController.getCategoriesByUser(currentUser.getUserId());
-        for (Category category : categories) {
-            categoryModel.addElement(category);
-        }
+        categoryListModel = categoryModel;
         
         JList<Category> categoryList = new JList<>(categoryModel);
         categoryList.setFont(SwingUtils.REGULAR_FONT);
@@ -930,20 +966,17 @@ public class DashboardView extends JFrame {
                     category.setDescription(description);
                     
                     // Update the category
-                    boolean success = categoryController.updateCategory(
-                        category.getCategoryId(), 
-                        category.getName(), 
-                        category.getDescription(), 
-                        currentUser.getUserId()
+                    Category updated = category;
+                    saveCategoryChange(
+                        () -> categoryController.updateCategory(
+                            updated.getCategoryId(), 
+                            updated.getName(), 
+                            updated.getDescription(), 
+                            currentUser.getUserId()
+                        ),
+                        "Category updated successfully",
+                        "Failed to update category"
                     );
-                    
-                    if (success) {
-                        SwingUtils.showInfoMessage(this, "Success", "Category updated successfully");
-                        refreshCategoryList(categoryModel);
-                        refreshCategoryFilters();
-                    } else {
-                        SwingUtils.showErrorMessage(this, "Error", "Failed to update category");
-                    }
                 }
             } catch (NumberFormatException ex) {
                 SwingUtils.showErrorMessage(this, "Error", "Invalid category ID");
@@ -996,21 +1029,15 @@ public class DashboardView extends JFrame {
             category.setDefault(false);
             
             // Add the category
-            boolean success = categoryController.addCategory(
-                category.getName(),
-                category.getDescription(),
-                category.getUserId()
+            saveCategoryChange(
+                () -> categoryController.addCategory(
+                    category.getName(),
+                    category.getDescription(),
+                    category.getUserId()
+                ),
+                "Category added successfully",
+                "Failed to add category"
             );
-            
-            if (success) {
-                SwingUtils.showInfoMessage(this, "Success", "Category added successfully");
-                
-                // Refresh the categories list in the UI and comboboxes
-                refreshCategoryList(null);
-                refreshCategoryFilters();
-            } else {
-                SwingUtils.showErrorMessage(this, "Error", "Failed to add category");
-            }
         }
     }
     
@@ -1091,22 +1118,16 @@ public class DashboardView extends JFrame {
                 selectedCategory.setName(name);
                 selectedCategory.setDescription(description);
                 
-                boolean success = categoryController.updateCategory(
-                    selectedCategory.getCategoryId(),
-                    selectedCategory.getName(),
-                    selectedCategory.getDescription(),
-                    currentUser.getUserId()
+                saveCategoryChange(
+                    () -> categoryController.updateCategory(
+                        selectedCategory.getCategoryId(),
+                        selectedCategory.getName(),
+                        selectedCategory.getDescription(),
+                        currentUser.getUserId()
+                    ),
+                    "Category updated successfully",
+                    "Failed to update category"
                 );
-                
-                if (success) {
-                    SwingUtils.showInfoMessage(this, "Success", "Category updated successfully");
-                    
-                    // Refresh the categories list in the UI and comboboxes
-                    refreshCategoryList(null);
-                    refreshCategoryFilters();
-                } else {
-                    SwingUtils.showErrorMessage(this, "Error", "Failed to update category");
-                }
             }
         }
     }
@@ -1166,86 +1187,70 @@ public class DashboardView extends JFrame {
                 "All expenses in this category will be reassigned to 'Other'.");
             
             if (confirmed) {
-                boolean success = categoryController.deleteCategory(
-                    selectedCategory.getCategoryId(),
-                    currentUser.getUserId()
+                saveCategoryChange(
+                    () -> categoryController.deleteCategory(
+                        selectedCategory.getCategoryId(),
+                        currentUser.getUserId()
+                    ),
+                    "Category deleted successfully",
+                    "Failed to delete category"
                 );
-                
-                if (success) {
-                    SwingUtils.showInfoMessage(this, "Success", "Category deleted successfully");
-                    
-                    // Refresh the categories list in the UI and comboboxes
-                    refreshCategoryList(null);
-                    refreshCategoryFilters();
-                } else {
-                    SwingUtils.showErrorMessage(this, "Error", "Failed to delete category");
-                }
             }
         }
     }
     
     /**
-     * Refresh the category list in the UI
+     * Run a category add, update or delete in the background, then reload the
+     * categories and the expenses that show them
      */
-    private void refreshCategoryList(DefaultListModel<Category> existingModel) {
-        // Get fresh categories from the database
-        List<Category> categories = categoryController.getCategoriesByUser(currentUser.getUserId());
-        
-        // If we received a specific model, update it
-        if (existingModel != null) {
-            existingModel.clear();
-            for (Category category : categories) {
-                existingModel.addElement(category);
+    private void saveCategoryChange(Callable<Boolean> change, String successMessage, String failureMessage) {
+        backgroundTasks.submit(null, change, success -> {
+            if (Boolean.TRUE.equals(success)) {
+                SwingUtils.showInfoMessage(this, "Success", successMessage);
+                reloadCategories(true);
+            } else {
+                SwingUtils.showErrorMessage(this, "Error", failureMessage);
             }
-            return;
-        }
-        
-        // Otherwise, find the list in the UI and update it
-        JList<?> categoryList = null;
-        
-        // Find the category list in the category panel
-        Component component = tabbedPane.getComponentAt(2);
-        if (component instanceof Container) {
-            Container container = (Container) component;
-            Component[] components = container.getComponents();
-            for (Component comp : components) {
-                if (comp instanceof JPanel) {
-                    JPanel panel = (JPanel) comp;
-                    Component[] innerComponents = panel.getComponents();
-                    for (Component inner : innerComponents) {
-                        if (inner instanceof JPanel) {
-                            JPanel innerPanel = (JPanel) inner;
-                            Component[] scrollComponents = innerPanel.getComponents();
-                            for (Component scrollPane : scrollComponents) {
-                                if (scrollPane instanceof JScrollPane) {
-                                    Component viewport = ((JScrollPane) scrollPane).getViewport().getView();
-                                    if (viewport instanceof JList) {
-                                        categoryList = (JList<?>) viewport;
-                                        break;
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
+        }, ex -> SwingUtils.showErrorMessage(this, "Error", failureMessage));
+    }
+    
+    /**
+     * Load the user's categories in the background and refresh the category
+     * list, the filter combobox and the category name dictionary
+     */
+    private void reloadCategories(boolean reloadExpenses) {
+        int userId = currentUser.getUserId();
+        backgroundTasks.submit("categories", () -> categoryController.getCategoriesByUser(userId), categories -> {
+            refreshCategoryList(categories);
+            refreshCategoryFilters(categories);
+            tableModel.setCategoryNames(categories);
+            
+            // Category names and assignments shown in the table may have changed
+            if (reloadExpenses) {
+                loadExpenses();
             }
+        }, null);
+    }
+    
+    /**
+     * Refresh the category list in the UI
+     */
+    private void refreshCategoryList(List<Category> categories) {
+        if (categoryListModel == null || categories == null) {
+            return;
         }
-        
-        if (categoryList != null) {
-            DefaultListModel<Category> model = (DefaultListModel<Category>) categoryList.getModel();
-            model.clear();
-            for (Category category : categories) {
-                model.addElement(category);
-            }
+        categoryListModel.clear();
+        for (Category category : categories) {
+            categoryListModel.addElement(category);
         }
     }
     
     /**
      * Refresh category filter comboboxes
      */
-    private void refreshCategoryFilters() {
+    private void refreshCategoryFilters(List<Category> categories) {
         // Refresh the category filter in the expenses panel
-        if (categoryFilterComboBox != null) {
+        if (categoryFilterComboBox != null && categories != null) {
             // Save selected category ID
             Category selectedCategory = (Category) categoryFilterComboBox.getSelectedItem();
             int selectedId = selectedCategory != null ? selectedCategory.getCategoryId() : 0;
@@ -1254,7 +1259,6 @@ public class DashboardView extends JFrame {
             categoryFilterComboBox.removeAllItems();
             categoryFilterComboBox.addItem(new Category(0, "All Categories", "", 0, false));
             
-            List<Category> categories = categoryController.getCategoriesByUser(currentUser.getUserId());
             for (Category category : categories) {
                 categoryFilterComboBox.addItem(category);
                 
@@ -1400,15 +1404,6 @@ public class DashboardView extends JFrame {
             boolean changingPassword = !currentPwd.isEmpty() || !newPwd.isEmpty() || !confirmPwd.isEmpty();
             
             if (changingPassword) {
-                // Validate current password
-                UserController userController = new UserController();
-                User authenticated = userController.authenticateUser(currentUser.getUsername(), currentPwd);
-                
-                if (authenticated == null) {
-                    SwingUtils.showErrorMessage(this, "Error", "Current password is incorrect");
-                    return;
-                }
-                
                 // Check if new passwords match
                 if (!newPwd.equals(confirmPwd)) {
                     SwingUtils.showErrorMessage(this, "Error", "New passwords do not match");
@@ -1439,11 +1434,21 @@ public class DashboardView extends JFrame {
                 return;
             }
             
-            // Update user in database
-            UserController userController = new UserController();
-            boolean success = userController.updateUser(updatedUser);
-            
-            if (success) {
+            // Check the current password and update the user in the background;
+            // the result is an error message, or null on success
+            String username = currentUser.getUsername();
+            backgroundTasks.submit(null, "Saving profile...", progress -> {
+                UserController userController = new UserController();
+                if (changingPassword && userController.authenticateUser(username, currentPwd) == null) {
+                    return "Current password is incorrect";
+                }
+                return userController.updateUser(updatedUser) ? null : "Failed to update user profile";
+            }, error -> {
+                if (error != null) {
+                    SwingUtils.showErrorMessage(this, "Error", error);
+                    return;
+                }
+                
                 // Update current user
                 currentUser.setUsername(updatedUser.getUsername());
                 currentUser.setEmail(updatedUser.getEmail());
@@ -1460,9 +1465,7 @@ public class DashboardView extends JFrame {
                 updateWelcomeMessage();
                 
                 SwingUtils.showInfoMessage(this, "Success", "User profile updated successfully");
-            } else {
-                SwingUtils.showErrorMessage(this, "Error", "Failed to update user profile");
-            }
+            }, ex -> SwingUtils.showErrorMessage(this, "Error", "Failed to update user profile: " + ex.getMessage()));
         });
         
         buttonPanel.add(saveButton);
@@ -1807,36 +1810,47 @@ public class DashboardView extends JFrame {
             JOptionPane.OK_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE
         );
         
-        if (result == JOptionPane.OK_OPTION) {
-            String password = new String(passwordField.getPassword());
-            
-            // Verify password
-            UserController userController = new UserController();
-            User authenticated = userController.authenticateUser(currentUser.getUsername(), password);
-            
-            if (authenticated == null) {
-                SwingUtils.showErrorMessage(this, "Error", "Incorrect password. Account deletion canceled.");
-                return;
-            }
-            
-            // Final confirmation
-            boolean confirmed = SwingUtils.showConfirmDialog(
-                this, "Final Warning", 
-                "Are you absolutely sure you want to delete your account? This action CANNOT be undone!"
-            );
-            
-            if (confirmed) {
-                // Delete the user
-                boolean success = userController.deleteUser(currentUser.getUserId());
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+        
+        String password = new String(passwordField.getPassword());
+        String username = currentUser.getUsername();
+        int userId = currentUser.getUserId();
+        UserController userController = new UserController();
+        
+        // Verify password
+        backgroundTasks.submit(null, "Checking password...",
+            progress -> userController.authenticateUser(username, password) != null,
+            authenticated -> {
+                if (!authenticated) {
+                    SwingUtils.showErrorMessage(this, "Error", "Incorrect password. Account deletion canceled.");
+                    return;
+                }
                 
-                if (success) {
-                    SwingUtils.showInfoMessage(this, "Account Deleted", "Your account has been successfully deleted.");
-                    logout(null); // Log out after deletion
-                } else {
-                    SwingUtils.showErrorMessage(this, "Error", "Failed to delete account. Please try again later.");
+                // Final confirmation
+                boolean confirmed = SwingUtils.showConfirmDialog(
+                    this, "Final Warning", 
+                    "Are you absolutely sure you want to delete your account? This action CANNOT be undone!"
+                );
+                if (!confirmed) {
+                    return;
                 }
-            }
-        }
+                
+                // Delete the user
+                backgroundTasks.submit(null, "Deleting account...",
+                    deleteProgress -> userController.deleteUser(userId),
+                    success -> {
+                        if (success) {
+                            SwingUtils.showInfoMessage(this, "Account Deleted", "Your account has been successfully deleted.");
+                            logout(null); // Log out after deletion
+                        } else {
+                            SwingUtils.showErrorMessage(this, "Error", "Failed to delete account. Please try again later.");
+                        }
+                    },
+                    ex -> SwingUtils.showErrorMessage(this, "Error", "Failed to delete account: " + ex.getMessage()));
+            },
+            ex -> SwingUtils.showErrorMessage(this, "Error", "Could not check password: " + ex.getMessage()));
     }
     
     /**
@@ -1888,6 +1902,8 @@ public class DashboardView extends JFrame {
         JMenuItem importItem = new JMenuItem("Import Data");
         JMenuItem exitItem = new JMenuItem("Exit");
         
+        exportItem.addActionListener(e -> exportExpensesToCsv(getSelectedCategoryFilterId(), null, null));
+        importItem.addActionListener(this::importExpensesFromCsv);
         exitItem.addActionListener(this::exitApplication);
         
         fileMenu.add(exportItem);
@@ -1925,71 +1941,223 @@ public class DashboardView extends JFrame {
     }
     
     /**
-     * Load expenses from the database and populate the table
+     * Load the newest page of expenses and populate the table
      */
     private void loadExpenses() {
-        // Clear the table
-        tableModel.setRowCount(0);
-        
-        // Get the selected category filter
-        int categoryFilterId = 0;
+        pageNumber = 1;
+        loadExpensePage(null, true);
+    }
+    
+    /**
+     * Load the page of expenses next to the given cursor in the background and
+     * populate the table when it arrives
+     */
+    private void loadExpensePage(ExpenseCursor cursor, boolean forward) {
+        int userId = currentUser.getUserId();
+        int categoryId = getSelectedCategoryFilterId();
+        requestedCursor = cursor;
+        requestedForward = forward;
+        
+        // Timed from here until the rows are in the table
+        TableReloadEvent reloadEvent = new TableReloadEvent();
+        reloadEvent.begin();
+        
+        // Get one page of expenses and the matching total for the current user
+        backgroundTasks.submit("expenses",
+            () -> new LoadedPage(
+                expenseController.getExpensePage(userId, categoryId, cursor, forward, PAGE_SIZE),
+                expenseController.getTotalExpenses(userId, categoryId),
+                categoryId, reloadEvent),
+            this::showExpensePage,
+            ex -> SwingUtils.showErrorMessage(this, "Expenses", "Error loading expenses: " + ex.getMessage()));
+    }
+    
+    /**
+     * Get the category selected in the expense filter, or 0 for all categories
+     */
+    private int getSelectedCategoryFilterId() {
         if (categoryFilterComboBox != null && categoryFilterComboBox.getSelectedItem() != null) {
             Category selectedCategory = (Category) categoryFilterComboBox.getSelectedItem();
-            categoryFilterId = selectedCategory.getCategoryId();
+            return selectedCategory.getCategoryId();
+        }
+        return 0;
+    }
+    
+    /**
+     * Populate the table with a loaded page of expenses
+     */
+    private void showExpensePage(LoadedPage loaded) {
+        ExpensePage page = loaded.page();
+        if (page == null) {
+            return;
         }
         
-        // Get expenses for the current user
-        List<Expense> expenses = expenseController.getExpensesByUser(currentUser.getUserId());
+        pageHasNext = page.hasNext();
+        pageHasPrevious = page.hasPrevious();
+        pageCategoryId = loaded.categoryId();
+        // The total covers every matching expense, not just this page
+        pageTotalCents = loaded.total().getCents();
+        if (!pageHasPrevious) {
+            pageNumber = 1;
+        }
         
-        // Get the user's preferred currency symbol
+        // Replace the rows, using the user's preferred currency symbol and date format
         String currencySymbol = getCurrencySymbolFromSelection(getUserPreference("currency", "USD ($)"));
+        tableModel.setDisplayFormat(currencySymbol, getUserPreference("dateFormat", "yyyy-MM-dd"));
+        tableModel.setExpenses(page.getExpenses());
+        
+        updateTotalAndNavigation(currencySymbol);
+        
+        TableReloadEvent reloadEvent = loaded.reloadEvent();
+        reloadEvent.end();
+        if (reloadEvent.shouldCommit()) {
+            reloadEvent.setCategoryId(loaded.categoryId());
+            reloadEvent.setPage(pageNumber);
+            reloadEvent.setRows(page.getExpenses().size());
+            reloadEvent.commit();
+        }
+    }
+    
+    /**
+     * Show the running total and the state of the page navigation
+     */
+    private void updateTotalAndNavigation(String currencySymbol) {
+        totalExpensesLabel.setText(currencySymbol + " " + Money.ofCents(pageTotalCents).toPlainString());
+        pageLabel.setText("Page " + pageNumber);
+        previousPageButton.setEnabled(pageHasPrevious);
+        nextPageButton.setEnabled(pageHasNext);
+    }
+    
+    /**
+     * Apply an added, edited or deleted expense to the table and total
+     * without fetching the page again
+     */
+    private void applyExpenseChange(ExpenseChangeEvent event) {
+        if (event.getUserId() != currentUser.getUserId()) {
+            return;
+        }
         
-        // Get the user's preferred date format
-        String dateFormat = getUserPreference("dateFormat", "yyyy-MM-dd");
+        // A page that is still loading may or may not include the change, and
+        // bulk changes or updates without the old values cannot be applied row by row
+        if (event.getType() == ExpenseChangeEvent.Type.BULK_CHANGED || backgroundTasks.isRunning("expenses")
+            || (event.getType() == ExpenseChangeEvent.Type.UPDATED && event.getPrevious() == null)) {
+            loadExpensePage(requestedCursor, requestedForward);
+            return;
+        }
         
-        if (expenses != null) {
-            BigDecimal totalAmount = BigDecimal.ZERO;
-            
-            for (Expense expense : expenses) {
-                // Apply category filter if selected
-                if (categoryFilterId != 0 && expense.getCategoryId() != categoryFilterId) {
-                    continue;
-                }
-                
-                // Format the date according to user preference
-                String formattedDate = formatDateWithPattern(expense.getExpenseDate(), dateFormat);
-                
-                // Format the amount with the currency symbol
-                String formattedAmount = currencySymbol + " " + expense.getAmount().toString();
-                
-                // Get category name
-                String categoryName = getCategoryName(expense.getCategoryId());
-                
-                // Add row to table
-                tableModel.addRow(new Object[]{
-                    expense.getExpenseId(),
-                    formattedDate,
-                    categoryName,
-                    formattedAmount,
-                    expense.getDescription()
-                });
-                
-                // Add to total
-                totalAmount = totalAmount.add(expense.getAmount());
+        Expense expense = event.getExpense();
+        switch (event.getType()) {
+            case ADDED -> addToPage(expense);
+            case UPDATED -> {
+                removeFromPage(event.getPrevious());
+                addToPage(expense);
             }
-            
-            // Update total expenses label
-            totalExpensesLabel.setText(currencySymbol + " " + totalAmount.toString());
+            case DELETED -> removeFromPage(expense);
+            default -> {
+            }
+        }
+        
+        // Deleting the last row of a page leaves nothing to navigate from
+        if (tableModel.getRowCount() == 0 && (pageHasNext || pageHasPrevious)) {
+            loadExpenses();
+            return;
         }
+        
+        updateTotalAndNavigation(getCurrencySymbolFromSelection(getUserPreference("currency", "USD ($)")));
     }
     
     /**
-     * Open dialog to add a new expense
+     * Count an expense in the total and insert its row if it falls on the
+     * current page. Rows are ordered by date and then ID, newest first.
+     */
+    private void addToPage(Expense expense) {
+        if (!matchesPageFilter(expense)) {
+            return;
+        }
+        pageTotalCents = Math.addExact(pageTotalCents, expense.getAmountCents());
+        
+        // Binary search for the first row older than the expense. Compare
+        // calendar days only; the database stores dates without a time.
+        long epochDay = new java.sql.Date(expense.getExpenseDate().getTime()).toLocalDate().toEpochDay();
+        int low = 0;
+        int high = tableModel.getRowCount();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int rowDay = tableModel.getEpochDay(middle);
+            boolean rowIsNewer = rowDay > epochDay
+                || (rowDay == epochDay && tableModel.getExpenseId(middle) > expense.getExpenseId());
+            if (rowIsNewer) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        
+        // Rows before or after the page belong to a neighbouring page
+        if ((low == 0 && pageHasPrevious) || (low == tableModel.getRowCount() && pageHasNext)) {
+            return;
+        }
+        
+        tableModel.insertExpense(low, expense);
+        
+        // Keep the page size; the last row moves to the next page
+        if (tableModel.getRowCount() > PAGE_SIZE) {
+            tableModel.removeRow(tableModel.getRowCount() - 1);
+            pageHasNext = true;
+        }
+    }
+    
+    /**
+     * Take an expense out of the total and remove its row if it is shown
+     */
+    private void removeFromPage(Expense expense) {
+        if (matchesPageFilter(expense)) {
+            pageTotalCents = Math.subtractExact(pageTotalCents, expense.getAmountCents());
+        }
+        int row = tableModel.indexOfExpense(expense.getExpenseId());
+        if (row >= 0) {
+            tableModel.removeRow(row);
+        }
+    }
+    
+    private boolean matchesPageFilter(Expense expense) {
+        return pageCategoryId == 0 || expense.getCategoryId() == pageCategoryId;
+    }
+    
+    /**
+     * A page of expenses together with the total of all expenses matching its category filter
+     */
+    private record LoadedPage(ExpensePage page, Money total, int categoryId, TableReloadEvent reloadEvent) {
+    }
+    
+    /**
+     * Show the next page of older expenses
+     */
+    private void showNextPage(ActionEvent event) {
+        int rows = tableModel.getRowCount();
+        if (pageHasNext && rows > 0) {
+            pageNumber++;
+            loadExpensePage(new ExpenseCursor(tableModel.getExpenseDate(rows - 1), tableModel.getExpenseId(rows - 1)), true);
+        }
+    }
+    
+    /**
+     * Show the previous page of newer expenses
+     */
+    private void showPreviousPage(ActionEvent event) {
+        if (pageHasPrevious && tableModel.getRowCount() > 0) {
+            pageNumber = Math.max(1, pageNumber - 1);
+            loadExpensePage(new ExpenseCursor(tableModel.getExpenseDate(0), tableModel.getExpenseId(0)), false);
+        }
+    }
+    
+    /**
+     * Open dialog to add a new expense. The table is updated by the change
+     * event the controller publishes when the expense is saved.
      */
     private void openAddExpenseDialog(ActionEvent event) {
-        AddExpenseDialog dialog = new AddExpenseDialog(this, currentUser);
+        AddExpenseDialog dialog = new AddExpenseDialog(this, currentUser, backgroundTasks);
         dialog.setVisible(true);
-        loadExpenses(); // Refresh the table after adding
     }
     
     /**
@@ -2002,10 +2170,10 @@ public class DashboardView extends JFrame {
             return;
         }
         
-        int expenseId = (int) tableModel.getValueAt(selectedRow, 0);
-        AddExpenseDialog dialog = new AddExpenseDialog(this, currentUser, expenseId);
+        // The table may be sorted, so map the selected view row to the model
+        int expenseId = tableModel.getExpenseId(expensesTable.convertRowIndexToModel(selectedRow));
+        AddExpenseDialog dialog = new AddExpenseDialog(this, currentUser, expenseId, backgroundTasks);
         dialog.setVisible(true);
-        loadExpenses(); // Refresh the table after editing
     }
     
     /**
@@ -2018,20 +2186,21 @@ public class DashboardView extends JFrame {
             return;
         }
         
-        int expenseId = (int) tableModel.getValueAt(selectedRow, 0);
+        // The table may be sorted, so map the selected view row to the model
+        int expenseId = tableModel.getExpenseId(expensesTable.convertRowIndexToModel(selectedRow));
         
         boolean confirmed = SwingUtils.showConfirmDialog(
             this, "Delete Expense", "Are you sure you want to delete this expense?");
         
         if (confirmed) {
-            boolean success = expenseController.deleteExpense(expenseId, currentUser.getUserId());
-            
-            if (success) {
-                SwingUtils.showInfoMessage(this, "Delete Expense", "Expense deleted successfully.");
-                loadExpenses();
-            } else {
-                SwingUtils.showErrorMessage(this, "Delete Expense", "Failed to delete expense.");
-            }
+            int userId = currentUser.getUserId();
+            backgroundTasks.submit(null, () -> expenseController.deleteExpense(expenseId, userId), success -> {
+                if (success) {
+                    SwingUtils.showInfoMessage(this, "Delete Expense", "Expense deleted successfully.");
+                } else {
+                    SwingUtils.showErrorMessage(this, "Delete Expense", "Failed to delete expense.");
+                }
+            }, ex -> SwingUtils.showErrorMessage(this, "Delete Expense", "Failed to delete expense."));
         }
     }
     
@@ -2054,15 +2223,17 @@ public class DashboardView extends JFrame {
     private void loadExpensesFromAction(ActionEvent event) {
         loadExpenses();
     }
-
+    
     /**
-     * Get the category name for a given category ID
+     * Show background task activity in the status bar
      */
-    private String getCategoryName(int categoryId) {
-        // Get the category from the controller
-        Category category = categoryController.getCategoryById(categoryId);
-        
-        // Return the name if found, otherwise return "Unknown"
-        return (category != null) ? category.getName() : "Unknown";
+    private void updateStatus(int activeTasks, int percent, String message) {
+        statusLabel.setText(message);
+        statusProgressBar.setVisible(activeTasks > 0);
+        statusProgressBar.setIndeterminate(percent < 0);
+        if (percent >= 0) {
+            statusProgressBar.setValue(percent);
+        }
+        setCursor(activeTasks > 0 ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
     }
 } 
\ No newline at end of file
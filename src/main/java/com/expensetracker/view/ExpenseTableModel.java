@@ -0,0 +1,315 @@
+package com.expensetracker.view;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+
+import javax.swing.table.AbstractTableModel;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table model for the expenses table, storing each field in a primitive
+ * column instead of a row of formatted Strings.
+ *
+ * Dates are kept as epoch days, amounts as cents and categories as IDs; cell
+ * text is only produced when the table asks for a visible cell. Formatted
+ * dates and amounts are kept in small direct-mapped caches, so repainting
+ * while scrolling reuses the same Strings instead of creating new ones.
+ * Descriptions are de-duplicated, since many expenses repeat the same text.
+ */
+public class ExpenseTableModel extends AbstractTableModel {
+
+    public static final int DATE_COLUMN = 0;
+    public static final int CATEGORY_COLUMN = 1;
+    public static final int AMOUNT_COLUMN = 2;
+    public static final int DESCRIPTION_COLUMN = 3;
+
+    private static final String[] COLUMN_NAMES = {"Date", "Category", "Amount", "Description"};
+    private static final int INITIAL_CAPACITY = 256;
+
+    // Both sizes are powers of two so the slot is a mask of the key
+    private static final int DATE_CACHE_SIZE = 1024;
+    private static final int AMOUNT_CACHE_SIZE = 4096;
+
+    // Row columns; only the first size entries are in use
+    private int[] expenseIds = new int[INITIAL_CAPACITY];
+    private int[] epochDays = new int[INITIAL_CAPACITY];
+    private long[] amountCents = new long[INITIAL_CAPACITY];
+    private int[] categoryIds = new int[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private final Map<String, String> descriptionPool = new HashMap<>();
+
+    // Category ID -> name, sorted by ID for lookups without boxing
+    private int[] categoryKeys = new int[0];
+    private String[] categoryNames = new String[0];
+
+    private String currencySymbol = "$";
+    private String datePattern = "yyyy-MM-dd";
+    private DateTimeFormatter dateFormatter = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    private final int[] dateCacheKeys = new int[DATE_CACHE_SIZE];
+    private final String[] dateCacheValues = new String[DATE_CACHE_SIZE];
+    private final long[] amountCacheKeys = new long[AMOUNT_CACHE_SIZE];
+    private final String[] amountCacheValues = new String[AMOUNT_CACHE_SIZE];
+
+    @Override
+    public int getRowCount() {
+        return size;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        switch (columnIndex) {
+            case DATE_COLUMN:
+                return formatDate(epochDays[rowIndex]);
+            case CATEGORY_COLUMN:
+                return getCategoryName(categoryIds[rowIndex]);
+            case AMOUNT_COLUMN:
+                return formatAmount(amountCents[rowIndex]);
+            case DESCRIPTION_COLUMN:
+                return descriptions[rowIndex];
+            default:
+                throw new IndexOutOfBoundsException("Column " + columnIndex);
+        }
+    }
+
+    /**
+     * Replace all rows
+     */
+    public void setExpenses(List<Expense> expenses) {
+        size = 0;
+        descriptionPool.clear();
+        ensureCapacity(expenses.size());
+        for (Expense expense : expenses) {
+            rememberCategoryName(expense);
+            store(size++, expense);
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * Insert a row before the given row index
+     */
+    public void insertExpense(int row, Expense expense) {
+        if (row < 0 || row > size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        ensureCapacity(size + 1);
+        int moved = size - row;
+        System.arraycopy(expenseIds, row, expenseIds, row + 1, moved);
+        System.arraycopy(epochDays, row, epochDays, row + 1, moved);
+        System.arraycopy(amountCents, row, amountCents, row + 1, moved);
+        System.arraycopy(categoryIds, row, categoryIds, row + 1, moved);
+        System.arraycopy(descriptions, row, descriptions, row + 1, moved);
+        rememberCategoryName(expense);
+        store(row, expense);
+        size++;
+        fireTableRowsInserted(row, row);
+    }
+
+    /**
+     * Remove one row
+     */
+    public void removeRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        int moved = size - row - 1;
+        System.arraycopy(expenseIds, row + 1, expenseIds, row, moved);
+        System.arraycopy(epochDays, row + 1, epochDays, row, moved);
+        System.arraycopy(amountCents, row + 1, amountCents, row, moved);
+        System.arraycopy(categoryIds, row + 1, categoryIds, row, moved);
+        System.arraycopy(descriptions, row + 1, descriptions, row, moved);
+        size--;
+        descriptions[size] = null;
+        fireTableRowsDeleted(row, row);
+    }
+
+    /**
+     * Row index of an expense, or -1 if it is not in the table
+     */
+    public int indexOfExpense(int expenseId) {
+        for (int i = 0; i < size; i++) {
+            if (expenseIds[i] == expenseId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int getExpenseId(int row) {
+        return expenseIds[row];
+    }
+
+    /**
+     * Days since 1970-01-01 of the expense in a row
+     */
+    public int getEpochDay(int row) {
+        return epochDays[row];
+    }
+
+    public Date getExpenseDate(int row) {
+        return java.sql.Date.valueOf(LocalDate.ofEpochDay(epochDays[row]));
+    }
+
+    /**
+     * Set the currency symbol and date pattern used to display rows
+     */
+    public void setDisplayFormat(String currencySymbol, String datePattern) {
+        if (currencySymbol.equals(this.currencySymbol) && datePattern.equals(this.datePattern)) {
+            return;
+        }
+
+        DateTimeFormatter formatter;
+        try {
+            formatter = DateTimeFormatter.ofPattern(datePattern);
+        } catch (IllegalArgumentException e) {
+            e.printStackTrace();
+            formatter = DateTimeFormatter.ISO_LOCAL_DATE; // Default format
+        }
+        this.currencySymbol = currencySymbol;
+        this.datePattern = datePattern;
+        this.dateFormatter = formatter;
+        Arrays.fill(dateCacheValues, null);
+        Arrays.fill(amountCacheValues, null);
+        fireRowsChanged();
+    }
+
+    /**
+     * Set the names shown for category IDs, e.g. after a category is renamed.
+     * Names learned from loaded expenses are kept for IDs not in the collection.
+     */
+    public void setCategoryNames(Collection<Category> categories) {
+        if (categories != null) {
+            for (Category category : categories) {
+                putCategoryName(category.getCategoryId(), category.getName());
+            }
+        }
+        fireRowsChanged();
+    }
+
+    /**
+     * Get the category name to display for a category ID
+     */
+    private String getCategoryName(int categoryId) {
+        int index = Arrays.binarySearch(categoryKeys, categoryId);
+        return index >= 0 ? categoryNames[index] : "Unknown";
+    }
+
+    /**
+     * Use the name from the expense query's join for categories not known yet
+     */
+    private void rememberCategoryName(Expense expense) {
+        if (expense.getCategoryName() != null
+            && Arrays.binarySearch(categoryKeys, expense.getCategoryId()) < 0) {
+            putCategoryName(expense.getCategoryId(), expense.getCategoryName());
+        }
+    }
+
+    private void putCategoryName(int categoryId, String name) {
+        int index = Arrays.binarySearch(categoryKeys, categoryId);
+        if (index >= 0) {
+            categoryNames[index] = name;
+            return;
+        }
+        int insertAt = -index - 1;
+        int[] keys = new int[categoryKeys.length + 1];
+        String[] names = new String[keys.length];
+        System.arraycopy(categoryKeys, 0, keys, 0, insertAt);
+        System.arraycopy(categoryNames, 0, names, 0, insertAt);
+        keys[insertAt] = categoryId;
+        names[insertAt] = name;
+        System.arraycopy(categoryKeys, insertAt, keys, insertAt + 1, categoryKeys.length - insertAt);
+        System.arraycopy(categoryNames, insertAt, names, insertAt + 1, categoryKeys.length - insertAt);
+        categoryKeys = keys;
+        categoryNames = names;
+    }
+
+    private void store(int row, Expense expense) {
+        expenseIds[row] = expense.getExpenseId();
+        // Calendar day only; the database stores dates without a time
+        epochDays[row] = (int) new java.sql.Date(expense.getExpenseDate().getTime()).toLocalDate().toEpochDay();
+        amountCents[row] = expense.getAmountCents();
+        categoryIds[row] = expense.getCategoryId();
+        descriptions[row] = pooled(expense.getDescription());
+    }
+
+    private String pooled(String description) {
+        if (description == null) {
+            return null;
+        }
+        String existing = descriptionPool.putIfAbsent(description, description);
+        return existing != null ? existing : description;
+    }
+
+    private String formatDate(int epochDay) {
+        int slot = epochDay & (DATE_CACHE_SIZE - 1);
+        String cached = dateCacheValues[slot];
+        if (cached != null && dateCacheKeys[slot] == epochDay) {
+            return cached;
+        }
+        String formatted = dateFormatter.format(LocalDate.ofEpochDay(epochDay));
+        dateCacheKeys[slot] = epochDay;
+        dateCacheValues[slot] = formatted;
+        return formatted;
+    }
+
+    private String formatAmount(long cents) {
+        int slot = (int) (cents ^ (cents >>> 32)) & (AMOUNT_CACHE_SIZE - 1);
+        String cached = amountCacheValues[slot];
+        if (cached != null && amountCacheKeys[slot] == cents) {
+            return cached;
+        }
+        long absolute = Math.abs(cents);
+        long fraction = absolute % 100;
+        String formatted = currencySymbol + " " + (cents < 0 ? "-" : "") + absolute / 100 + "."
+            + (fraction < 10 ? "0" : "") + fraction;
+        amountCacheKeys[slot] = cents;
+        amountCacheValues[slot] = formatted;
+        return formatted;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= expenseIds.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, expenseIds.length * 2);
+        expenseIds = Arrays.copyOf(expenseIds, newCapacity);
+        epochDays = Arrays.copyOf(epochDays, newCapacity);
+        amountCents = Arrays.copyOf(amountCents, newCapacity);
+        categoryIds = Arrays.copyOf(categoryIds, newCapacity);
+        descriptions = Arrays.copyOf(descriptions, newCapacity);
+    }
+
+    /**
+     * Repaint all rows without resetting the selection or sort order
+     */
+    private void fireRowsChanged() {
+        if (size > 0) {
+            fireTableRowsUpdated(0, size - 1);
+        }
+    }
+}
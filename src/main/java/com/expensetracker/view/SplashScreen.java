@@ -1,29 +1,24 @@
 package com.expensetracker.view;
 
-import com.expensetracker.util.DatabaseUtil;
 import com.expensetracker.util.SwingUtils;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 
 /**
- * Splash screen displayed when the application starts
+ * Splash screen displayed when the application starts. Progress is driven
+ * by the startup orchestrator.
  */
 public class SplashScreen extends JWindow {
     
     private JProgressBar progressBar;
     private JLabel statusLabel;
-    private Timer timer;
-    private int progress = 0;
     
     /**
      * Constructor
      */
     public SplashScreen() {
         createUI();
-        startProgress();
     }
     
     /**
@@ -110,61 +105,13 @@ public class SplashScreen extends JWindow {
     }
     
     /**
-     * Start the progress animation
+     * Show how far startup has progressed
+     *
+     * @param percent 0-100
+     * @param message the step that just finished
      */
-    private void startProgress() {
-        timer = new Timer(30, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                progress += 1;
-                progressBar.setValue(progress);
-                
-                // Update status text at certain points
-                if (progress == 20) {
-                    statusLabel.setText("Initializing components...");
-                } else if (progress == 50) {
-                    statusLabel.setText("Connecting to database...");
-                    initializeDatabase();
-                } else if (progress == 80) {
-                    statusLabel.setText("Loading user interface...");
-                } else if (progress >= 100) {
-                    timer.stop();
-                    SplashScreen.this.dispose();
-                    showLoginView();
-                }
-            }
-        });
-        timer.start();
-    }
-    
-    /**
-     * Initialize the database connection
-     */
-    private void initializeDatabase() {
-        try {
-            DatabaseUtil.initializeDatabase();
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(
-                this,
-                "Error connecting to database: " + e.getMessage(),
-                "Database Error",
-                JOptionPane.ERROR_MESSAGE
-            );
-            System.exit(1);
-        }
-    }
-    
-    /**
-     * Show the login view
-     */
-    private void showLoginView() {
-        SwingUtilities.invokeLater(new Runnable() {
-            @Override
-            public void run() {
-                LoginView loginView = new LoginView();
-                loginView.setVisible(true);
-            }
-        });
+    public void setProgress(int percent, String message) {
+        progressBar.setValue(percent);
+        statusLabel.setText(message);
     }
 } 
\ No newline at end of file
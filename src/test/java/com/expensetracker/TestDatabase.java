@@ -0,0 +1,95 @@
+package com.expensetracker;
+
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.EmbeddedStorageEngine;
+import com.expensetracker.dao.UserDAO;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.User;
+import com.expensetracker.util.DatabaseUtil;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded H2 database for the tests that need one.
+ *
+ * The storage engine can only be chosen before the first connection, so one
+ * database in a temporary directory is shared by every test in the JVM. Tests
+ * keep out of each other's way by working on users of their own.
+ */
+public final class TestDatabase {
+
+    private static final AtomicInteger USER_NUMBER = new AtomicInteger();
+    private static boolean started = false;
+
+    private TestDatabase() {
+    }
+
+    /**
+     * Create and migrate the database on first use
+     */
+    public static synchronized void start() throws Exception {
+        if (started) {
+            return;
+        }
+        Path directory = Files.createTempDirectory("expensetracker-test");
+        DatabaseUtil.setStorageEngine(new EmbeddedStorageEngine(directory.resolve("expense_tracker")));
+        DatabaseUtil.initializeDatabase();
+        started = true;
+    }
+
+    /**
+     * Add a user with a name no other test uses
+     */
+    public static User createUser() throws SQLException {
+        User user = new User();
+        user.setUsername("test" + System.nanoTime() + "_" + USER_NUMBER.incrementAndGet());
+        user.setPassword("secret");
+        user.setEmail(user.getUsername() + "@example.com");
+        if (!new UserDAO().addUser(user)) {
+            throw new SQLException("Could not add user " + user.getUsername());
+        }
+        return user;
+    }
+
+    /**
+     * Add a category owned by the given user
+     */
+    public static Category createCategory(int userId, String name) throws SQLException {
+        Category category = new Category(0, name, name + " expenses", userId, false);
+        if (!new CategoryDAO().addCategory(category)) {
+            throw new SQLException("Could not add category " + name);
+        }
+        return category;
+    }
+
+    /**
+     * ID of the default category with the given name, e.g. "Other"
+     */
+    public static int defaultCategoryId(String name) {
+        for (Category category : new CategoryDAO().getDefaultCategories()) {
+            if (category.getName().equals(name)) {
+                return category.getCategoryId();
+            }
+        }
+        throw new IllegalStateException("No default category " + name);
+    }
+
+    /**
+     * An unsaved expense
+     */
+    public static Expense expense(int userId, int categoryId, String amount, LocalDate date) {
+        Expense expense = new Expense();
+        expense.setUserId(userId);
+        expense.setCategoryId(categoryId);
+        expense.setAmount(new BigDecimal(amount));
+        expense.setDescription("Test expense");
+        expense.setExpenseDate(java.sql.Date.valueOf(date));
+        return expense;
+    }
+}
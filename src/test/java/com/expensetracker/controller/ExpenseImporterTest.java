@@ -0,0 +1,164 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.TestDatabase;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.Money;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExpenseImporterTest {
+
+    private static final int ROWS = 1000;
+    private static final int BATCH_SIZE = 50;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ExpenseDAO expenseDAO = new ExpenseDAO();
+    private int userId;
+    private Path file;
+    private int validRows;
+    private long validCents;
+
+    @BeforeClass
+    public static void startDatabase() throws Exception {
+        TestDatabase.start();
+    }
+
+    @Before
+    public void writeStatement() throws Exception {
+        userId = TestDatabase.createUser().getUserId();
+
+        // A bank statement: spending is negative, with some credits and bad dates mixed in
+        List<String> lines = new ArrayList<>();
+        lines.add("Date,Description,Amount,Category");
+        for (int i = 1; i <= ROWS; i++) {
+            long cents = 100 + i % 500;
+            if (i % 40 == 0) {
+                lines.add(String.format("2024-02-%02d,Refund %d,%s,Food", i % 28 + 1, i, Money.ofCents(cents)));
+            } else if (i % 97 == 0) {
+                lines.add("2024-02-30,Row " + i + ",-" + Money.ofCents(cents) + ",Food");
+            } else {
+                lines.add(String.format("2024-%02d-%02d,Row %d,\"-$%s\",%s", i % 12 + 1, i % 28 + 1, i,
+                    Money.ofCents(cents), i % 2 == 0 ? "Food" : "Unknown"));
+                validRows++;
+                validCents += cents;
+            }
+        }
+        file = folder.getRoot().toPath().resolve("statement.csv");
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void importsEveryValidRow() throws Exception {
+        ExpenseImporter.ImportResult result = new ExpenseImporter(ExpenseImporter.SpendingSign.NEGATIVE, BATCH_SIZE)
+            .importCsv(userId, file, (percent, message) -> { });
+
+        assertEquals(ROWS, result.getLinesRead());
+        assertEquals(validRows, result.getInsertedCount());
+        assertEquals(ROWS - validRows, result.getSkippedCount());
+        assertEquals(0, result.getFailedCount());
+        assertStoredOnce();
+        assertFalse(Files.exists(checkpointOf(file)));
+    }
+
+    @Test
+    public void resumesFromCheckpointWithoutDuplicates() throws Exception {
+        // Stop the first run after its third batch is stored
+        AtomicInteger batches = new AtomicInteger();
+        try {
+            new ExpenseImporter(ExpenseImporter.SpendingSign.NEGATIVE, BATCH_SIZE)
+                .importCsv(userId, file, (percent, message) -> {
+                    if (batches.incrementAndGet() == 3) {
+                        throw new IllegalStateException("Stopped");
+                    }
+                });
+            fail("The import should have stopped");
+        } catch (IllegalStateException e) {
+            assertEquals("Stopped", e.getMessage());
+        }
+        assertEquals(3 * BATCH_SIZE, expenseDAO.countExpenses(userId, 0, null, null));
+        assertTrue(Files.exists(checkpointOf(file)));
+        assertFalse(ExpenseController.hasPendingWrites(userId));
+
+        ExpenseImporter.ImportResult resumed = new ExpenseImporter(ExpenseImporter.SpendingSign.NEGATIVE, BATCH_SIZE)
+            .importCsv(userId, file, (percent, message) -> { });
+
+        assertEquals(validRows - 3 * BATCH_SIZE, resumed.getInsertedCount());
+        assertStoredOnce();
+        assertFalse(Files.exists(checkpointOf(file)));
+    }
+
+    @Test
+    public void changedSignStartsOver() throws Exception {
+        try {
+            new ExpenseImporter(ExpenseImporter.SpendingSign.NEGATIVE, BATCH_SIZE)
+                .importCsv(userId, file, (percent, message) -> {
+                    throw new IllegalStateException("Stopped");
+                });
+            fail("The import should have stopped");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+
+        // The checkpoint was written for the other sign, so nothing is skipped
+        ExpenseImporter.ImportResult result = new ExpenseImporter(ExpenseImporter.SpendingSign.POSITIVE, BATCH_SIZE)
+            .importCsv(userId, file, (percent, message) -> { });
+        assertEquals(ROWS, result.getLinesRead());
+        assertEquals(ROWS / 40, result.getInsertedCount());
+    }
+
+    @Test
+    public void parseAmountKeepsTheSign() {
+        assertEquals(Money.parse("1234.50"), ExpenseImporter.parseAmount("$1,234.50"));
+        assertEquals(Money.parse("-45.10"), ExpenseImporter.parseAmount("-45.10"));
+        assertEquals(Money.parse("-45.10"), ExpenseImporter.parseAmount("45.10-"));
+        assertEquals(Money.parse("-45.10"), ExpenseImporter.parseAmount("(45.10)"));
+        assertEquals(Money.parse("-1000000.00"), ExpenseImporter.parseAmount("-€1,000,000.00"));
+        for (String invalid : new String[]{"1,23", "12,3456", "--5", "5-5", "abc", ""}) {
+            try {
+                ExpenseImporter.parseAmount(invalid);
+                fail("Parsed \"" + invalid + "\"");
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+    }
+
+    private void assertStoredOnce() {
+        List<Expense> stored = expenseDAO.getExpensesByUser(userId);
+        assertEquals(validRows, stored.size());
+
+        Set<String> descriptions = new HashSet<>();
+        long cents = 0;
+        for (Expense expense : stored) {
+            assertTrue("Imported twice: " + expense.getDescription(), descriptions.add(expense.getDescription()));
+            cents += expense.getAmountCents();
+        }
+        assertEquals(validCents, cents);
+        assertEquals(Money.ofCents(validCents), expenseDAO.getTotalExpenses(userId, 0));
+    }
+
+    private static Path checkpointOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".import-checkpoint");
+    }
+}
@@ -0,0 +1,132 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.TestDatabase;
+import com.expensetracker.model.Expense;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ExpenseDAOPagingTest {
+
+    private final ExpenseDAO expenseDAO = new ExpenseDAO();
+    private int userId;
+    private int food;
+    private int transport;
+    private List<Expense> stored;
+
+    @BeforeClass
+    public static void startDatabase() throws Exception {
+        TestDatabase.start();
+    }
+
+    @Before
+    public void addExpenses() throws Exception {
+        userId = TestDatabase.createUser().getUserId();
+        food = TestDatabase.createCategory(userId, "Food").getCategoryId();
+        transport = TestDatabase.createCategory(userId, "Transport").getCategoryId();
+
+        // Five expenses on each of five days, so most page boundaries fall inside a day
+        stored = new ArrayList<>();
+        LocalDate day = LocalDate.of(2024, 3, 1);
+        for (int d = 0; d < 5; d++) {
+            for (int i = 0; i < 5; i++) {
+                Expense expense = TestDatabase.expense(userId, i % 2 == 0 ? food : transport,
+                    (d + 1) + "." + i, day.plusDays(d * 3L));
+                assertTrue(expenseDAO.addExpense(expense));
+                stored.add(expense);
+            }
+        }
+        // Newest first, ties broken by the higher ID
+        stored.sort(Comparator.comparing(Expense::getExpenseDate)
+            .thenComparingInt(Expense::getExpenseId).reversed());
+    }
+
+    @Test
+    public void forwardPagesCoverEveryExpenseOnce() {
+        for (int pageSize : new int[]{1, 3, 4, 5, 7, 25, 30}) {
+            assertEquals("page size " + pageSize, ids(stored), ids(pageForward(0, pageSize)));
+        }
+    }
+
+    @Test
+    public void backwardPagesRetraceForwardPages() {
+        int pageSize = 4;
+        List<ExpensePage> pages = new ArrayList<>();
+        ExpensePage page = expenseDAO.getExpensePage(userId, 0, null, true, pageSize);
+        pages.add(page);
+        while (page.hasNext()) {
+            page = expenseDAO.getExpensePage(userId, 0, page.getNextCursor(), true, pageSize);
+            pages.add(page);
+        }
+        assertEquals(7, pages.size());
+        assertFalse(pages.get(0).hasPrevious());
+
+        // Step back from the last page and expect the same pages in reverse
+        for (int i = pages.size() - 2; i >= 0; i--) {
+            ExpensePage previous = expenseDAO.getExpensePage(userId, 0, page.getPreviousCursor(), false, pageSize);
+            assertEquals(ids(pages.get(i).getExpenses()), ids(previous.getExpenses()));
+            assertTrue(previous.hasNext());
+            assertEquals(i > 0, previous.hasPrevious());
+            page = previous;
+        }
+    }
+
+    @Test
+    public void categoryFilterPagesWithinTheCategory() {
+        List<Expense> transportOnly = new ArrayList<>();
+        for (Expense expense : stored) {
+            if (expense.getCategoryId() == transport) {
+                transportOnly.add(expense);
+            }
+        }
+        assertEquals(10, transportOnly.size());
+        assertEquals(ids(transportOnly), ids(pageForward(transport, 3)));
+    }
+
+    @Test
+    public void lastPageHasNoNext() {
+        ExpensePage page = expenseDAO.getExpensePage(userId, 0, null, true, 25);
+        assertEquals(25, page.getExpenses().size());
+        assertFalse(page.hasNext());
+
+        ExpensePage beyond = expenseDAO.getExpensePage(userId, 0, page.getNextCursor(), true, 25);
+        assertTrue(beyond.isEmpty());
+        assertNull(beyond.getNextCursor());
+    }
+
+    private List<Expense> pageForward(int categoryId, int pageSize) {
+        List<Expense> all = new ArrayList<>();
+        ExpenseCursor cursor = null;
+        // A cursor that does not move past its own row would page forever
+        for (int pages = 0; pages <= stored.size(); pages++) {
+            ExpensePage page = expenseDAO.getExpensePage(userId, categoryId, cursor, true, pageSize);
+            assertTrue(page.getExpenses().size() <= pageSize);
+            all.addAll(page.getExpenses());
+            if (!page.hasNext()) {
+                return all;
+            }
+            cursor = page.getNextCursor();
+        }
+        throw new AssertionError("Paging did not end: " + ids(all));
+    }
+
+    private static List<Integer> ids(List<Expense> expenses) {
+        List<Integer> ids = new ArrayList<>();
+        for (Expense expense : expenses) {
+            ids.add(expense.getExpenseId());
+        }
+        return Collections.unmodifiableList(ids);
+    }
+}
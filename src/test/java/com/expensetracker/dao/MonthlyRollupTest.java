@@ -0,0 +1,176 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.TestDatabase;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.Money;
+import com.expensetracker.util.DatabaseUtil;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The monthly rollup must always equal a SUM over the expenses it summarizes
+ */
+public class MonthlyRollupTest {
+
+    private final ExpenseDAO expenseDAO = new ExpenseDAO();
+    private final CategoryDAO categoryDAO = new CategoryDAO();
+    private int userId;
+    private int food;
+    private int travel;
+
+    @BeforeClass
+    public static void startDatabase() throws Exception {
+        TestDatabase.start();
+    }
+
+    @Before
+    public void createUser() throws Exception {
+        userId = TestDatabase.createUser().getUserId();
+        food = TestDatabase.createCategory(userId, "Food").getCategoryId();
+        travel = TestDatabase.createCategory(userId, "Travel").getCategoryId();
+    }
+
+    @Test
+    public void addKeepsRollupInStep() throws SQLException {
+        add(food, "12.50", LocalDate.of(2024, 1, 5));
+        add(food, "7.25", LocalDate.of(2024, 1, 31));
+        add(travel, "100.00", LocalDate.of(2024, 2, 1));
+        add(travel, "-20.00", LocalDate.of(2024, 2, 14));
+
+        List<Expense> batch = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            batch.add(TestDatabase.expense(userId, i % 2 == 0 ? food : travel, "1.01", LocalDate.of(2023, 12, 1 + i % 28)));
+        }
+        assertEquals(50, expenseDAO.addExpenses(batch, 16).getInsertedCount());
+
+        assertRollupMatchesExpenses();
+        assertEquals(Money.parse("150.25"), expenseDAO.getTotalExpenses(userId, 0));
+    }
+
+    @Test
+    public void updateMovesAmountBetweenMonthsAndCategories() throws SQLException {
+        Expense expense = add(food, "40.00", LocalDate.of(2024, 3, 10));
+        add(food, "2.00", LocalDate.of(2024, 3, 11));
+
+        Expense moved = TestDatabase.expense(userId, travel, "55.55", LocalDate.of(2024, 4, 1));
+        moved.setExpenseId(expense.getExpenseId());
+        Expense previous = expenseDAO.updateExpense(moved);
+        assertNotNull(previous);
+        assertEquals(Money.parse("40.00"), previous.getMoney());
+        assertRollupMatchesExpenses();
+
+        // Same month and category, new amount
+        moved.setAmount(new BigDecimal("0.01"));
+        assertNotNull(expenseDAO.updateExpense(moved));
+        assertRollupMatchesExpenses();
+        assertEquals(Money.parse("2.01"), expenseDAO.getTotalExpenses(userId, 0));
+    }
+
+    @Test
+    public void deleteRemovesAmount() throws SQLException {
+        Expense first = add(food, "9.99", LocalDate.of(2024, 5, 1));
+        add(food, "0.01", LocalDate.of(2024, 5, 2));
+
+        assertNotNull(expenseDAO.deleteExpense(first.getExpenseId(), userId));
+        assertRollupMatchesExpenses();
+        assertEquals(Money.parse("0.01"), expenseDAO.getTotalExpenses(userId, food));
+
+        // Another user's delete must not touch this user's rollup
+        int otherUser = TestDatabase.createUser().getUserId();
+        assertNull(expenseDAO.deleteExpense(first.getExpenseId(), otherUser));
+        assertRollupMatchesExpenses();
+    }
+
+    @Test
+    public void deleteCategoryMergesIntoOther() throws SQLException {
+        int other = TestDatabase.defaultCategoryId("Other");
+        add(food, "10.00", LocalDate.of(2024, 6, 1));
+        add(food, "5.00", LocalDate.of(2024, 7, 1));
+        add(other, "1.00", LocalDate.of(2024, 6, 15));
+        add(travel, "3.00", LocalDate.of(2024, 6, 20));
+
+        assertTrue(categoryDAO.deleteCategory(food));
+        assertRollupMatchesExpenses();
+        assertEquals(Money.parse("16.00"), expenseDAO.getTotalExpenses(userId, other));
+        assertEquals(Money.ZERO, expenseDAO.getTotalExpenses(userId, food));
+        assertEquals(Money.parse("19.00"), expenseDAO.getTotalExpenses(userId, 0));
+    }
+
+    @Test
+    public void rebuildMatchesMaintainedRollup() throws SQLException {
+        add(food, "3.33", LocalDate.of(2024, 8, 8));
+        add(travel, "4.44", LocalDate.of(2024, 9, 9));
+        Map<String, long[]> maintained = rollupRows();
+
+        assertTrue(expenseDAO.rebuildMonthlyRollup(userId));
+        assertEquals(toString(maintained), toString(rollupRows()));
+        assertRollupMatchesExpenses();
+    }
+
+    private Expense add(int categoryId, String amount, LocalDate date) {
+        Expense expense = TestDatabase.expense(userId, categoryId, amount, date);
+        assertTrue(expenseDAO.addExpense(expense));
+        return expense;
+    }
+
+    private void assertRollupMatchesExpenses() throws SQLException {
+        Map<String, long[]> expected = query(
+            "SELECT YEAR(expense_date) AS y, MONTH(expense_date) AS m, category_id, " +
+            "ROUND(SUM(amount) * 100) AS cents, COUNT(*) AS n FROM expenses WHERE user_id = ? " +
+            "GROUP BY YEAR(expense_date), MONTH(expense_date), category_id");
+        Map<String, long[]> actual = rollupRows();
+        assertFalse(expected.isEmpty());
+        assertEquals(toString(expected), toString(actual));
+    }
+
+    /**
+     * Rollup rows that still count at least one expense; emptied rows may stay behind at zero
+     */
+    private Map<String, long[]> rollupRows() throws SQLException {
+        return query(
+            "SELECT year AS y, month AS m, category_id, ROUND(total * 100) AS cents, expense_count AS n " +
+            "FROM expense_monthly_rollup WHERE user_id = ? AND expense_count <> 0");
+    }
+
+    private Map<String, long[]> query(String sql) throws SQLException {
+        Map<String, long[]> rows = new TreeMap<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.put(rs.getInt("y") + "-" + rs.getInt("m") + "/" + rs.getInt("category_id"),
+                        new long[]{rs.getLong("cents"), rs.getLong("n")});
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static String toString(Map<String, long[]> rows) {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, long[]> row : rows.entrySet()) {
+            text.append(row.getKey()).append('=').append(row.getValue()[0]).append('x').append(row.getValue()[1]).append('\n');
+        }
+        return text.toString();
+    }
+}
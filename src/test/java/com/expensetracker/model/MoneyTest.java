@@ -0,0 +1,81 @@
+package com.expensetracker.model;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class MoneyTest {
+
+    @Test
+    public void parseRoundsHalfUpToCents() {
+        assertEquals(1234, Money.parse("12.344").getCents());
+        assertEquals(1235, Money.parse("12.345").getCents());
+        assertEquals(1235, Money.parse("12.3450001").getCents());
+        assertEquals(1, Money.parse("0.005").getCents());
+        assertEquals(0, Money.parse("0.004").getCents());
+        assertEquals(100, Money.parse("0.995").getCents());
+    }
+
+    @Test
+    public void parseRoundsNegativeAmountsAwayFromZero() {
+        assertEquals(-1234, Money.parse("-12.344").getCents());
+        assertEquals(-1235, Money.parse("-12.345").getCents());
+        assertEquals(-1, Money.parse("-0.005").getCents());
+        assertEquals(0, Money.parse("-0.004").getCents());
+        assertEquals(-5, Money.parse("-0.05").getCents());
+    }
+
+    @Test
+    public void parseAcceptsShortForms() {
+        assertEquals(1200, Money.parse("12").getCents());
+        assertEquals(1200, Money.parse("+12.").getCents());
+        assertEquals(50, Money.parse(".5").getCents());
+        assertEquals(-50, Money.parse("-.5").getCents());
+        assertEquals(123400, Money.parse("1.234E3").getCents());
+    }
+
+    @Test
+    public void parseMatchesBigDecimalRounding() {
+        String[] amounts = {
+            "0", "0.01", "-0.01", "1.999", "-1.999", "1.995", "-1.995", "1.994", "-1.994",
+            "99999.99", "-99999.995", "123456789.125", "-123456789.125", "0.0049999", "-0.0050"
+        };
+        for (String amount : amounts) {
+            assertEquals(amount, Money.of(new BigDecimal(amount)), Money.parse(amount));
+        }
+    }
+
+    @Test
+    public void parseRejectsNonNumbers() {
+        for (String text : new String[]{"", "-", ".", "12a", "1.2.3", "92233720368547758.08"}) {
+            try {
+                Money.parse(text);
+                fail("Parsed \"" + text + "\"");
+            } catch (NumberFormatException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void toPlainStringKeepsTheSign() {
+        assertEquals("-0.05", Money.ofCents(-5).toPlainString());
+        assertEquals("-12.30", Money.parse("-12.3").toPlainString());
+        assertEquals("0.00", Money.ZERO.toPlainString());
+        assertEquals("1234.50", Money.ofCents(123450).toPlainString());
+    }
+
+    @Test
+    public void arithmeticIsExact() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            total = total.plus(Money.parse("0.10"));
+        }
+        assertEquals(Money.ofCents(100), total);
+        assertEquals(Money.parse("-0.90"), Money.parse("0.10").minus(Money.ofCents(100)));
+        assertEquals(new BigDecimal("-0.90"), Money.parse("-0.9").toBigDecimal());
+    }
+}
@@ -0,0 +1,156 @@
+package com.expensetracker.report;
+
+import com.expensetracker.TestDatabase;
+import com.expensetracker.controller.ExpenseController;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.Money;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Reports read from the cube must match the database queries they replace
+ */
+public class ExpenseCubeTest {
+
+    private final ExpenseController expenseController = new ExpenseController();
+    private final ExpenseDAO expenseDAO = new ExpenseDAO();
+    private ExpenseCubeCache cubes;
+    private int userId;
+    private Map<Integer, String> names;
+
+    @BeforeClass
+    public static void startDatabase() throws Exception {
+        TestDatabase.start();
+    }
+
+    @Before
+    public void addExpenses() throws Exception {
+        userId = TestDatabase.createUser().getUserId();
+        int groceries = TestDatabase.createCategory(userId, "Groceries").getCategoryId();
+        int fuel = TestDatabase.createCategory(userId, "Fuel").getCategoryId();
+        int other = TestDatabase.defaultCategoryId("Other");
+        names = new HashMap<>();
+        names.put(groceries, "Groceries");
+        names.put(fuel, "Fuel");
+        names.put(other, "Other");
+
+        // Spread over two years, with month ends, a leap day and a refund
+        int[] categories = {groceries, fuel, other};
+        LocalDate day = LocalDate.of(2023, 11, 28);
+        for (int i = 0; i < 120; i++) {
+            Money amount = Money.ofCents(i % 17 == 0 ? -410 : 100 + i * 37 % 900);
+            assertTrue(expenseController.addExpense(userId, categories[i % 3], amount.toBigDecimal(),
+                "Expense " + i, Date.valueOf(day)));
+            day = day.plusDays(i % 4 + 2);
+        }
+
+        cubes = new ExpenseCubeCache(expenseController, 4);
+        ExpenseController.addExpenseChangeListener(cubes);
+    }
+
+    @After
+    public void removeListener() {
+        ExpenseController.removeExpenseChangeListener(cubes);
+    }
+
+    @Test
+    public void loadedCubeMatchesDatabase() {
+        ExpenseCube cube = cubes.get(userId);
+        assertNotNull(cube);
+        assertMatchesDatabase(cube);
+    }
+
+    @Test
+    public void cubeFollowsControllerChanges() {
+        ExpenseCube cube = cubes.get(userId);
+        assertNotNull(cube);
+
+        List<Expense> expenses = expenseController.getExpensesByUser(userId);
+        Expense moved = expenses.get(3);
+        Expense deleted = expenses.get(10);
+        int otherCategory = 0;
+        for (int categoryId : names.keySet()) {
+            if (categoryId != moved.getCategoryId()) {
+                otherCategory = categoryId;
+            }
+        }
+
+        assertTrue(expenseController.updateExpense(moved.getExpenseId(), userId, otherCategory,
+            new BigDecimal("321.09"), "Moved", Date.valueOf(LocalDate.of(2024, 2, 29))));
+        assertTrue(expenseController.deleteExpense(deleted.getExpenseId(), userId));
+        assertTrue(expenseController.addExpense(userId, otherCategory, new BigDecimal("0.99"),
+            "Late", Date.valueOf(LocalDate.of(2024, 12, 31))));
+
+        // Still the same cube, updated in place rather than reloaded
+        assertSame(cube, cubes.get(userId));
+        assertEquals(1, cubes.getLoadCount());
+        assertMatchesDatabase(cube);
+    }
+
+    private void assertMatchesDatabase(ExpenseCube cube) {
+        LocalDate[][] ranges = {
+            {LocalDate.of(2023, 1, 1), LocalDate.of(2025, 12, 31)},
+            {LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)},
+            {LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29)},
+            {LocalDate.of(2023, 12, 15), LocalDate.of(2024, 3, 10)},
+            {LocalDate.of(2024, 6, 30), LocalDate.of(2024, 7, 1)}
+        };
+        for (LocalDate[] range : ranges) {
+            String label = range[0] + ".." + range[1];
+            Date start = Date.valueOf(range[0]);
+            Date end = Date.valueOf(range[1]);
+
+            assertEquals(label, expenseDAO.getTotalExpenses(userId, start, end),
+                Money.ofCents(cube.getTotal(range[0], range[1], 0)[0]));
+
+            Map<String, Money> expected = new TreeMap<>();
+            for (Object[] row : expenseDAO.getExpenseSummaryByCategory(userId, start, end)) {
+                expected.put((String) row[0], (Money) row[1]);
+            }
+            Map<String, Money> actual = new TreeMap<>();
+            for (long[] row : cube.getCategoryTotals(range[0], range[1])) {
+                actual.put(names.get((int) row[0]), Money.ofCents(row[1]));
+            }
+            assertEquals(label, expected, actual);
+
+            // Monthly totals take an exclusive end
+            LocalDate endExclusive = range[1].plusDays(1);
+            assertEquals(label, monthly(expenseDAO.getMonthlyTotalsInRange(userId, start, Date.valueOf(endExclusive))),
+                monthlyFromCube(cube.getMonthlyTotals(range[0], endExclusive, 0)));
+        }
+    }
+
+    private static List<String> monthly(List<Object[]> rows) {
+        List<String> months = new ArrayList<>();
+        for (Object[] row : rows) {
+            months.add(row[0] + "-" + row[1] + "=" + row[2]);
+        }
+        return months;
+    }
+
+    private static List<String> monthlyFromCube(List<long[]> rows) {
+        List<String> months = new ArrayList<>();
+        for (long[] row : rows) {
+            months.add(row[0] + "-" + row[1] + "=" + Money.ofCents(row[2]));
+        }
+        return months;
+    }
+}
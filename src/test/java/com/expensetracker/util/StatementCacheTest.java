@@ -0,0 +1,112 @@
+package com.expensetracker.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Statement caching through the pool, against an in-memory H2 database
+ */
+public class StatementCacheTest {
+
+    private ConnectionPool pool;
+
+    @Before
+    public void createPool() {
+        // One connection, so every borrow gets the same physical connection and cache
+        pool = new ConnectionPool("jdbc:h2:mem:statementCacheTest;DB_CLOSE_DELAY=-1", null, "sa", "",
+            1, 1000, 60000, 600000, 60000, 8);
+    }
+
+    @After
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void closedStatementIsReused() throws SQLException {
+        PreparedStatement first;
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT 1")) {
+            first = pstmt.unwrap(PreparedStatement.class);
+        }
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT 1")) {
+            assertSame(first, pstmt.unwrap(PreparedStatement.class));
+        }
+        assertEquals(1, pool.getStatementCacheHits());
+        assertEquals(1, pool.getStatementCacheMisses());
+    }
+
+    @Test
+    public void sameSqlInUseGetsItsOwnStatement() throws SQLException {
+        try (Connection conn = pool.getConnection();
+             PreparedStatement outer = conn.prepareStatement("SELECT 1");
+             PreparedStatement inner = conn.prepareStatement("SELECT 1")) {
+            assertNotSame(outer.unwrap(PreparedStatement.class), inner.unwrap(PreparedStatement.class));
+        }
+    }
+
+    @Test
+    public void settingsAreResetOnCheckIn() throws SQLException {
+        int fetchSize;
+        int maxRows;
+        int queryTimeout;
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT X FROM SYSTEM_RANGE(1, 10)")) {
+            fetchSize = pstmt.getFetchSize();
+            maxRows = pstmt.getMaxRows();
+            queryTimeout = pstmt.getQueryTimeout();
+            pstmt.setFetchSize(3);
+            pstmt.setMaxRows(2);
+            pstmt.setQueryTimeout(5);
+        }
+
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT X FROM SYSTEM_RANGE(1, 10)")) {
+            assertEquals(1, pool.getStatementCacheHits());
+            assertEquals(fetchSize, pstmt.getFetchSize());
+            assertEquals(maxRows, pstmt.getMaxRows());
+            assertEquals(queryTimeout, pstmt.getQueryTimeout());
+
+            int rows = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                }
+            }
+            assertEquals(10, rows);
+        }
+    }
+
+    @Test
+    public void statementReportsTheLogicalConnection() throws SQLException {
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT 1")) {
+            assertSame(conn, pstmt.getConnection());
+        }
+
+        // Closing through the statement returns the connection rather than closing it
+        Connection conn = pool.getConnection();
+        PreparedStatement pstmt = conn.prepareStatement("SELECT 1");
+        pstmt.getConnection().close();
+        assertEquals(1, pool.getIdleConnections());
+
+        try (Connection again = pool.getConnection();
+             PreparedStatement reused = again.prepareStatement("SELECT 1");
+             ResultSet rs = reused.executeQuery()) {
+            assertTrue(rs.next());
+        }
+        assertEquals(1, pool.getTotalConnections());
+    }
+}